@@ -53,6 +53,10 @@ public class DOUBLEValueConverter_toValue_Test {
       { "6.8", 6.8D },
       { "-3.1", -3.1D },
       { ".3", 0.3D },
+      { "0.0012", 0.0012D },
+      { "1.5E+22", 1.5e22D },
+      { "123456789.0123456789", 123456789.0123456789D },
+      { "1e-300", 1e-300D },
       { "nan", NaN },
       { "inf", POSITIVE_INFINITY },
       { "-inf", NEGATIVE_INFINITY }
@@ -47,6 +47,7 @@ public class HEXValueConverter_toValue_Test {
       { "0x1", 1L },
       { "0xA", 10L },
       { "0xFF", 255L },
+      { "0x7fffffffffffffff", Long.MAX_VALUE },
       { "-0x80000000", -2147483648L },
       { "0xffffffffffffffff", 1L } // overflow
     });
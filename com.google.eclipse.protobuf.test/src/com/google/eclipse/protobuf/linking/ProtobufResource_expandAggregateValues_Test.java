@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.linking;
+
+import static java.util.Collections.singletonMap;
+
+import static org.eclipse.emf.common.util.URI.createURI;
+import static org.eclipse.xtext.nodemodel.util.NodeModelUtils.getNode;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import static com.google.eclipse.protobuf.junit.core.UnitTestModule.unitTestModule;
+import static com.google.eclipse.protobuf.junit.core.XtextRule.overrideRuntimeModuleWith;
+import static com.google.eclipse.protobuf.parser.AggregateValueCollapsingTokenSource.MIN_COLLAPSED_TOKENS;
+
+import java.io.IOException;
+
+import org.eclipse.xtext.resource.IResourceFactory;
+import org.eclipse.xtext.resource.XtextResourceSet;
+import org.eclipse.xtext.util.StringInputStream;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.google.eclipse.protobuf.junit.core.XtextRule;
+import com.google.eclipse.protobuf.protobuf.ComplexValue;
+import com.google.eclipse.protobuf.protobuf.CustomOption;
+import com.google.eclipse.protobuf.protobuf.Protobuf;
+
+/**
+ * Tests for <code>{@link ProtobufResource#expandAggregateValues()}</code>.
+ */
+public class ProtobufResource_expandAggregateValues_Test {
+  private static final int FIELD_COUNT = MIN_COLLAPSED_TOKENS / 3 + 1;
+
+  @Rule public XtextRule xtext = overrideRuntimeModuleWith(unitTestModule());
+
+  private String text;
+  private ProtobufResource resource;
+
+  @Before public void setUp() throws IOException {
+    StringBuilder value = new StringBuilder();
+    for (int i = 0; i < FIELD_COUNT; i++) {
+      value.append(" f").append(i).append(": ").append(i);
+    }
+    text = "syntax = \"proto2\";\noption (custom) = {" + value + " };\n";
+    XtextResourceSet resourceSet = xtext.injector().getInstance(XtextResourceSet.class);
+    resource = (ProtobufResource) xtext.injector().getInstance(IResourceFactory.class).createResource(
+        createURI("file:/usr/local/project/src/protos/options.proto"));
+    resourceSet.getResources().add(resource);
+    resource.load(new StringInputStream(text),
+        singletonMap(ProtobufResource.OPTION_LAZY_AGGREGATE_VALUES, Boolean.TRUE));
+  }
+
+  @Test public void should_skip_contents_of_large_aggregate_values_when_loaded_with_lazy_option() {
+    assertTrue(resource.hasLazyAggregateValues());
+    assertTrue(valueIn(optionIn(resource)).getFields().isEmpty());
+  }
+
+  @Test public void should_add_contents_of_aggregate_values_to_existing_model_objects() {
+    CustomOption option = optionIn(resource);
+    ComplexValue value = valueIn(option);
+    resource.expandAggregateValues();
+    assertFalse(resource.hasLazyAggregateValues());
+    assertSame(option, optionIn(resource));
+    assertSame(value, valueIn(option));
+    assertThat(value.getFields().size(), equalTo(FIELD_COUNT));
+    assertSame(value, getNode(value).getSemanticElement());
+    assertSame(value.getFields().get(0), getNode(value.getFields().get(0)).getSemanticElement());
+    assertThat(resource.getParseResult().getRootNode().getText(), equalTo(text));
+  }
+
+  private static CustomOption optionIn(ProtobufResource resource) {
+    Protobuf root = (Protobuf) resource.getContents().get(0);
+    return (CustomOption) root.getElements().get(0);
+  }
+
+  private static ComplexValue valueIn(CustomOption option) {
+    return (ComplexValue) option.getValue();
+  }
+}
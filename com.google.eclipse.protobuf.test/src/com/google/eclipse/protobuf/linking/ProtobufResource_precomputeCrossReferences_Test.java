@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.linking;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+
+import static com.google.eclipse.protobuf.junit.core.IntegrationTestModule.integrationTestModule;
+import static com.google.eclipse.protobuf.junit.core.XtextRule.overrideRuntimeModuleWith;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.eclipse.emf.common.notify.Adapter;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.xtext.util.CancelIndicator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.eclipse.protobuf.junit.core.XtextRule;
+import com.google.eclipse.protobuf.protobuf.ComplexTypeLink;
+import com.google.eclipse.protobuf.protobuf.MessageField;
+
+/**
+ * Tests for <code>{@link ProtobufResource#precomputeCrossReferences(CancelIndicator, ExecutorService)}</code>.
+ */
+public class ProtobufResource_precomputeCrossReferences_Test {
+  @Rule public XtextRule xtext = overrideRuntimeModuleWith(integrationTestModule());
+
+  private ExecutorService executor;
+
+  @Before public void setUp() {
+    executor = Executors.newFixedThreadPool(2);
+  }
+
+  @After public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  // // Create file Types.proto
+  //
+  // syntax = 'proto2';
+  //
+  // message Type {}
+
+  // syntax = "proto2";
+  //
+  // import "Types.proto";
+  //
+  // message Person {
+  //   optional Type type = 1;
+  // }
+  @Test public void should_remove_proxy_resolution_lock_once_cross_references_are_precomputed() {
+    ProtobufResource resource = (ProtobufResource) xtext.resource();
+    ResourceSet resourceSet = resource.getResourceSet();
+    List<Adapter> adapters = ImmutableList.copyOf(resourceSet.eAdapters());
+    resource.precomputeCrossReferences(CancelIndicator.NullImpl, executor);
+    try {
+      assertThat(resourceSet.eAdapters(), equalTo((List<Adapter>) adapters));
+      resource.resolveLazyCrossReferences(CancelIndicator.NullImpl);
+    } finally {
+      resource.discardPrecomputedCrossReferences();
+    }
+    MessageField field = xtext.find("type", MessageField.class);
+    assertFalse(((ComplexTypeLink) field.getType()).getTarget().eIsProxy());
+  }
+}
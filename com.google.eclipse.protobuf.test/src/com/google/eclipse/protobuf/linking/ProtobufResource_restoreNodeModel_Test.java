@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.linking;
+
+import static java.util.Collections.singletonMap;
+
+import static org.eclipse.emf.common.util.URI.createURI;
+import static org.eclipse.xtext.nodemodel.util.NodeModelUtils.getNode;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import static com.google.eclipse.protobuf.junit.core.UnitTestModule.unitTestModule;
+import static com.google.eclipse.protobuf.junit.core.XtextRule.overrideRuntimeModuleWith;
+
+import java.io.IOException;
+
+import org.eclipse.xtext.nodemodel.ICompositeNode;
+import org.eclipse.xtext.resource.IResourceFactory;
+import org.eclipse.xtext.resource.XtextResourceSet;
+import org.eclipse.xtext.util.StringInputStream;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.google.eclipse.protobuf.junit.core.XtextRule;
+import com.google.eclipse.protobuf.protobuf.Message;
+import com.google.eclipse.protobuf.protobuf.Protobuf;
+
+/**
+ * Tests for <code>{@link ProtobufResource#restoreNodeModel()}</code>.
+ */
+public class ProtobufResource_restoreNodeModel_Test {
+  private static final String TEXT = "syntax = \"proto2\";\nmessage Person {\n  optional string name = 1;\n}\n";
+
+  @Rule public XtextRule xtext = overrideRuntimeModuleWith(unitTestModule());
+
+  private ProtobufResource resource;
+
+  @Before public void setUp() throws IOException {
+    XtextResourceSet resourceSet = xtext.injector().getInstance(XtextResourceSet.class);
+    resource = (ProtobufResource) xtext.injector().getInstance(IResourceFactory.class).createResource(
+        createURI("file:/usr/local/project/src/protos/person.proto"));
+    resourceSet.getResources().add(resource);
+    resource.load(new StringInputStream(TEXT), singletonMap(ProtobufResource.OPTION_COMPACT, Boolean.TRUE));
+  }
+
+  @Test public void should_drop_node_model_when_loaded_with_compact_option() {
+    assertTrue(resource.isCompact());
+    assertNull(getNode(messageIn(resource)));
+  }
+
+  @Test public void should_attach_rebuilt_nodes_to_existing_model_objects() {
+    Message message = messageIn(resource);
+    resource.restoreNodeModel();
+    assertFalse(resource.isCompact());
+    ICompositeNode node = getNode(message);
+    assertSame(message, node.getSemanticElement());
+    assertSame(message, messageIn(resource));
+    assertThat(resource.getParseResult().getRootNode().getText(), equalTo(TEXT));
+  }
+
+  @Test public void should_rebuild_node_model_when_parse_result_is_requested() {
+    Message message = messageIn(resource);
+    assertThat(resource.getParseResult().getRootNode().getText(), equalTo(TEXT));
+    assertSame(message, getNode(message).getSemanticElement());
+  }
+
+  private static Message messageIn(ProtobufResource resource) {
+    Protobuf root = (Protobuf) resource.getContents().get(0);
+    return (Message) root.getElements().get(0);
+  }
+}
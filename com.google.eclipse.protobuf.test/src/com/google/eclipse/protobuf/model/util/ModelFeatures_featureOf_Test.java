@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.model.util;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+
+import static com.google.eclipse.protobuf.model.util.ModelFeatures.modelFeatures;
+import static com.google.eclipse.protobuf.model.util.ModelFeatures.Feature.FIELDS;
+import static com.google.eclipse.protobuf.model.util.ModelFeatures.Feature.IMPORTED_NAMESPACE;
+import static com.google.eclipse.protobuf.model.util.ModelFeatures.Feature.INDEX;
+import static com.google.eclipse.protobuf.model.util.ModelFeatures.Feature.NAME;
+
+import org.eclipse.emf.ecore.EObject;
+import org.junit.Test;
+
+import com.google.eclipse.protobuf.model.util.ModelFeatures.Feature;
+import com.google.eclipse.protobuf.protobuf.Message;
+import com.google.eclipse.protobuf.protobuf.MessageField;
+import com.google.eclipse.protobuf.protobuf.Package;
+import com.google.eclipse.protobuf.protobuf.ProtobufFactory;
+
+/**
+ * Tests for <code>{@link ModelFeatures#featureOf(EObject, Feature)}</code>.
+ */
+public class ModelFeatures_featureOf_Test {
+  private static final ProtobufFactory FACTORY = ProtobufFactory.eINSTANCE;
+
+  @Test public void should_return_name_attribute_of_message() {
+    Message message = FACTORY.createMessage();
+    assertThat(modelFeatures().featureOf(message, NAME).getName(), equalTo("name"));
+  }
+
+  @Test public void should_return_index_attribute_of_field() {
+    MessageField field = FACTORY.createMessageField();
+    assertThat(modelFeatures().featureOf(field, INDEX).getName(), equalTo("index"));
+  }
+
+  @Test public void should_return_imported_namespace_attribute_of_package() {
+    Package aPackage = FACTORY.createPackage();
+    assertThat(modelFeatures().featureOf(aPackage, IMPORTED_NAMESPACE).getName(), equalTo("importedNamespace"));
+  }
+
+  @Test public void should_return_null_if_type_does_not_have_feature() {
+    assertNull(modelFeatures().featureOf(FACTORY.createMessage(), FIELDS));
+    assertNull(modelFeatures().featureOf(FACTORY.createPackage(), NAME));
+  }
+
+  @Test public void should_return_null_if_model_object_is_null() {
+    assertNull(modelFeatures().featureOf(null, NAME));
+  }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.model.util;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.eclipse.protobuf.protobuf.ProtobufFactory;
+import com.google.eclipse.protobuf.protobuf.StringLiteral;
+
+/**
+ * Tests for <code>{@link StringLiterals#getCombinedString(StringLiteral)}</code>.
+ */
+public class StringLiterals_getCombinedString_Test {
+  private StringLiterals stringLiterals;
+  private StringLiteral stringLiteral;
+
+  @Before public void setUp() {
+    stringLiterals = new StringLiterals();
+    stringLiteral = ProtobufFactory.eINSTANCE.createStringLiteral();
+  }
+
+  @Test public void should_combine_unquoted_chunks() {
+    stringLiteral.getChunks().add("\"google/\"");
+    stringLiteral.getChunks().add("'test.proto'");
+    assertThat(stringLiterals.getCombinedString(stringLiteral), equalTo("google/test.proto"));
+  }
+
+  @Test public void should_combine_chunks_again_after_chunks_change() {
+    stringLiteral.getChunks().add("\"google/\"");
+    assertThat(stringLiterals.getCombinedString(stringLiteral), equalTo("google/"));
+    stringLiteral.getChunks().add("\"test.proto\"");
+    assertThat(stringLiterals.getCombinedString(stringLiteral), equalTo("google/test.proto"));
+    stringLiteral.getChunks().set(0, "\"other/\"");
+    assertThat(stringLiterals.getCombinedString(stringLiteral), equalTo("other/test.proto"));
+  }
+}
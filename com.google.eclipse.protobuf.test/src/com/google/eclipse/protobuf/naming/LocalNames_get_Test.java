@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.naming;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+
+import static com.google.common.collect.Lists.newArrayList;
+
+import org.eclipse.xtext.naming.QualifiedName;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for <code>{@link LocalNames#get(int)}</code>.
+ */
+public class LocalNames_get_Test {
+  private LocalNames names;
+
+  @Before public void setUp() {
+    names = new LocalNames(newArrayList(QualifiedName.create("PhoneType"), QualifiedName.create("Person"),
+        QualifiedName.create("names")));
+  }
+
+  @Test public void should_create_names_by_adding_prefixes() {
+    assertThat(names.size(), equalTo(3));
+    assertThat(names.get(2).toString(), equalTo("names.Person.PhoneType"));
+    assertThat(names.get(1).toString(), equalTo("Person.PhoneType"));
+    assertThat(names.get(0).toString(), equalTo("PhoneType"));
+  }
+
+  @Test public void should_create_each_name_only_once() {
+    assertSame(names.get(1), names.get(1));
+  }
+}
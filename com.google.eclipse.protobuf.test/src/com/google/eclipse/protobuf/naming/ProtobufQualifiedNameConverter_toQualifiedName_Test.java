@@ -9,6 +9,7 @@
 package com.google.eclipse.protobuf.naming;
 
 import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 
 import static com.google.common.collect.Lists.newArrayList;
@@ -61,4 +62,32 @@ public class ProtobufQualifiedNameConverter_toQualifiedName_Test {
     List<String> expectedSegments = newArrayList("com", "google", "proto", "Test");
     assertThat(fqn.getSegments(), equalTo(expectedSegments));
   }
+
+  @Test public void should_join_lines_of_segment_split_across_lines() {
+    String s = "com.goo  \n  gle.Test";
+    QualifiedName fqn = converter.toQualifiedName(s);
+    List<String> expectedSegments = newArrayList("com", "google", "Test");
+    assertThat(fqn.getSegments(), equalTo(expectedSegments));
+  }
+
+  @Test public void should_keep_leading_empty_segment() {
+    String s = ".com.google";
+    QualifiedName fqn = converter.toQualifiedName(s);
+    List<String> expectedSegments = newArrayList("", "com", "google");
+    assertThat(fqn.getSegments(), equalTo(expectedSegments));
+  }
+
+  @Test public void should_ignore_trailing_delimiter() {
+    String s = "com.google. ";
+    QualifiedName fqn = converter.toQualifiedName(s);
+    List<String> expectedSegments = newArrayList("com", "google");
+    assertThat(fqn.getSegments(), equalTo(expectedSegments));
+  }
+
+  @Test public void should_return_same_instance_for_equal_qualified_names() {
+    QualifiedName first = converter.toQualifiedName("com.google.proto.Test");
+    QualifiedName second = converter.toQualifiedName(new String("com.google. proto.Test"));
+    assertSame(first, second);
+    assertSame(first.getFirstSegment(), converter.toQualifiedName("com.google").getFirstSegment());
+  }
 }
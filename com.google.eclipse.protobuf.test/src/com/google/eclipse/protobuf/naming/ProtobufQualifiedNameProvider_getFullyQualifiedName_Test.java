@@ -20,6 +20,7 @@ import org.junit.Rule;
 import org.junit.Test;
 
 import com.google.eclipse.protobuf.junit.core.XtextRule;
+import com.google.eclipse.protobuf.protobuf.Group;
 import com.google.eclipse.protobuf.protobuf.Message;
 import com.google.eclipse.protobuf.protobuf.MessageField;
 import com.google.inject.Inject;
@@ -33,6 +34,8 @@ public class ProtobufQualifiedNameProvider_getFullyQualifiedName_Test {
   @Rule public XtextRule xtext = overrideRuntimeModuleWith(unitTestModule());
 
   @Inject private IProtobufQualifiedNameProvider provider;
+  @Inject private NormalNamingStrategy normalNamingStrategy;
+  @Inject private OptionNamingStrategy optionNamingStrategy;
 
   // syntax = "proto2";
   //
@@ -81,4 +84,17 @@ public class ProtobufQualifiedNameProvider_getFullyQualifiedName_Test {
     QualifiedName fqn = provider.getFullyQualifiedName(field);
     assertThat(fqn.toString(), equalTo("Person.name"));
   }
+
+  // syntax = "proto2";
+  //
+  // message Person {
+  //   optional group Address = 1 {}
+  // }
+  @Test public void should_cache_FQNs_per_naming_strategy() {
+    Group group = xtext.find("Address", Group.class);
+    QualifiedName normalFqn = provider.getFullyQualifiedName(group, normalNamingStrategy);
+    QualifiedName optionFqn = provider.getFullyQualifiedName(group, optionNamingStrategy);
+    assertThat(normalFqn.toString(), equalTo("Person.Address"));
+    assertThat(optionFqn.toString(), equalTo("Person.address"));
+  }
 }
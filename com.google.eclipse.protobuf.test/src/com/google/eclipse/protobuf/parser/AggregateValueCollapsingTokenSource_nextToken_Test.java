@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.parser;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.google.eclipse.protobuf.parser.AggregateValueCollapsingTokenSource.MIN_COLLAPSED_TOKENS;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.antlr.runtime.ANTLRStringStream;
+import org.antlr.runtime.CharStream;
+import org.antlr.runtime.CommonToken;
+import org.antlr.runtime.Token;
+import org.antlr.runtime.TokenSource;
+import org.junit.Test;
+
+/**
+ * Tests for <code>{@link AggregateValueCollapsingTokenSource#nextToken()}</code>.
+ */
+public class AggregateValueCollapsingTokenSource_nextToken_Test {
+  private static final int WS = 4;
+  private static final int ID = 5;
+  private static final int EQUALS = 6;
+  private static final int OPENING_BRACE = 7;
+  private static final int CLOSING_BRACE = 8;
+
+  @Test public void should_collapse_contents_of_large_aggregate_value() {
+    StringBuilder text = new StringBuilder("a = {");
+    for (int i = 0; i < MIN_COLLAPSED_TOKENS; i++) {
+      text.append(" x");
+    }
+    text.append(" }");
+    List<Token> tokens = tokensOf(text.toString());
+    assertThat(tokens.size(), equalTo(7));
+    Token collapsed = tokens.get(5);
+    assertThat(collapsed.getType(), equalTo(WS));
+    assertThat(collapsed.getText(), equalTo(text.substring(5, text.length() - 1)));
+    assertThat(tokens.get(6).getType(), equalTo(CLOSING_BRACE));
+  }
+
+  @Test public void should_not_collapse_contents_of_small_aggregate_value() {
+    List<Token> tokens = tokensOf("a = { x { x } }");
+    assertThat(tokens.size(), equalTo(15));
+  }
+
+  @Test public void should_not_collapse_braces_not_preceded_by_equals() {
+    StringBuilder text = new StringBuilder("a {");
+    for (int i = 0; i < MIN_COLLAPSED_TOKENS; i++) {
+      text.append("x");
+      text.append(" ");
+    }
+    text.append("}");
+    List<Token> tokens = tokensOf(text.toString());
+    assertThat(tokens.size(), equalTo(4 + MIN_COLLAPSED_TOKENS * 2));
+  }
+
+  private static List<Token> tokensOf(String text) {
+    AggregateValueCollapsingTokenSource source =
+        new AggregateValueCollapsingTokenSource(new FakeLexer(text), tokenDefs());
+    List<Token> tokens = newArrayList();
+    for (Token token = source.nextToken(); token.getType() != Token.EOF; token = source.nextToken()) {
+      tokens.add(token);
+    }
+    return tokens;
+  }
+
+  private static Map<Integer, String> tokenDefs() {
+    Map<Integer, String> tokenDefs = newHashMap();
+    tokenDefs.put(WS, "RULE_WS");
+    tokenDefs.put(ID, "RULE_ID");
+    tokenDefs.put(EQUALS, "'='");
+    tokenDefs.put(OPENING_BRACE, "'{'");
+    tokenDefs.put(CLOSING_BRACE, "'}'");
+    tokenDefs.put(9, "'<'");
+    tokenDefs.put(10, "'>'");
+    tokenDefs.put(11, "RULE_SL_COMMENT");
+    tokenDefs.put(12, "RULE_ML_COMMENT");
+    return tokenDefs;
+  }
+
+  // Creates a token per character: whitespace, "=", "{", "}" or an identifier.
+  private static class FakeLexer implements TokenSource {
+    private final CharStream input;
+    private final Iterator<Token> tokens;
+
+    FakeLexer(String text) {
+      input = new ANTLRStringStream(text);
+      List<Token> all = newArrayList();
+      for (int i = 0; i < text.length(); i++) {
+        all.add(new CommonToken(input, typeOf(text.charAt(i)), Token.DEFAULT_CHANNEL, i, i));
+      }
+      tokens = all.iterator();
+    }
+
+    private static int typeOf(char c) {
+      switch (c) {
+        case ' ':
+          return WS;
+        case '=':
+          return EQUALS;
+        case '{':
+          return OPENING_BRACE;
+        case '}':
+          return CLOSING_BRACE;
+        default:
+          return ID;
+      }
+    }
+
+    @Override public Token nextToken() {
+      return tokens.hasNext() ? tokens.next() : new CommonToken(input, Token.EOF, Token.DEFAULT_CHANNEL, 0, 0);
+    }
+
+    @Override public String getSourceName() {
+      return "fake";
+    }
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.resource;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.eclipse.xtext.nodemodel.INode;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for <code>{@link DamagedRegion#isDamaged(INode)}</code>.
+ */
+public class DamagedRegion_isDamaged_Test {
+  private DamagedRegion region;
+
+  @Before public void setUp() {
+    region = new DamagedRegion();
+  }
+
+  @Test public void should_consider_all_nodes_damaged_after_damaging_everything() {
+    region.damageAll();
+    assertTrue(region.isDamaged(node(0, 10)));
+    assertTrue(region.isEverythingDamaged());
+  }
+
+  @Test public void should_not_consider_nodes_damaged_after_clearing() {
+    region.recordChange(5, 0, 3);
+    region.damageAll();
+    region.clear();
+    assertFalse(region.isDamaged(node(0, 10)));
+    assertFalse(region.isEverythingDamaged());
+  }
+
+  private static INode node(int offset, int length) {
+    INode node = mock(INode.class);
+    when(node.getTotalOffset()).thenReturn(offset);
+    when(node.getTotalLength()).thenReturn(length);
+    return node;
+  }
+}
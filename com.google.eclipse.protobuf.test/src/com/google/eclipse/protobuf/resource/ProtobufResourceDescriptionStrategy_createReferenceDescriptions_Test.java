@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.resource;
+
+import static org.eclipse.emf.ecore.util.EcoreUtil.getURI;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import static com.google.eclipse.protobuf.junit.core.UnitTestModule.unitTestModule;
+import static com.google.eclipse.protobuf.junit.core.XtextRule.overrideRuntimeModuleWith;
+import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.COMPLEX_TYPE_LINK__TARGET;
+
+import java.util.List;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.resource.IReferenceDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.eclipse.protobuf.junit.core.XtextRule;
+import com.google.eclipse.protobuf.protobuf.Enum;
+import com.google.eclipse.protobuf.protobuf.Message;
+import com.google.inject.Inject;
+
+/**
+ * Tests for <code>{@link ProtobufResourceDescriptionStrategy#createReferenceDescriptions(org.eclipse.emf.ecore.EObject,
+ * URI, org.eclipse.xtext.util.IAcceptor)}</code>.
+ */
+public class ProtobufResourceDescriptionStrategy_createReferenceDescriptions_Test {
+  @Rule public XtextRule xtext = overrideRuntimeModuleWith(unitTestModule());
+
+  @Inject private IResourceDescription.Manager manager;
+
+  private List<IReferenceDescription> references;
+
+  @Before public void setUp() {
+    IResourceDescription description = manager.getResourceDescription(xtext.resource());
+    references = Lists.newArrayList(description.getReferenceDescriptions());
+  }
+
+  // syntax = "proto2";
+  //
+  // message Person {
+  //   optional PhoneNumber phone = 1;
+  //   optional PhoneType type = 2;
+  // }
+  //
+  // message PhoneNumber {}
+  //
+  // enum PhoneType {
+  //   MOBILE = 0;
+  // }
+  @Test public void should_describe_field_types_declared_in_same_file() {
+    Message phoneNumber = xtext.find("PhoneNumber", " {}", Message.class);
+    Enum phoneType = xtext.find("PhoneType", " {", Enum.class);
+    assertEquals(2, references.size());
+    assertTrue(isFieldTypeReferenceTo(getURI(phoneNumber)));
+    assertTrue(isFieldTypeReferenceTo(getURI(phoneType)));
+  }
+
+  private boolean isFieldTypeReferenceTo(URI targetUri) {
+    for (IReferenceDescription reference : references) {
+      if (reference.getEReference() == COMPLEX_TYPE_LINK__TARGET && targetUri.equals(reference.getTargetEObjectUri())) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
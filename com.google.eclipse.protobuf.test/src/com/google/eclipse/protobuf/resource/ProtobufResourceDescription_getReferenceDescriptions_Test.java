@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.resource;
+
+import static java.util.Collections.singletonMap;
+
+import static org.eclipse.emf.common.util.URI.createURI;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import static com.google.eclipse.protobuf.junit.core.UnitTestModule.unitTestModule;
+import static com.google.eclipse.protobuf.junit.core.XtextRule.overrideRuntimeModuleWith;
+import static com.google.eclipse.protobuf.parser.AggregateValueCollapsingTokenSource.MIN_COLLAPSED_TOKENS;
+
+import java.io.IOException;
+
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.IResourceFactory;
+import org.eclipse.xtext.resource.XtextResourceSet;
+import org.eclipse.xtext.util.StringInputStream;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.google.eclipse.protobuf.junit.core.XtextRule;
+import com.google.eclipse.protobuf.linking.ProtobufResource;
+
+/**
+ * Tests for <code>{@link ProtobufResourceDescription#getReferenceDescriptions()}</code>.
+ */
+public class ProtobufResourceDescription_getReferenceDescriptions_Test {
+  private static final int FIELD_COUNT = MIN_COLLAPSED_TOKENS / 3 + 1;
+
+  @Rule public XtextRule xtext = overrideRuntimeModuleWith(unitTestModule());
+
+  private ProtobufResource resource;
+  private IResourceDescription description;
+
+  @Before public void setUp() throws IOException {
+    StringBuilder value = new StringBuilder();
+    for (int i = 0; i < FIELD_COUNT; i++) {
+      value.append(" f").append(i).append(": ").append(i);
+    }
+    String text = "syntax = \"proto2\";\nmessage Person {}\noption (custom) = {" + value + " };\n";
+    XtextResourceSet resourceSet = xtext.injector().getInstance(XtextResourceSet.class);
+    resource = (ProtobufResource) xtext.injector().getInstance(IResourceFactory.class).createResource(
+        createURI("file:/usr/local/project/src/protos/options.proto"));
+    resourceSet.getResources().add(resource);
+    resource.load(new StringInputStream(text),
+        singletonMap(ProtobufResource.OPTION_LAZY_AGGREGATE_VALUES, Boolean.TRUE));
+    description = xtext.injector().getInstance(ProtobufResourceDescriptionManager.class)
+        .getResourceDescription(resource);
+  }
+
+  @Test public void should_not_parse_aggregate_values_to_describe_exported_objects() {
+    assertTrue(description.getExportedObjects().iterator().hasNext());
+    assertTrue(resource.hasLazyAggregateValues());
+  }
+
+  @Test public void should_parse_aggregate_values_to_describe_cross_references() {
+    description.getReferenceDescriptions();
+    assertFalse(resource.hasLazyAggregateValues());
+  }
+}
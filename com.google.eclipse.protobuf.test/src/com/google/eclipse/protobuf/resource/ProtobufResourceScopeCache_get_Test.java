@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.resource;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.inject.Provider;
+
+/**
+ * Tests for <code>{@link ProtobufResourceScopeCache#get(Object, Resource, Provider)}</code>.
+ */
+public class ProtobufResourceScopeCache_get_Test {
+  private ProtobufResourceScopeCache cache;
+  private Resource resource;
+
+  @Before public void setUp() {
+    cache = new ProtobufResourceScopeCache();
+    resource = new ResourceImpl();
+  }
+
+  @After public void tearDown() {
+    cache.exitConcurrentSection();
+  }
+
+  @Test public void should_compute_value_only_once_within_concurrent_section() {
+    ConcurrentMap<Object, Object> section = cache.newConcurrentSection();
+    cache.enterConcurrentSection(section);
+    CountingProvider provider = new CountingProvider("value");
+    Object first = cache.get("key", resource, provider);
+    Object second = cache.get("key", resource, provider);
+    assertSame(first, second);
+    assertThat(provider.invocationCount, equalTo(1));
+    assertThat(section.size(), equalTo(1));
+  }
+
+  @Test public void should_cache_null_values_within_concurrent_section() {
+    cache.enterConcurrentSection(cache.newConcurrentSection());
+    CountingProvider provider = new CountingProvider(null);
+    assertNull(cache.get("key", resource, provider));
+    assertNull(cache.get("key", resource, provider));
+    assertThat(provider.invocationCount, equalTo(1));
+  }
+
+  @Test public void should_not_share_values_between_concurrent_sections() {
+    cache.enterConcurrentSection(cache.newConcurrentSection());
+    CountingProvider provider = new CountingProvider("value");
+    cache.get("key", resource, provider);
+    cache.enterConcurrentSection(cache.newConcurrentSection());
+    cache.get("key", resource, provider);
+    assertThat(provider.invocationCount, equalTo(2));
+  }
+
+  @Test public void should_not_store_values_computed_within_concurrent_section_in_resource() {
+    cache.enterConcurrentSection(cache.newConcurrentSection());
+    cache.get("key", resource, new CountingProvider("value"));
+    cache.exitConcurrentSection();
+    CountingProvider provider = new CountingProvider("other");
+    assertThat(cache.get("key", resource, provider), equalTo("other"));
+    assertThat(provider.invocationCount, equalTo(1));
+  }
+
+  private static class CountingProvider implements Provider<String> {
+    private final String value;
+    int invocationCount;
+
+    CountingProvider(String value) {
+      this.value = value;
+    }
+
+    @Override public String get() {
+      invocationCount++;
+      return value;
+    }
+  }
+}
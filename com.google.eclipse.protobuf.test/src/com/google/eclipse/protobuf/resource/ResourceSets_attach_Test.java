@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.resource;
+
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import static com.google.eclipse.protobuf.junit.core.IntegrationTestModule.integrationTestModule;
+import static com.google.eclipse.protobuf.junit.core.XtextRule.overrideRuntimeModuleWith;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.xtext.resource.XtextResourceSet;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.google.eclipse.protobuf.junit.core.XtextRule;
+import com.google.eclipse.protobuf.model.util.Imports;
+import com.google.eclipse.protobuf.protobuf.Import;
+import com.google.inject.Inject;
+
+/**
+ * Tests for <code>{@link ResourceSets#attach(org.eclipse.emf.ecore.resource.ResourceSet, Resource)}</code>.
+ */
+public class ResourceSets_attach_Test {
+  @Rule public XtextRule xtext = overrideRuntimeModuleWith(integrationTestModule());
+
+  @Inject private Imports imports;
+  @Inject private ResourceSets resourceSets;
+
+  // // Create file Types.proto
+  //
+  // syntax = 'proto2';
+  //
+  // message Type {}
+
+  // syntax = "proto2";
+  //
+  // import "Types.proto";
+  @Test public void should_add_resource_to_resource_set() {
+    URI uri = imports.resolvedUriOf(xtext.findFirst(Import.class));
+    XtextResourceSet resourceSet = xtext.injector().getInstance(XtextResourceSet.class);
+    Resource resource = resourceSets.loadDetached(resourceSet, uri);
+    assertThat(resourceSets.attach(resourceSet, resource), sameInstance(resource));
+    assertTrue(resourceSet.getResources().contains(resource));
+  }
+
+  // // Create file Types.proto
+  //
+  // syntax = 'proto2';
+  //
+  // message Type {}
+
+  // syntax = "proto2";
+  //
+  // import "Types.proto";
+  @Test public void should_keep_resource_already_in_resource_set() {
+    URI uri = imports.resolvedUriOf(xtext.findFirst(Import.class));
+    XtextResourceSet resourceSet = xtext.injector().getInstance(XtextResourceSet.class);
+    Resource attached = resourceSets.attach(resourceSet, resourceSets.loadDetached(resourceSet, uri));
+    Resource other = resourceSets.loadDetached(resourceSet, uri);
+    assertThat(resourceSets.attach(resourceSet, other), sameInstance(attached));
+    assertFalse(resourceSet.getResources().contains(other));
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.resource;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import static com.google.eclipse.protobuf.junit.core.IntegrationTestModule.integrationTestModule;
+import static com.google.eclipse.protobuf.junit.core.XtextRule.overrideRuntimeModuleWith;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.xtext.resource.XtextResourceSet;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.google.eclipse.protobuf.junit.core.XtextRule;
+import com.google.eclipse.protobuf.model.util.Imports;
+import com.google.eclipse.protobuf.protobuf.Import;
+import com.google.inject.Inject;
+
+/**
+ * Tests for <code>{@link ResourceSets#loadDetached(org.eclipse.emf.ecore.resource.ResourceSet, URI)}</code>.
+ */
+public class ResourceSets_loadDetached_Test {
+  @Rule public XtextRule xtext = overrideRuntimeModuleWith(integrationTestModule());
+
+  @Inject private Imports imports;
+  @Inject private ResourceSets resourceSets;
+
+  // // Create file Types.proto
+  //
+  // syntax = 'proto2';
+  //
+  // message Type {}
+
+  // syntax = "proto2";
+  //
+  // import "Types.proto";
+  @Test public void should_load_resource_without_adding_it_to_resource_set() {
+    URI uri = imports.resolvedUriOf(xtext.findFirst(Import.class));
+    XtextResourceSet resourceSet = xtext.injector().getInstance(XtextResourceSet.class);
+    Resource resource = resourceSets.loadDetached(resourceSet, uri);
+    assertTrue(resource.isLoaded());
+    assertFalse(resourceSet.getResources().contains(resource));
+    assertNull(resource.getResourceSet());
+  }
+}
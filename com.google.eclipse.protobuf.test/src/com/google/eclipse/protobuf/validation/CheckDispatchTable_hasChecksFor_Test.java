@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.validation;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.COMPLEX_TYPE_LINK;
+import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.DEFAULT_VALUE_FIELD_OPTION;
+import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.GROUP;
+import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.LONG_LINK;
+import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.MESSAGE;
+import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.MESSAGE_FIELD;
+import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.NORMAL_IMPORT;
+import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.STRING_LINK;
+
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.google.eclipse.protobuf.protobuf.ProtobufPackage;
+
+/**
+ * Tests for <code>{@link CheckDispatchTable#hasChecksFor(EClass)}</code>.
+ */
+public class CheckDispatchTable_hasChecksFor_Test {
+  private static CheckDispatchTable table;
+
+  @BeforeClass public static void setUpOnce() {
+    table = new CheckDispatchTable(ProtobufJavaValidator.class, ProtobufPackage.eINSTANCE);
+  }
+
+  @Test public void should_find_checks_declared_for_exact_type() {
+    assertTrue(table.hasChecksFor(MESSAGE));
+    assertTrue(table.hasChecksFor(MESSAGE_FIELD));
+  }
+
+  @Test public void should_find_checks_declared_for_supertype() {
+    assertTrue(table.hasChecksFor(GROUP));
+  }
+
+  @Test public void should_find_checks_declared_in_composed_validators() {
+    assertTrue(table.hasChecksFor(DEFAULT_VALUE_FIELD_OPTION));
+    assertTrue(table.hasChecksFor(NORMAL_IMPORT));
+  }
+
+  @Test public void should_not_find_checks_for_unchecked_types() {
+    assertFalse(table.hasChecksFor(LONG_LINK));
+    assertFalse(table.hasChecksFor(STRING_LINK));
+    assertFalse(table.hasChecksFor(COMPLEX_TYPE_LINK));
+  }
+
+  @Test public void should_consider_types_from_other_packages_as_checked() {
+    assertTrue(table.hasChecksFor(EcorePackage.Literals.EOBJECT));
+  }
+}
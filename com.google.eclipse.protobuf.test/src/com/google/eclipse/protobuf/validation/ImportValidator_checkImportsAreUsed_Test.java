@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.validation;
+
+import static org.eclipse.xtext.validation.ValidationMessageAcceptor.INSIGNIFICANT_INDEX;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import static com.google.eclipse.protobuf.junit.core.IntegrationTestModule.integrationTestModule;
+import static com.google.eclipse.protobuf.junit.core.XtextRule.overrideRuntimeModuleWith;
+import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.IMPORT__PATH;
+import static com.google.eclipse.protobuf.validation.ImportValidator.UNUSED_IMPORT_WARNING;
+import static com.google.eclipse.protobuf.validation.Messages.unusedImport;
+
+import org.eclipse.xtext.validation.ValidationMessageAcceptor;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.google.eclipse.protobuf.junit.core.XtextRule;
+import com.google.eclipse.protobuf.protobuf.Import;
+import com.google.eclipse.protobuf.protobuf.Protobuf;
+import com.google.inject.Inject;
+
+/**
+ * Tests for <code>{@link ImportValidator#checkImportsAreUsed(Protobuf)}</code>
+ */
+public class ImportValidator_checkImportsAreUsed_Test {
+  @Rule public XtextRule xtext = overrideRuntimeModuleWith(integrationTestModule());
+
+  @Inject private ImportValidator validator;
+  private ValidationMessageAcceptor messageAcceptor;
+
+  @Before public void setUp() {
+    messageAcceptor = mock(ValidationMessageAcceptor.class);
+    validator.setMessageAcceptor(messageAcceptor);
+  }
+
+  // // Create file Types.proto
+  //
+  // syntax = 'proto2';
+  //
+  // message Type {}
+
+  // syntax = "proto2";
+  //
+  // import "Types.proto";
+  //
+  // message Person {
+  //   optional int32 id = 1;
+  // }
+  @Test public void should_add_warning_if_imported_file_supplies_no_cross_reference() {
+    validator.checkImportsAreUsed(xtext.root());
+    Import anImport = xtext.findFirst(Import.class);
+    verify(messageAcceptor).acceptWarning(String.format(unusedImport, "Types.proto"),
+        anImport,
+        IMPORT__PATH,
+        INSIGNIFICANT_INDEX,
+        UNUSED_IMPORT_WARNING,
+        new String[0]);
+  }
+
+  // // Create file Types.proto
+  //
+  // syntax = 'proto2';
+  //
+  // message Type {}
+
+  // syntax = "proto2";
+  //
+  // import "Types.proto";
+  //
+  // message Person {
+  //   optional Type type = 1;
+  // }
+  @Test public void should_not_add_warning_if_imported_file_supplies_a_cross_reference() {
+    validator.checkImportsAreUsed(xtext.root());
+    verifyNoMoreInteractions(messageAcceptor);
+  }
+
+  // // Create file Types.proto
+  //
+  // syntax = 'proto2';
+  //
+  // message Type {}
+
+  // // Create file ExportedTypes.proto
+  //
+  // syntax = 'proto2';
+  //
+  // import public "Types.proto";
+
+  // syntax = "proto2";
+  //
+  // import "ExportedTypes.proto";
+  //
+  // message Person {
+  //   optional Type type = 1;
+  // }
+  @Test public void should_not_add_warning_if_file_imported_publicly_supplies_a_cross_reference() {
+    validator.checkImportsAreUsed(xtext.root());
+    verifyNoMoreInteractions(messageAcceptor);
+  }
+}
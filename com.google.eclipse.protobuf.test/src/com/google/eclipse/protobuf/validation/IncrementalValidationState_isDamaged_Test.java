@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.validation;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.eclipse.xtext.nodemodel.INode;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for <code>{@link IncrementalValidationState#isDamaged(INode)}</code>.
+ */
+public class IncrementalValidationState_isDamaged_Test {
+  private IncrementalValidationState state;
+
+  @Before public void setUp() {
+    state = new IncrementalValidationState();
+  }
+
+  @Test public void should_not_consider_nodes_damaged_if_nothing_changed() {
+    assertFalse(state.isDamaged(node(0, 10)));
+  }
+
+  @Test public void should_consider_nodes_overlapping_change_damaged() {
+    state.recordChange(15, 2, 3);
+    assertTrue(state.isDamaged(node(10, 10)));
+    assertFalse(state.isDamaged(node(30, 10)));
+    assertFalse(state.isDamaged(node(0, 10)));
+  }
+
+  @Test public void should_shift_earlier_change_when_text_is_inserted_before_it() {
+    state.recordChange(50, 0, 5);
+    state.recordChange(10, 0, 20);
+    assertTrue(state.isDamaged(node(72, 5)));
+    assertFalse(state.isDamaged(node(80, 5)));
+  }
+
+  @Test public void should_consider_all_nodes_damaged_if_node_is_unknown() {
+    assertTrue(state.isDamaged(null));
+  }
+
+  private static INode node(int offset, int length) {
+    INode node = mock(INode.class);
+    when(node.getTotalOffset()).thenReturn(offset);
+    when(node.getTotalLength()).thenReturn(length);
+    return node;
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.validation;
+
+import static java.util.Collections.singletonMap;
+
+import static org.eclipse.xtext.validation.CheckMode.ALL;
+import static org.hamcrest.core.IsCollectionContaining.hasItem;
+import static org.hamcrest.core.IsNot.not;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import static com.google.eclipse.protobuf.junit.core.IntegrationTestModule.integrationTestModule;
+import static com.google.eclipse.protobuf.junit.core.XtextRule.overrideRuntimeModuleWith;
+import static com.google.eclipse.protobuf.validation.Messages.requiredInProto3;
+
+import static com.google.common.collect.Lists.newArrayList;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.xtext.resource.XtextResourceSet;
+import org.eclipse.xtext.util.CancelIndicator;
+import org.eclipse.xtext.util.StringInputStream;
+import org.eclipse.xtext.validation.Issue;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.google.eclipse.protobuf.junit.core.XtextRule;
+import com.google.eclipse.protobuf.linking.ProtobufResource;
+import com.google.eclipse.protobuf.model.util.Imports;
+import com.google.eclipse.protobuf.protobuf.Import;
+import com.google.inject.Inject;
+
+/**
+ * Tests for <code>{@link ProtobufResourceValidator#validate(org.eclipse.emf.ecore.resource.Resource, org.eclipse.xtext.validation.CheckMode, CancelIndicator)}</code>.
+ */
+public class ProtobufResourceValidator_validate_Test {
+  private static final String VALIDATION_RESULT_CACHE = "com.google.eclipse.protobuf.validationResultCache";
+
+  @Rule public XtextRule xtext = overrideRuntimeModuleWith(integrationTestModule());
+
+  @Inject private Imports imports;
+  @Inject private ProtobufResourceValidator validator;
+
+  // // Create file Types.proto
+  //
+  // syntax = 'proto2';
+  //
+  // message Type {}
+
+  // syntax = "proto2";
+  //
+  // import "Types.proto";
+  //
+  // message Person {
+  //   optional Type type = 1;
+  // }
+  @Test public void should_not_rebuild_node_model_of_compact_imported_file() throws IOException {
+    XtextResourceSet resourceSet = xtext.injector().getInstance(XtextResourceSet.class);
+    URI importedUri = imports.resolvedUriOf(xtext.findFirst(Import.class));
+    ProtobufResource imported = (ProtobufResource) resourceSet.createResource(importedUri);
+    imported.load(singletonMap(ProtobufResource.OPTION_COMPACT, Boolean.TRUE));
+    assertTrue(imported.isCompact());
+    ProtobufResource importer = (ProtobufResource) resourceSet.createResource(xtext.resource().getURI());
+    importer.load(new StringInputStream(xtext.text()), null);
+    validator.validate(importer, ALL, CancelIndicator.NullImpl);
+    assertTrue(imported.isCompact());
+  }
+
+  // // Create file Types.proto
+  //
+  // syntax = 'proto2';
+  //
+  // message Type {}
+
+  // syntax = "proto2";
+  //
+  // import "Types.proto";
+  //
+  // message Person {
+  //   optional Type type = 1;
+  // }
+  @Test public void should_link_resource_even_if_its_issues_are_cached() throws IOException {
+    System.setProperty(VALIDATION_RESULT_CACHE, "true");
+    try {
+      URI importedUri = imports.resolvedUriOf(xtext.findFirst(Import.class));
+      validator.validate(xtext.resource(), ALL, CancelIndicator.NullImpl);
+      XtextResourceSet resourceSet = xtext.injector().getInstance(XtextResourceSet.class);
+      ProtobufResource resource = (ProtobufResource) resourceSet.createResource(xtext.resource().getURI());
+      resource.load(new StringInputStream(xtext.text()), null);
+      validator.validate(resource, ALL, CancelIndicator.NullImpl);
+      assertThat(resource.linkedFiles(), hasItem(importedUri));
+    } finally {
+      System.clearProperty(VALIDATION_RESULT_CACHE);
+    }
+  }
+
+  // syntax = "proto2";
+  //
+  // message Person {
+  //   required string name = 1;
+  // }
+  @Test public void should_validate_all_declarations_again_if_only_syntax_changed() {
+    ProtobufResourceValidator incrementalValidator =
+        xtext.injector().getInstance(IncrementalValidator.class);
+    ProtobufResource resource = (ProtobufResource) xtext.resource();
+    assertThat(messagesOf(incrementalValidator.validate(resource, ALL, CancelIndicator.NullImpl)),
+        not(hasItem(requiredInProto3)));
+    resource.update(xtext.text().indexOf("proto2"), "proto2".length(), "proto3");
+    assertThat(messagesOf(incrementalValidator.validate(resource, ALL, CancelIndicator.NullImpl)),
+        hasItem(requiredInProto3));
+  }
+
+  private static List<String> messagesOf(List<Issue> issues) {
+    List<String> messages = newArrayList();
+    for (Issue issue : issues) {
+      messages.add(issue.getMessage());
+    }
+    return messages;
+  }
+
+  static class IncrementalValidator extends ProtobufResourceValidator {
+    @Override protected boolean shouldValidateIncrementally(Resource resource) {
+      return true;
+    }
+  }
+}
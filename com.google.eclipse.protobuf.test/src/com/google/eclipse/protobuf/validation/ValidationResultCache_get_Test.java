@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.validation;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+
+import static com.google.common.collect.Lists.newArrayList;
+
+import java.util.List;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.eclipse.xtext.validation.Issue;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.hash.HashCode;
+
+/**
+ * Tests for <code>{@link ValidationResultCache#get(Resource, HashCode)}</code>.
+ */
+public class ValidationResultCache_get_Test {
+  private static final HashCode KEY = HashCode.fromInt(1);
+
+  private ValidationResultCache cache;
+  private Resource resource;
+  private List<Issue> issues;
+
+  @Before public void setUp() {
+    cache = new ValidationResultCache();
+    resource = new ResourceImpl(URI.createURI("file:/usr/local/project/src/protos/test.proto"));
+    issues = newArrayList((Issue) new Issue.IssueImpl());
+  }
+
+  @Test public void should_return_copy_of_issues_stored_with_same_key() {
+    cache.put(resource, KEY, issues);
+    List<Issue> cached = cache.get(resource, KEY);
+    assertThat(cached, equalTo(issues));
+    assertNotSame(issues, cached);
+  }
+
+  @Test public void should_return_null_if_issues_were_stored_with_different_key() {
+    cache.put(resource, KEY, issues);
+    assertNull(cache.get(resource, HashCode.fromInt(2)));
+  }
+
+  @Test public void should_return_null_if_no_issues_were_stored() {
+    assertNull(cache.get(resource, KEY));
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.validation;
+
+import static org.eclipse.xtext.validation.CheckMode.ALL;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNot.not;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertThat;
+
+import static com.google.eclipse.protobuf.junit.core.IntegrationTestModule.integrationTestModule;
+import static com.google.eclipse.protobuf.junit.core.XtextRule.overrideRuntimeModuleWith;
+
+import org.eclipse.xtext.resource.XtextResource;
+import org.eclipse.xtext.validation.CheckMode;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.google.common.hash.HashCode;
+import com.google.eclipse.protobuf.junit.core.XtextRule;
+import com.google.eclipse.protobuf.model.util.Imports;
+import com.google.eclipse.protobuf.protobuf.Import;
+import com.google.inject.Inject;
+
+/**
+ * Tests for <code>{@link ValidationResultCache#keyOf(org.eclipse.emf.ecore.resource.Resource, CheckMode)}</code>.
+ */
+public class ValidationResultCache_keyOf_Test {
+  @Rule public XtextRule xtext = overrideRuntimeModuleWith(integrationTestModule());
+
+  @Inject private Imports imports;
+  @Inject private ValidationResultCache cache;
+
+  // // Create file Types.proto
+  //
+  // syntax = 'proto2';
+  //
+  // message Type {}
+
+  // syntax = "proto2";
+  //
+  // import "Types.proto";
+  //
+  // message Person {
+  //   optional Type type = 1;
+  // }
+  @Test public void should_return_same_key_if_nothing_changed() {
+    HashCode key = cache.keyOf(xtext.resource(), ALL);
+    assertNotNull(key);
+    assertThat(cache.keyOf(xtext.resource(), ALL), equalTo(key));
+  }
+
+  // // Create file Types.proto
+  //
+  // syntax = 'proto2';
+  //
+  // message Type {}
+
+  // syntax = "proto2";
+  //
+  // import "Types.proto";
+  //
+  // message Person {
+  //   optional Type type = 1;
+  // }
+  @Test public void should_return_different_key_if_text_of_imported_file_changed() throws Exception {
+    HashCode key = cache.keyOf(xtext.resource(), ALL);
+    XtextResource imported = (XtextResource) imports.importedResource(xtext.findFirst(Import.class));
+    imported.reparse("syntax = 'proto2';\n\nmessage Type {}\n\nmessage OtherType {}\n");
+    assertThat(cache.keyOf(xtext.resource(), ALL), not(equalTo(key)));
+  }
+}
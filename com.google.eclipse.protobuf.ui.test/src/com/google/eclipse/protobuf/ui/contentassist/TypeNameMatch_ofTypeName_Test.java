@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.ui.contentassist;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+
+import static com.google.eclipse.protobuf.ui.contentassist.TypeNameMatch.CAMEL_CASE;
+import static com.google.eclipse.protobuf.ui.contentassist.TypeNameMatch.PREFIX;
+
+import org.junit.Test;
+
+/**
+ * Tests for <code>{@link TypeNameMatch#ofTypeName(String, String)}</code>.
+ */
+public class TypeNameMatch_ofTypeName_Test {
+  @Test public void should_match_text_without_dots_against_simple_name() {
+    assertThat(TypeNameMatch.ofTypeName("Phone", "test.Person.PhoneNumber"), equalTo(PREFIX));
+    assertThat(TypeNameMatch.ofTypeName("PN", "test.Person.PhoneNumber"), equalTo(CAMEL_CASE));
+    assertNull(TypeNameMatch.ofTypeName("test", "test.Person.PhoneNumber"));
+  }
+
+  @Test public void should_match_text_with_dots_against_qualified_name() {
+    assertThat(TypeNameMatch.ofTypeName("test.Person.Ph", "test.Person.PhoneNumber"), equalTo(PREFIX));
+    assertThat(TypeNameMatch.ofTypeName("Person.PN", "test.Person.PhoneNumber"), equalTo(CAMEL_CASE));
+    assertNull(TypeNameMatch.ofTypeName("other.Ph", "test.Person.PhoneNumber"));
+  }
+}
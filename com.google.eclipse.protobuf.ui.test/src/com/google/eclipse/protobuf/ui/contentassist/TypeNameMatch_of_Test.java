@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.ui.contentassist;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+
+import static com.google.eclipse.protobuf.ui.contentassist.TypeNameMatch.CAMEL_CASE;
+import static com.google.eclipse.protobuf.ui.contentassist.TypeNameMatch.PREFIX;
+import static com.google.eclipse.protobuf.ui.contentassist.TypeNameMatch.SUBSEQUENCE;
+
+import org.junit.Test;
+
+/**
+ * Tests for <code>{@link TypeNameMatch#of(String, String)}</code>.
+ */
+public class TypeNameMatch_of_Test {
+  @Test public void should_match_prefix_ignoring_case() {
+    assertThat(TypeNameMatch.of("phone", "PhoneNumber"), equalTo(PREFIX));
+    assertThat(TypeNameMatch.of("", "PhoneNumber"), equalTo(PREFIX));
+  }
+
+  @Test public void should_match_camel_case() {
+    assertThat(TypeNameMatch.of("PN", "PhoneNumber"), equalTo(CAMEL_CASE));
+    assertThat(TypeNameMatch.of("PhNu", "PhoneNumber"), equalTo(CAMEL_CASE));
+    assertThat(TypeNameMatch.of("PT", "Person_Type"), equalTo(CAMEL_CASE));
+  }
+
+  @Test public void should_match_subsequence() {
+    assertThat(TypeNameMatch.of("pnmbr", "PhoneNumber"), equalTo(SUBSEQUENCE));
+  }
+
+  @Test public void should_return_null_if_name_does_not_match() {
+    assertNull(TypeNameMatch.of("NP", "PhoneNumber"));
+    assertNull(TypeNameMatch.of("phonex", "PhoneNumber"));
+  }
+}
@@ -19,6 +19,7 @@ import org.junit.Rule;
 import org.junit.Test;
 
 import com.google.eclipse.protobuf.junit.core.XtextRule;
+import com.google.eclipse.protobuf.protobuf.Message;
 import com.google.eclipse.protobuf.protobuf.MessageField;
 import com.google.inject.Inject;
 
@@ -45,6 +46,32 @@ public class SLCommentDocumentationProvider_getDocumentation_Test {
     assertThat(documentation, equalTo("Indicates whether the person is active or not. (Optional.)"));
   }
 
+  // syntax = "proto2";
+  //
+  // // Represents a person.
+  // message Person {
+  //   // Indicates whether the person is active or not.
+  //   optional bool active = 1;
+  // }
+  @Test public void should_not_return_comments_of_nested_elements() {
+    Message message = xtext.find("Person", Message.class);
+    String documentation = provider.getDocumentation(message);
+    assertThat(documentation, equalTo("Represents a person."));
+  }
+
+  // syntax = "proto2";
+  //
+  // message Person {
+  //   optional bool active = 1; // Indicates whether the person is active or not.
+  //   optional int32 id = 2;
+  // }
+  @Test public void should_return_trailing_comment_if_element_does_not_have_leading_comments() {
+    MessageField active = xtext.find("active", MessageField.class);
+    assertThat(provider.getDocumentation(active), equalTo("Indicates whether the person is active or not."));
+    MessageField id = xtext.find("id", MessageField.class);
+    assertThat(provider.getDocumentation(id), equalTo(""));
+  }
+
   // syntax = "proto2";
   //
   // message Person {
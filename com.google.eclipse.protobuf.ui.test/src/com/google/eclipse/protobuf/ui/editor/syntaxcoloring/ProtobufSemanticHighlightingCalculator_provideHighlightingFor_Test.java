@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.ui.editor.syntaxcoloring;
+
+import static org.eclipse.emf.common.util.URI.createURI;
+import static org.eclipse.xtext.ui.editor.syntaxcoloring.DefaultHighlightingConfiguration.DEFAULT_ID;
+import static org.hamcrest.core.IsCollectionContaining.hasItem;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNot.not;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.eclipse.protobuf.junit.core.UnitTestModule.unitTestModule;
+import static com.google.eclipse.protobuf.junit.core.XtextRule.overrideRuntimeModuleWith;
+import static com.google.eclipse.protobuf.ui.editor.syntaxcoloring.HighlightingConfiguration.ENUM_DEFINITION_ID;
+import static com.google.eclipse.protobuf.ui.editor.syntaxcoloring.HighlightingConfiguration.ENUM_ID;
+import static com.google.eclipse.protobuf.ui.editor.syntaxcoloring.HighlightingConfiguration.ENUM_LITERAL_DEFINITION;
+import static com.google.eclipse.protobuf.ui.editor.syntaxcoloring.HighlightingConfiguration.ENUM_LITERAL_ID;
+import static com.google.eclipse.protobuf.ui.editor.syntaxcoloring.HighlightingConfiguration.ENUM_LITERAL_INDEX_ID;
+import static com.google.eclipse.protobuf.ui.editor.syntaxcoloring.HighlightingConfiguration.MESSAGE_DEFINITION_ID;
+import static com.google.eclipse.protobuf.ui.editor.syntaxcoloring.HighlightingConfiguration.MESSAGE_FIELD_INDEX_ID;
+import static com.google.eclipse.protobuf.ui.editor.syntaxcoloring.HighlightingConfiguration.MESSAGE_ID;
+import static com.google.eclipse.protobuf.ui.editor.syntaxcoloring.HighlightingConfiguration.RPC_ARGUMENT_ID;
+import static com.google.eclipse.protobuf.ui.editor.syntaxcoloring.HighlightingConfiguration.RPC_DEFINITION_ID;
+import static com.google.eclipse.protobuf.ui.editor.syntaxcoloring.HighlightingConfiguration.RPC_RETURN_TYPE_ID;
+import static com.google.eclipse.protobuf.ui.editor.syntaxcoloring.HighlightingConfiguration.SERVICE_DEFINITION_ID;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.xtext.ide.editor.syntaxcoloring.IHighlightedPositionAcceptor;
+import org.eclipse.xtext.resource.IResourceFactory;
+import org.eclipse.xtext.resource.XtextResource;
+import org.eclipse.xtext.resource.XtextResourceSet;
+import org.eclipse.xtext.util.CancelIndicator;
+import org.eclipse.xtext.util.StringInputStream;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.google.common.base.Joiner;
+import com.google.eclipse.protobuf.junit.core.XtextRule;
+import com.google.eclipse.protobuf.ui.editor.LargeFileMode;
+import com.google.inject.AbstractModule;
+import com.google.inject.Inject;
+import com.google.inject.Module;
+
+/**
+ * Tests for <code>{@link ProtobufSemanticHighlightingCalculator#provideHighlightingFor(XtextResource, IHighlightedPositionAcceptor, CancelIndicator)}</code>.
+ */
+public class ProtobufSemanticHighlightingCalculator_provideHighlightingFor_Test {
+  @Rule public XtextRule xtext = overrideRuntimeModuleWith(unitTestModule(), smallFilesModule());
+
+  @Inject private ProtobufSemanticHighlightingCalculator calculator;
+
+  // syntax = "proto2";
+  // package test.highlighting;
+  //
+  // enum PhoneType {
+  //   HOME = 0;
+  // }
+  //
+  // message Person {
+  //   optional PhoneType phone = 1 [default = HOME];
+  //   optional Address address = 2;
+  //   message Address {}
+  // }
+  //
+  // service Directory {
+  //   rpc Find (Person) returns (Person);
+  // }
+  @Test public void should_highlight_names_indices_types_and_values_of_each_kind_of_element() {
+    List<String> expected = newArrayList(
+        "test.highlighting=" + DEFAULT_ID,
+        "PhoneType=" + ENUM_DEFINITION_ID,
+        "HOME=" + ENUM_LITERAL_DEFINITION,
+        "0=" + ENUM_LITERAL_INDEX_ID,
+        "Person=" + MESSAGE_DEFINITION_ID,
+        "PhoneType=" + ENUM_ID,
+        "phone=" + DEFAULT_ID,
+        "1=" + MESSAGE_FIELD_INDEX_ID,
+        "HOME=" + ENUM_LITERAL_ID,
+        "Address=" + MESSAGE_ID,
+        "address=" + DEFAULT_ID,
+        "2=" + MESSAGE_FIELD_INDEX_ID,
+        "Address=" + MESSAGE_DEFINITION_ID,
+        "Directory=" + SERVICE_DEFINITION_ID,
+        "Find=" + RPC_DEFINITION_ID,
+        "Person=" + RPC_ARGUMENT_ID,
+        "Person=" + RPC_RETURN_TYPE_ID);
+    assertThat(highlight(xtext.resource()).highlighted, equalTo(expected));
+  }
+
+  // syntax = "proto2";
+  //
+  // message Person {
+  //   optional string name = 1;
+  //   oneof contact {
+  //     string email = 2;
+  //   }
+  // }
+  @Test public void should_not_highlight_elements_inside_one_ofs() {
+    List<String> highlighted = highlight(xtext.resource()).highlighted;
+    assertThat(highlighted, hasItem("name=" + DEFAULT_ID));
+    assertThat(highlighted, not(hasItem("email=" + DEFAULT_ID)));
+    assertThat(highlighted, not(hasItem("2=" + MESSAGE_FIELD_INDEX_ID)));
+  }
+
+  // syntax = "proto2";
+  //
+  // enum PhoneType {
+  //   HOME = 0;
+  // }
+  //
+  // message Person {
+  //   optional PhoneType phone = 1;
+  // }
+  @Test public void should_reuse_positions_of_elements_after_edit_in_other_element() throws IOException {
+    highlight(xtext.resource());
+    edit("HOME = 0", "HOME = 5");
+    Positions positions = highlight(xtext.resource());
+    assertThat(positions.highlighted, hasItem("5=" + ENUM_LITERAL_INDEX_ID));
+    assertThat(positions.positions, equalTo(highlightFromScratch().positions));
+  }
+
+  // syntax = "proto2";
+  //
+  // enum PhoneType {
+  //   HOME = 0;
+  // }
+  //
+  // message Person {
+  //   optional PhoneType phone = 1;
+  // }
+  @Test public void should_shift_reused_positions_after_text_is_inserted_before_them() throws IOException {
+    highlight(xtext.resource());
+    edit("enum PhoneType", "// Phone types.\nenum PhoneType");
+    assertThat(highlight(xtext.resource()).positions, equalTo(highlightFromScratch().positions));
+  }
+
+  // syntax = "proto2";
+  //
+  // enum PhoneType {
+  //   HOME = 0;
+  // }
+  //
+  // message Person {
+  //   optional PhoneType phone = 1;
+  // }
+  @Test public void should_highlight_other_elements_again_after_type_is_renamed() throws IOException {
+    highlight(xtext.resource());
+    edit("enum PhoneType", "enum Phone");
+    Positions positions = highlight(xtext.resource());
+    assertThat(positions.highlighted, hasItem("Phone=" + ENUM_DEFINITION_ID));
+    assertThat(positions.positions, equalTo(highlightFromScratch().positions));
+  }
+
+  // syntax = "proto2";
+  // package test.highlighting;
+  //
+  // message Person {
+  //   optional Address address = 1;
+  // }
+  //
+  // message Address {}
+  @Test public void should_highlight_other_elements_again_after_package_is_changed() throws IOException {
+    highlight(xtext.resource());
+    edit("test.highlighting", "test.contacts");
+    Positions positions = highlight(xtext.resource());
+    assertThat(positions.highlighted, hasItem("test.contacts=" + DEFAULT_ID));
+    assertThat(positions.positions, equalTo(highlightFromScratch().positions));
+  }
+
+  // syntax = "proto2";
+  //
+  // message Person {
+  //   optional string name = 1;
+  // }
+  @Test public void should_highlight_everything_again_after_text_is_replaced() throws IOException {
+    highlight(xtext.resource());
+    xtext.resource().reparse("syntax = \"proto2\";\n\nmessage Address {\n  optional string street = 1;\n}\n");
+    Positions positions = highlight(xtext.resource());
+    assertThat(positions.highlighted, not(hasItem("Person=" + MESSAGE_DEFINITION_ID)));
+    assertThat(positions.highlighted, hasItem("Address=" + MESSAGE_DEFINITION_ID));
+    assertThat(positions.positions, equalTo(highlightFromScratch().positions));
+  }
+
+  private void edit(String oldText, String newText) {
+    int offset = xtext.text().indexOf(oldText);
+    xtext.resource().update(offset, oldText.length(), newText);
+  }
+
+  private Positions highlight(XtextResource resource) {
+    Positions positions = new Positions(resource.getParseResult().getRootNode().getText());
+    calculator.provideHighlightingFor(resource, positions, CancelIndicator.NullImpl);
+    return positions;
+  }
+
+  // Highlights the current text of the resource in a new resource, which has no highlighting to reuse.
+  private Positions highlightFromScratch() throws IOException {
+    XtextResourceSet resourceSet = xtext.injector().getInstance(XtextResourceSet.class);
+    XtextResource resource = (XtextResource) xtext.injector().getInstance(IResourceFactory.class)
+        .createResource(createURI("file:/usr/local/project/src/protos/fromScratch.proto"));
+    resourceSet.getResources().add(resource);
+    resource.load(new StringInputStream(xtext.text()), null);
+    return highlight(resource);
+  }
+
+  private static Module smallFilesModule() {
+    return new AbstractModule() {
+      @Override protected void configure() {
+        LargeFileMode largeFileMode = mock(LargeFileMode.class);
+        when(largeFileMode.highlightingDeadline(any(Resource.class))).thenReturn(Long.MAX_VALUE);
+        bind(LargeFileMode.class).toInstance(largeFileMode);
+      }
+    };
+  }
+
+  private static class Positions implements IHighlightedPositionAcceptor {
+    private final String text;
+
+    // Highlighted text and highlighting IDs, in document order.
+    final List<String> highlighted = newArrayList();
+    // Offset, length and highlighting IDs, in document order.
+    final List<String> positions = newArrayList();
+
+    Positions(String text) {
+      this.text = text;
+    }
+
+    @Override public void addPosition(int offset, int length, String... ids) {
+      String joinedIds = Joiner.on(',').join(ids);
+      highlighted.add(text.substring(offset, offset + length) + "=" + joinedIds);
+      positions.add(offset + ":" + length + "=" + joinedIds);
+    }
+  }
+}
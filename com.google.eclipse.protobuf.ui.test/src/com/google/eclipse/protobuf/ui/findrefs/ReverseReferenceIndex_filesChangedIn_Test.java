@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.ui.findrefs;
+
+import static org.eclipse.emf.common.util.URI.createURI;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Sets.newHashSet;
+
+import java.util.List;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.IResourceDescriptions;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for <code>{@link ReverseReferenceIndex#filesChangedIn(IResourceDescriptions)}</code>.
+ */
+public class ReverseReferenceIndex_filesChangedIn_Test {
+  private static final URI PERSON_FILE = createURI("platform:/resource/project/person.proto");
+  private static final URI PHONE_FILE = createURI("platform:/resource/project/phone.proto");
+  private static final URI ADDRESS_FILE = createURI("platform:/resource/project/address.proto");
+
+  private IResourceDescriptions builderState;
+  private IResourceDescription person;
+  private ReverseReferenceIndex index;
+
+  @Before public void setUp() {
+    builderState = mock(IResourceDescriptions.class);
+    person = description(PERSON_FILE);
+    when(builderState.getResourceDescription(PERSON_FILE)).thenReturn(person);
+    when(builderState.getResourceDescription(PHONE_FILE)).thenReturn(description(PHONE_FILE));
+    index = new ReverseReferenceIndex();
+    index.listenTo(builderState);
+  }
+
+  @Test public void should_return_files_described_differently_than_in_builder_state() {
+    IResourceDescriptions indexData = mock(IResourceDescriptions.class);
+    List<IResourceDescription> descriptions = newArrayList(
+        person, description(PHONE_FILE), description(ADDRESS_FILE));
+    when(indexData.getAllResourceDescriptions()).thenReturn(descriptions);
+    assertThat(index.filesChangedIn(indexData), equalTo(newHashSet(PHONE_FILE, ADDRESS_FILE)));
+  }
+
+  @Test public void should_return_no_files_if_index_is_builder_state() {
+    assertTrue(index.filesChangedIn(builderState).isEmpty());
+  }
+
+  private static IResourceDescription description(URI fileUri) {
+    IResourceDescription description = mock(IResourceDescription.class);
+    when(description.getURI()).thenReturn(fileUri);
+    return description;
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.ui.findrefs;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+
+import static org.eclipse.emf.common.util.URI.createURI;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Sets.newHashSet;
+
+import java.util.List;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.resource.IReferenceDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.IResourceDescription.Delta;
+import org.eclipse.xtext.resource.IResourceDescriptions;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for <code>{@link ReverseReferenceIndex#filesReferringTo(Iterable)}</code>.
+ */
+public class ReverseReferenceIndex_filesReferringTo_Test {
+  private static final URI PERSON_FILE = createURI("platform:/resource/project/person.proto");
+  private static final URI PHONE_FILE = createURI("platform:/resource/project/phone.proto");
+  private static final URI ADDRESS_FILE = createURI("platform:/resource/project/address.proto");
+  private static final URI TYPE = createURI("platform:/resource/project/types.proto#//@elements.0");
+  private static final URI OTHER_TYPE = createURI("platform:/resource/project/types.proto#//@elements.1");
+  private static final URI THIRD_TYPE = createURI("platform:/resource/project/types.proto#//@elements.2");
+
+  private ReverseReferenceIndex index;
+
+  @Before public void setUp() {
+    IResourceDescriptions builderState = mock(IResourceDescriptions.class);
+    List<IResourceDescription> descriptions = newArrayList(
+        description(PERSON_FILE, TYPE), description(PHONE_FILE, TYPE, OTHER_TYPE));
+    when(builderState.getAllResourceDescriptions()).thenReturn(descriptions);
+    index = new ReverseReferenceIndex();
+    index.listenTo(builderState);
+  }
+
+  @Test public void should_return_files_referring_to_given_targets() {
+    assertThat(index.filesReferringTo(singletonList(TYPE)), equalTo(newHashSet(PERSON_FILE, PHONE_FILE)));
+    assertThat(index.filesReferringTo(singletonList(OTHER_TYPE)), equalTo(newHashSet(PHONE_FILE)));
+    assertThat(index.filesReferringTo(asList(TYPE, OTHER_TYPE)), equalTo(newHashSet(PERSON_FILE, PHONE_FILE)));
+  }
+
+  @Test public void should_add_files_reported_as_added() {
+    index.filesReferringTo(singletonList(TYPE));
+    index.update(singletonList(delta(ADDRESS_FILE, description(ADDRESS_FILE, OTHER_TYPE))));
+    assertThat(index.filesReferringTo(singletonList(OTHER_TYPE)), equalTo(newHashSet(PHONE_FILE, ADDRESS_FILE)));
+  }
+
+  @Test public void should_remove_files_reported_as_removed() {
+    index.filesReferringTo(singletonList(TYPE));
+    index.update(singletonList(delta(PHONE_FILE, null)));
+    assertThat(index.filesReferringTo(singletonList(TYPE)), equalTo(newHashSet(PERSON_FILE)));
+    assertTrue(index.filesReferringTo(singletonList(OTHER_TYPE)).isEmpty());
+  }
+
+  @Test public void should_replace_targets_of_files_reported_as_changed() {
+    index.filesReferringTo(singletonList(TYPE));
+    index.update(singletonList(delta(PHONE_FILE, description(PHONE_FILE, THIRD_TYPE))));
+    assertThat(index.filesReferringTo(singletonList(TYPE)), equalTo(newHashSet(PERSON_FILE)));
+    assertTrue(index.filesReferringTo(singletonList(OTHER_TYPE)).isEmpty());
+    assertThat(index.filesReferringTo(singletonList(THIRD_TYPE)), equalTo(newHashSet(PHONE_FILE)));
+  }
+
+  private static IResourceDescription description(URI fileUri, URI... targetUris) {
+    List<IReferenceDescription> references = newArrayList();
+    for (URI targetUri : targetUris) {
+      IReferenceDescription reference = mock(IReferenceDescription.class);
+      when(reference.getTargetEObjectUri()).thenReturn(targetUri);
+      references.add(reference);
+    }
+    IResourceDescription description = mock(IResourceDescription.class);
+    when(description.getURI()).thenReturn(fileUri);
+    when(description.getReferenceDescriptions()).thenReturn(references);
+    return description;
+  }
+
+  private static Delta delta(URI fileUri, IResourceDescription newDescription) {
+    Delta delta = mock(Delta.class);
+    when(delta.getUri()).thenReturn(fileUri);
+    when(delta.getNew()).thenReturn(newDescription);
+    return delta;
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.ui.scoping;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+
+import static org.eclipse.emf.common.util.URI.createURI;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.COMPLEX_TYPE;
+import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.MESSAGE;
+
+import java.util.List;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.IResourceDescription.Delta;
+import org.eclipse.xtext.resource.IResourceDescriptions;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.eclipse.protobuf.ui.scoping.ExportedTypeIndex.ExportedType;
+
+/**
+ * Tests for <code>{@link ExportedTypeIndex#typesIn(URI)}</code>.
+ */
+public class ExportedTypeIndex_typesIn_Test {
+  private static final URI PERSON_FILE = createURI("platform:/resource/project/person.proto");
+  private static final URI EMPTY_FILE = createURI("platform:/resource/project/empty.proto");
+  private static final URI OTHER_FILE = createURI("platform:/resource/project/other.proto");
+  private static final URI PERSON = createURI("platform:/resource/project/person.proto#//@elements.0");
+
+  private ExportedTypeIndex index;
+
+  @Before public void setUp() {
+    IResourceDescriptions xtextIndex = mock(IResourceDescriptions.class);
+    List<IResourceDescription> descriptions = newArrayList(
+        description(PERSON_FILE, "test.Person", PERSON), description(EMPTY_FILE, null, null));
+    when(xtextIndex.getAllResourceDescriptions()).thenReturn(descriptions);
+    index = new ExportedTypeIndex();
+    index.listenTo(xtextIndex);
+  }
+
+  @Test public void should_return_types_exported_by_file() {
+    List<ExportedType> types = index.typesIn(PERSON_FILE);
+    assertThat(types.size(), equalTo(1));
+    assertThat(types.get(0).qualifiedName(), equalTo(QualifiedName.create("test", "Person")));
+    assertThat(types.get(0).uri(), equalTo(PERSON));
+  }
+
+  @Test public void should_return_empty_list_for_indexed_file_exporting_no_types() {
+    assertTrue(index.typesIn(EMPTY_FILE).isEmpty());
+  }
+
+  @Test public void should_return_null_for_file_not_indexed() {
+    assertNull(index.typesIn(OTHER_FILE));
+  }
+
+  @Test public void should_return_null_for_file_reported_as_removed() {
+    index.typesIn(PERSON_FILE);
+    Delta delta = mock(Delta.class);
+    when(delta.getUri()).thenReturn(PERSON_FILE);
+    index.update(singletonList(delta));
+    assertNull(index.typesIn(PERSON_FILE));
+  }
+
+  private static IResourceDescription description(URI fileUri, String typeName, URI typeUri) {
+    IResourceDescription description = mock(IResourceDescription.class);
+    when(description.getURI()).thenReturn(fileUri);
+    List<IEObjectDescription> noTypes = emptyList();
+    when(description.getExportedObjectsByType(any(EClass.class))).thenReturn(noTypes);
+    if (typeName != null) {
+      IEObjectDescription type = mock(IEObjectDescription.class);
+      when(type.getName()).thenReturn(QualifiedName.create(typeName.split("\\.")));
+      when(type.getEClass()).thenReturn(MESSAGE);
+      when(type.getEObjectURI()).thenReturn(typeUri);
+      List<IEObjectDescription> types = singletonList(type);
+      when(description.getExportedObjectsByType(COMPLEX_TYPE)).thenReturn(types);
+    }
+    return description;
+  }
+}
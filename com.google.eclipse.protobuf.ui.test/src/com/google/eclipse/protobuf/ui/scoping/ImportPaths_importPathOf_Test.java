@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.ui.scoping;
+
+import static com.google.eclipse.protobuf.junit.core.UnitTestModule.unitTestModule;
+import static com.google.eclipse.protobuf.junit.core.XtextRule.overrideRuntimeModuleWith;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.when;
+
+import com.google.eclipse.protobuf.junit.core.AbstractTestModule;
+import com.google.eclipse.protobuf.junit.core.XtextRule;
+import com.google.eclipse.protobuf.scoping.IUriResolver;
+import com.google.eclipse.protobuf.util.Uris;
+import com.google.inject.Inject;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.emf.common.util.URI;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ImportPaths#importPathOf(URI, URI)}.
+ */
+public class ImportPaths_importPathOf_Test {
+  @Rule public XtextRule xtext = overrideRuntimeModuleWith(unitTestModule(), new TestModule());
+
+  @Inject private IUriResolver resolver;
+  @Inject private ImportPaths importPaths;
+
+  private final URI importingUri = URI.createURI("platform:/resource/project/src/importing.proto");
+  private final URI importedUri = URI.createURI("platform:/resource/project/src/protos/imported.proto");
+
+  @Test public void should_return_shortest_path_resolving_to_imported_file() {
+    when(resolver.resolveUri(anyString(), any(URI.class), any(IProject.class))).thenReturn(null);
+    when(resolver.resolveUri("protos/imported.proto", importingUri, null)).thenReturn(importedUri.toString());
+    when(resolver.resolveUri("src/protos/imported.proto", importingUri, null)).thenReturn(importedUri.toString());
+    assertThat(importPaths.importPathOf(importedUri, importingUri), equalTo("protos/imported.proto"));
+  }
+
+  @Test public void should_ignore_paths_resolving_to_other_files() {
+    when(resolver.resolveUri(anyString(), any(URI.class), any(IProject.class))).thenReturn(null);
+    when(resolver.resolveUri("imported.proto", importingUri, null))
+        .thenReturn("platform:/resource/project/src/imported.proto");
+    when(resolver.resolveUri("src/protos/imported.proto", importingUri, null)).thenReturn(importedUri.toString());
+    assertThat(importPaths.importPathOf(importedUri, importingUri), equalTo("src/protos/imported.proto"));
+  }
+
+  @Test public void should_return_null_if_no_path_resolves_to_imported_file() {
+    when(resolver.resolveUri(anyString(), any(URI.class), any(IProject.class))).thenReturn(null);
+    assertNull(importPaths.importPathOf(importedUri, importingUri));
+  }
+
+  private static class TestModule extends AbstractTestModule {
+    @Override protected void configure() {
+      mockAndBind(IUriResolver.class);
+      mockAndBind(Uris.class);
+    }
+  }
+}
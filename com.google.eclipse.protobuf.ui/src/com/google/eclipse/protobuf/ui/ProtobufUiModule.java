@@ -18,17 +18,20 @@ import com.google.eclipse.protobuf.scoping.IUriResolver;
 import com.google.eclipse.protobuf.ui.builder.nature.ProtobufEditorCallback;
 import com.google.eclipse.protobuf.ui.documentation.ProtobufDocumentationProvider;
 import com.google.eclipse.protobuf.ui.editor.FileOutsideWorkspaceIconUpdater;
+import com.google.eclipse.protobuf.ui.editor.LargeFileIndicator;
 import com.google.eclipse.protobuf.ui.editor.ProtobufUriEditorOpener;
 import com.google.eclipse.protobuf.ui.editor.hyperlinking.ProtobufHyperlinkDetector;
 import com.google.eclipse.protobuf.ui.editor.model.ProtobufDocumentProvider;
 import com.google.eclipse.protobuf.ui.editor.syntaxcoloring.HighlightingConfiguration;
 import com.google.eclipse.protobuf.ui.editor.syntaxcoloring.ProtobufAntlrTokenToAttributeIdMapper;
 import com.google.eclipse.protobuf.ui.editor.syntaxcoloring.ProtobufSemanticHighlightingCalculator;
+import com.google.eclipse.protobuf.ui.findrefs.ProtobufReferenceFinder;
 import com.google.eclipse.protobuf.ui.outline.LinkWithEditor;
 import com.google.eclipse.protobuf.ui.outline.ProtobufOutlinePage;
 import com.google.eclipse.protobuf.ui.parser.PreferenceDrivenProtobufParser;
 import com.google.eclipse.protobuf.ui.preferences.compiler.CompilerPreferences;
 import com.google.eclipse.protobuf.ui.preferences.editor.ignore.IgnoredExtensionsPreferences;
+import com.google.eclipse.protobuf.ui.preferences.editor.largefile.LargeFilePreferences;
 import com.google.eclipse.protobuf.ui.preferences.editor.numerictag.NumericTagPreferences;
 import com.google.eclipse.protobuf.ui.preferences.editor.save.SaveActionsPreferences;
 import com.google.eclipse.protobuf.ui.preferences.misc.MiscellaneousPreferences;
@@ -37,12 +40,14 @@ import com.google.eclipse.protobuf.ui.resource.ProtobufServiceProvider;
 import com.google.eclipse.protobuf.ui.resource.ResourceVerifier;
 import com.google.eclipse.protobuf.ui.scoping.ImportResolver;
 import com.google.eclipse.protobuf.ui.scoping.UriResolver;
+import com.google.eclipse.protobuf.ui.validation.LargeFileResourceValidator;
 import com.google.inject.Binder;
 
 import org.eclipse.jface.text.hyperlink.IHyperlinkDetector;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.eclipse.ui.views.contentoutline.IContentOutlinePage;
 import org.eclipse.xtext.documentation.IEObjectDocumentationProvider;
+import org.eclipse.xtext.findReferences.IReferenceFinder;
 import org.eclipse.xtext.ide.editor.syntaxcoloring.ISemanticHighlightingCalculator;
 import org.eclipse.xtext.parser.IParser;
 import org.eclipse.xtext.resource.IResourceServiceProvider;
@@ -56,6 +61,7 @@ import org.eclipse.xtext.ui.editor.syntaxcoloring.AbstractAntlrTokenToAttributeI
 import org.eclipse.xtext.ui.editor.syntaxcoloring.IHighlightingConfiguration;
 import org.eclipse.xtext.ui.resource.IResourceSetProvider;
 import org.eclipse.xtext.ui.resource.SimpleResourceSetProvider;
+import org.eclipse.xtext.validation.IResourceValidator;
 
 /**
  * Registers components to be used within the IDE.
@@ -95,6 +101,10 @@ public class ProtobufUiModule extends AbstractProtobufUiModule {
     return PreferenceDrivenProtobufParser.class;
   }
 
+  public Class<? extends IReferenceFinder> bindReferenceFinder() {
+    return ProtobufReferenceFinder.class;
+  }
+
   public Class<? extends IResourceServiceProvider> bindIResourceServiceProvider() {
     return ProtobufServiceProvider.class;
   }
@@ -107,6 +117,10 @@ public class ProtobufUiModule extends AbstractProtobufUiModule {
     return ResourceVerifier.class;
   }
 
+  public Class<? extends IResourceValidator> bindIResourceValidator() {
+    return LargeFileResourceValidator.class;
+  }
+
   public Class<? extends ISemanticHighlightingCalculator> bindISemanticHighlightingCalculator() {
     return ProtobufSemanticHighlightingCalculator.class;
   }
@@ -125,6 +139,12 @@ public class ProtobufUiModule extends AbstractProtobufUiModule {
           .to(FileOutsideWorkspaceIconUpdater.class);
   }
 
+  public void configureLargeFileIndicator(Binder binder) {
+    binder.bind(IXtextEditorCallback.class)
+          .annotatedWith(named("LargeFileIndicator"))
+          .to(LargeFileIndicator.class);
+  }
+
   @Override public void configureLanguageSpecificURIEditorOpener(Binder binder) {
     if (!isWorkbenchRunning()) {
       return;
@@ -138,6 +158,7 @@ public class ProtobufUiModule extends AbstractProtobufUiModule {
     configurePreferenceInitializer(binder, "compilerPreferences", CompilerPreferences.Initializer.class);
     configurePreferenceInitializer(binder, "generalPreferences", GeneralPreferences.Initializer.class);
     configurePreferenceInitializer(binder, "ignoredExtensions", IgnoredExtensionsPreferences.Initializer.class);
+    configurePreferenceInitializer(binder, "largeFilePreferences", LargeFilePreferences.Initializer.class);
     configurePreferenceInitializer(binder, "numericTagPreferences", NumericTagPreferences.Initializer.class);
     configurePreferenceInitializer(binder, "miscellaneousPreferences", MiscellaneousPreferences.Initializer.class);
     configurePreferenceInitializer(binder, "pathsPreferences", PathsPreferences.Initializer.class);
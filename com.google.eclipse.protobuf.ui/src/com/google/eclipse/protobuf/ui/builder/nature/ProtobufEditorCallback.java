@@ -8,9 +8,13 @@
  */
 package com.google.eclipse.protobuf.ui.builder.nature;
 
+import static com.google.eclipse.protobuf.util.SystemProperties.isImportPrefetchEnabled;
+
 import com.google.eclipse.protobuf.preferences.general.GeneralPreferences;
+import com.google.eclipse.protobuf.ui.editor.ImportClosurePrefetchJob;
 import com.google.eclipse.protobuf.ui.validation.ProtobufValidation;
 import com.google.inject.Inject;
+import com.google.inject.Provider;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
@@ -18,12 +22,15 @@ import org.eclipse.xtext.builder.nature.ToggleXtextNatureAction;
 import org.eclipse.xtext.builder.nature.XtextNature;
 import org.eclipse.xtext.ui.editor.IXtextEditorCallback;
 import org.eclipse.xtext.ui.editor.XtextEditor;
+import org.eclipse.xtext.ui.editor.model.IXtextDocument;
 import org.eclipse.xtext.ui.editor.preferences.IPreferenceStoreAccess;
 
 
 /**
  * Automatically adds {@link XtextNature} to a project if needed (e.g. when opening a 'Protocol
  * Buffer' editor for the first time) and performs validation on a protobuf file when it is opened.
+ * When enabled, it also starts loading the files imported by the opened file in the background, and
+ * stops when the editor is closed.
  *
  * @author alruiz@google.com (Alex Ruiz)
  */
@@ -32,8 +39,12 @@ public class ProtobufEditorCallback extends IXtextEditorCallback.NullImpl {
   @Inject private ToggleXtextNatureAction xtext;
   @Inject private IPreferenceStoreAccess storeAccess;
   @Inject private ProtobufValidation validator;
+  @Inject private Provider<ImportClosurePrefetchJob> prefetchJobs;
+
+  private ImportClosurePrefetchJob prefetchJob;
 
   @Override public void afterCreatePartControl(XtextEditor editor) {
+    prefetchImportsIfEnabled(editor);
     IResource resource = editor.getResource();
     if (resource == null) {
       return;
@@ -43,6 +54,22 @@ public class ProtobufEditorCallback extends IXtextEditorCallback.NullImpl {
     validateEditorIfEnabled(editor, project);
   }
 
+  private void prefetchImportsIfEnabled(XtextEditor editor) {
+    IXtextDocument document = editor.getDocument();
+    if (!isImportPrefetchEnabled() || document == null) {
+      return;
+    }
+    prefetchJob = prefetchJobs.get();
+    prefetchJob.prefetchImportsOf(document);
+  }
+
+  @Override public void beforeDispose(XtextEditor editor) {
+    if (prefetchJob != null) {
+      prefetchJob.cancel();
+    }
+    prefetchJob = null;
+  }
+
   private void addXtextNatureToProject(IProject project) {
     if (!project.isAccessible() || project.isHidden()) {
       return;
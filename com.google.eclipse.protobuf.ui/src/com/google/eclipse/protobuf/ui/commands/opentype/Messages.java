@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.ui.commands.opentype;
+
+import org.eclipse.osgi.util.NLS;
+
+public class Messages extends NLS {
+  public static String openProtoTypeMessage;
+  public static String openProtoTypeTitle;
+  public static String searchingTypes;
+
+  static {
+    Class<Messages> type = Messages.class;
+    NLS.initializeMessages(type.getName(), type);
+  }
+
+  private Messages() {}
+}
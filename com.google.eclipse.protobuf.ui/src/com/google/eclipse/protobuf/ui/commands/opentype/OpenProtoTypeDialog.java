@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.ui.commands.opentype;
+
+import static com.google.eclipse.protobuf.ui.commands.opentype.Messages.openProtoTypeMessage;
+import static com.google.eclipse.protobuf.ui.commands.opentype.Messages.openProtoTypeTitle;
+import static com.google.eclipse.protobuf.ui.commands.opentype.Messages.searchingTypes;
+
+import java.util.Comparator;
+import java.util.List;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.jface.dialogs.IDialogSettings;
+import org.eclipse.jface.viewers.ILabelProvider;
+import org.eclipse.jface.viewers.LabelProvider;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.ui.dialogs.FilteredItemsSelectionDialog;
+import org.eclipse.xtext.naming.QualifiedName;
+
+import com.google.eclipse.protobuf.ui.internal.ProtobufActivator;
+import com.google.eclipse.protobuf.ui.scoping.ExportedTypeIndex;
+import com.google.eclipse.protobuf.ui.scoping.ExportedTypeIndex.ExportedType;
+
+/**
+ * Lists the messages, enums, services and rpcs in the workspace whose names match the text typed by
+ * the user. Types are taken from the <code>{@link ExportedTypeIndex}</code>; no resource is loaded.
+ */
+class OpenProtoTypeDialog extends FilteredItemsSelectionDialog {
+  private static final String DIALOG_SETTINGS = OpenProtoTypeDialog.class.getName();
+
+  private static final Comparator<ExportedType> BY_NAME = new Comparator<ExportedType>() {
+    @Override public int compare(ExportedType t1, ExportedType t2) {
+      int result = t1.qualifiedName().getLastSegment().compareToIgnoreCase(t2.qualifiedName().getLastSegment());
+      if (result == 0) {
+        result = t1.qualifiedName().compareTo(t2.qualifiedName());
+      }
+      return result;
+    }
+  };
+
+  private final ExportedTypeIndex index;
+
+  OpenProtoTypeDialog(Shell shell, ExportedTypeIndex index, ILabelProvider labelProvider) {
+    super(shell, true);
+    this.index = index;
+    setTitle(openProtoTypeTitle);
+    setMessage(openProtoTypeMessage);
+    setListLabelProvider(labelProvider);
+    setDetailsLabelProvider(new LabelProvider() {
+      @Override public String getText(Object element) {
+        return (element instanceof ExportedType) ? ((ExportedType) element).fileUri().toString() : "";
+      }
+    });
+  }
+
+  @Override protected Control createExtendedContentArea(Composite parent) {
+    return null;
+  }
+
+  @Override protected IDialogSettings getDialogSettings() {
+    IDialogSettings settings = ProtobufActivator.getInstance().getDialogSettings();
+    IDialogSettings section = settings.getSection(DIALOG_SETTINGS);
+    return (section != null) ? section : settings.addNewSection(DIALOG_SETTINGS);
+  }
+
+  @Override protected IStatus validateItem(Object item) {
+    return Status.OK_STATUS;
+  }
+
+  @Override protected ItemsFilter createFilter() {
+    return new ItemsFilter() {
+      // A pattern containing a '.' is matched against fully-qualified names, as in "Open Type."
+      @Override public boolean matchItem(Object item) {
+        QualifiedName name = ((ExportedType) item).qualifiedName();
+        return matches((getPattern().indexOf('.') >= 0) ? name.toString() : name.getLastSegment());
+      }
+
+      @Override public boolean isConsistentItem(Object item) {
+        return true;
+      }
+    };
+  }
+
+  @Override protected Comparator<ExportedType> getItemsComparator() {
+    return BY_NAME;
+  }
+
+  @Override protected void fillContentProvider(AbstractContentProvider contentProvider, ItemsFilter itemsFilter,
+      IProgressMonitor progressMonitor) throws CoreException {
+    List<ExportedType> types = index.allTypes();
+    progressMonitor.beginTask(searchingTypes, types.size());
+    for (ExportedType type : types) {
+      if (progressMonitor.isCanceled()) {
+        break;
+      }
+      contentProvider.add(type, itemsFilter);
+      progressMonitor.worked(1);
+    }
+    progressMonitor.done();
+  }
+
+  @Override public String getElementName(Object item) {
+    return ((ExportedType) item).qualifiedName().toString();
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.ui.commands.opentype;
+
+import static org.eclipse.ui.handlers.HandlerUtil.getActiveShellChecked;
+
+import org.eclipse.core.commands.AbstractHandler;
+import org.eclipse.core.commands.ExecutionEvent;
+import org.eclipse.core.commands.ExecutionException;
+import org.eclipse.jface.viewers.LabelProvider;
+import org.eclipse.jface.window.Window;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.ui.PluginImageHelper;
+
+import com.google.eclipse.protobuf.ui.editor.ProtobufUriEditorOpener;
+import com.google.eclipse.protobuf.ui.labeling.Images;
+import com.google.eclipse.protobuf.ui.scoping.ExportedTypeIndex;
+import com.google.eclipse.protobuf.ui.scoping.ExportedTypeIndex.ExportedType;
+import com.google.inject.Inject;
+
+/**
+ * Opens the "Open Proto Type" dialog, and opens the types selected in it.
+ */
+public class OpenProtoTypeHandler extends AbstractHandler {
+  @Inject private ProtobufUriEditorOpener editorOpener;
+  @Inject private ExportedTypeIndex index;
+  @Inject private Images images;
+  @Inject private PluginImageHelper imageHelper;
+
+  @Override public Object execute(ExecutionEvent event) throws ExecutionException {
+    OpenProtoTypeDialog dialog = new OpenProtoTypeDialog(getActiveShellChecked(event), index, new TypeLabelProvider());
+    if (dialog.open() != Window.OK) {
+      return null;
+    }
+    for (Object selected : dialog.getResult()) {
+      if (selected instanceof ExportedType) {
+        editorOpener.open(((ExportedType) selected).uri(), true);
+      }
+    }
+    return null;
+  }
+
+  private class TypeLabelProvider extends LabelProvider {
+    @Override public String getText(Object element) {
+      if (!(element instanceof ExportedType)) {
+        return "";
+      }
+      QualifiedName name = ((ExportedType) element).qualifiedName();
+      if (name.getSegmentCount() == 1) {
+        return name.toString();
+      }
+      return name.getLastSegment() + " - " + name.skipLast(1);
+    }
+
+    @Override public Image getImage(Object element) {
+      if (!(element instanceof ExportedType)) {
+        return null;
+      }
+      return imageHelper.getImage(images.imageFor(((ExportedType) element).type()));
+    }
+  }
+}
@@ -17,7 +17,9 @@ import static com.google.eclipse.protobuf.grammar.CommonKeyword.OPENING_CURLY_BR
 import static com.google.eclipse.protobuf.grammar.CommonKeyword.SYNTAX;
 import static com.google.eclipse.protobuf.grammar.CommonKeyword.TRUE;
 import static com.google.eclipse.protobuf.protobuf.ModifierEnum.OPTIONAL;
+import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.COMPLEX_TYPE_LINK__TARGET;
 import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.LITERAL;
+import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.MESSAGE_LINK__TARGET;
 import static com.google.eclipse.protobuf.ui.grammar.CompoundElement.DEFAULT_EQUAL_IN_BRACKETS;
 import static com.google.eclipse.protobuf.ui.grammar.CompoundElement.DEFAULT_EQUAL_STRING_IN_BRACKETS;
 import static com.google.eclipse.protobuf.ui.grammar.CompoundElement.EMPTY_STRING;
@@ -48,11 +50,15 @@ import com.google.eclipse.protobuf.protobuf.MessageField;
 import com.google.eclipse.protobuf.protobuf.ModifierEnum;
 import com.google.eclipse.protobuf.protobuf.Option;
 import com.google.eclipse.protobuf.protobuf.SimpleValueField;
+import com.google.eclipse.protobuf.ui.contentassist.TypeNameIndex.TypeName;
 import com.google.eclipse.protobuf.ui.grammar.CompoundElement;
 import com.google.eclipse.protobuf.ui.labeling.Images;
 import com.google.inject.Inject;
 
+import java.util.List;
+
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
 import org.eclipse.jface.text.contentassist.ICompletionProposal;
 import org.eclipse.jface.viewers.StyledString;
 import org.eclipse.swt.custom.StyledText;
@@ -72,12 +78,15 @@ import org.eclipse.xtext.ui.editor.contentassist.ICompletionProposalAcceptor;
  * @see <a href="http://www.eclipse.org/Xtext/documentation/310_eclipse_support.html#content-assist">Xtext Content Assist</a>
  */
 public class ProtobufProposalProvider extends AbstractProtobufProposalProvider {
+  private final TypeNamePrefixMatcher typeNameMatcher = new TypeNamePrefixMatcher();
+
   @Inject private Images images;
   @Inject private IndexedElements indexedElements;
   @Inject private PluginImageHelper imageHelper;
   @Inject private Literals literals;
   @Inject private MessageFields messageFields;
   @Inject private Options options;
+  @Inject private TypeNameIndex typeNameIndex;
 
   @Override public void completeProtobuf_Syntax(EObject model, Assignment assignment, ContentAssistContext context,
       ICompletionProposalAcceptor acceptor) {}
@@ -359,6 +368,37 @@ public class ProtobufProposalProvider extends AbstractProtobufProposalProvider {
     acceptor.accept(proposal);
   }
 
+  @Override public void completeComplexTypeLink_Target(EObject model, Assignment assignment,
+      ContentAssistContext context, ICompletionProposalAcceptor acceptor) {
+    proposeTypeNames(model, COMPLEX_TYPE_LINK__TARGET, context, acceptor);
+  }
+
+  @Override public void completeMessageLink_Target(EObject model, Assignment assignment,
+      ContentAssistContext context, ICompletionProposalAcceptor acceptor) {
+    proposeTypeNames(model, MESSAGE_LINK__TARGET, context, acceptor);
+  }
+
+  /*
+   * Proposes the matches of the typed text from the type name index, instead of enumerating and filtering the whole
+   * scope of the reference. Matches by camel case or subsequence are proposed too, so the prefix is not used to filter
+   * the proposals. All the matches are proposed: while the user keeps typing, the proposals are only filtered, not
+   * computed again.
+   */
+  private void proposeTypeNames(EObject model, EReference reference, ContentAssistContext context,
+      ICompletionProposalAcceptor acceptor) {
+    List<TypeName> names = typeNameIndex.find(model, reference, context.getPrefix());
+    int priority = getPriorityHelper().getDefaultPriority() + names.size();
+    for (TypeName name : names) {
+      Image image = imageHelper.getImage(images.imageFor(name.type));
+      ICompletionProposal proposal = createCompletionProposal(name.qualifiedName,
+          new StyledString(name.qualifiedName), image, priority--, "", context);
+      if (proposal instanceof ConfigurableCompletionProposal) {
+        ((ConfigurableCompletionProposal) proposal).setMatcher(typeNameMatcher);
+      }
+      acceptor.accept(proposal);
+    }
+  }
+
   @Override public void completeOptionSource_Target(EObject model, Assignment assignment,
       ContentAssistContext context, ICompletionProposalAcceptor acceptor) {
   }
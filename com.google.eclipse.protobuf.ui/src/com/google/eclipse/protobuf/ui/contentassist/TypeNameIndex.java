@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.ui.contentassist;
+
+import static java.util.Collections.sort;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newLinkedHashMap;
+import static com.google.common.collect.Sets.newHashSet;
+import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.COMPLEX_TYPE;
+import static com.google.eclipse.protobuf.util.EResources.getProjectOf;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.xtext.EcoreUtil2;
+import org.eclipse.xtext.naming.IQualifiedNameProvider;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+
+import com.google.eclipse.protobuf.model.util.Imports;
+import com.google.eclipse.protobuf.model.util.ModelObjects;
+import com.google.eclipse.protobuf.model.util.Packages;
+import com.google.eclipse.protobuf.model.util.Protobufs;
+import com.google.eclipse.protobuf.model.util.Resources;
+import com.google.eclipse.protobuf.protobuf.ComplexType;
+import com.google.eclipse.protobuf.protobuf.Import;
+import com.google.eclipse.protobuf.protobuf.Protobuf;
+import com.google.eclipse.protobuf.scoping.ProtoDescriptorProvider;
+import com.google.eclipse.protobuf.ui.scoping.ExportedTypeIndex;
+import com.google.eclipse.protobuf.ui.scoping.ExportedTypeIndex.ExportedType;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * Names of the types that a cross-reference in a file can point to, matched against the text typed
+ * by the user.
+ * <p>
+ * The types of the imported files are taken from the <code>{@link ExportedTypeIndex}</code>, which is
+ * kept up to date with the changes reported by the Xtext index, so editing the file does not cause
+ * the scope of the cross-reference to be enumerated again. Only the types declared in the file
+ * itself are read from its model. Which files are imported, and how close they are, is computed
+ * for each completion. Typed text containing a '.' is matched against qualified names. Among names
+ * matching equally well, types declared in the file come first, then types in files imported
+ * directly, then types in files imported publicly by those.
+ * </p>
+ */
+@Singleton class TypeNameIndex {
+  private static final int IN_SAME_FILE = 0;
+  private static final int IN_DIRECT_IMPORT = 1;
+  private static final int IN_INDIRECT_IMPORT = 2;
+
+  @Inject private IResourceDescription.Manager descriptionManager;
+  @Inject private ProtoDescriptorProvider descriptorProvider;
+  @Inject private ExportedTypeIndex exportedTypes;
+  @Inject private Imports imports;
+  @Inject private ModelObjects modelObjects;
+  @Inject private Packages packages;
+  @Inject private Protobufs protobufs;
+  @Inject private IQualifiedNameProvider qualifiedNameProvider;
+  @Inject private Resources resources;
+
+  /**
+   * Returns the matches of the given typed text, among the names of the types the given
+   * cross-reference can point to from the given context.
+   * @param context the object containing, or about to contain, the cross-reference.
+   * @param reference the cross-reference.
+   * @param pattern the text typed by the user.
+   * @return the matches, best first.
+   */
+  List<TypeName> find(EObject context, EReference reference, String pattern) {
+    Protobuf root = EcoreUtil2.getContainerOfType(context, Protobuf.class);
+    if (root == null || root.eResource() == null) {
+      return newArrayList();
+    }
+    EClass targetType = reference.getEReferenceType();
+    List<String> packageSegments = packages.segmentsOf(modelObjects.packageOf(root));
+    List<Match> matches = newArrayList();
+    for (TypeName name : localNamesOf(context)) {
+      addIfMatching(name, targetType, pattern, matches);
+    }
+    for (ComplexType type : EcoreUtil2.eAllOfType(root, ComplexType.class)) {
+      QualifiedName qualifiedName = qualifiedNameProvider.getFullyQualifiedName(type);
+      if (qualifiedName != null) {
+        TypeName name = new TypeName(writableName(qualifiedName, packageSegments), type.eClass(),
+            EcoreUtil.getURI(type), IN_SAME_FILE);
+        addIfMatching(name, targetType, pattern, matches);
+      }
+    }
+    URI resourceUri = root.eResource().getURI();
+    for (Map.Entry<URI, Integer> imported : importedFilesOf(root).entrySet()) {
+      URI fileUri = imported.getKey();
+      if (fileUri.equals(resourceUri)) {
+        continue;
+      }
+      for (TypeName name : namesIn(fileUri, root, packageSegments, imported.getValue())) {
+        addIfMatching(name, targetType, pattern, matches);
+      }
+    }
+    sort(matches, Match.BEST_FIRST);
+    List<TypeName> names = newArrayList();
+    Set<URI> added = newHashSet();
+    for (Match match : matches) {
+      if (added.add(match.name.uri)) {
+        names.add(match.name);
+      }
+    }
+    return names;
+  }
+
+  private static void addIfMatching(TypeName name, EClass targetType, String pattern, List<Match> matches) {
+    if (!targetType.isSuperTypeOf(name.type)) {
+      return;
+    }
+    TypeNameMatch kind = TypeNameMatch.ofTypeName(pattern, name.qualifiedName);
+    if (kind != null) {
+      matches.add(new Match(name, kind));
+    }
+  }
+
+  // Types nested in the messages containing the given context, which can be referred to by their
+  // simple name.
+  private static List<TypeName> localNamesOf(EObject context) {
+    List<TypeName> names = newArrayList();
+    for (EObject container = context; container != null; container = container.eContainer()) {
+      if (!(container instanceof ComplexType)) {
+        continue;
+      }
+      for (EObject nested : container.eContents()) {
+        if (nested instanceof ComplexType && ((ComplexType) nested).getName() != null) {
+          String name = ((ComplexType) nested).getName();
+          names.add(new TypeName(name, nested.eClass(), EcoreUtil.getURI(nested), IN_SAME_FILE));
+        }
+      }
+    }
+    return names;
+  }
+
+  // The files whose types are visible from the given root, as the global scope finds them: the files
+  // it imports, and the files those import publicly, with their proximity.
+  private Map<URI, Integer> importedFilesOf(Protobuf root) {
+    Map<URI, Integer> files = newLinkedHashMap();
+    for (Import anImport : protobufs.importsIn(root)) {
+      addImportedFile(anImport, IN_DIRECT_IMPORT, files);
+    }
+    return files;
+  }
+
+  private void addImportedFile(Import anImport, int proximity, Map<URI, Integer> files) {
+    URI fileUri = imports.resolvedUriOf(anImport);
+    if (fileUri == null) {
+      if (imports.hasUnresolvedDescriptorUri(anImport)) {
+        URI descriptorUri = descriptorProvider.descriptorLocation(
+            getProjectOf(anImport.eResource()), imports.getPath(anImport));
+        if (descriptorUri != null && !files.containsKey(descriptorUri)) {
+          files.put(descriptorUri, proximity);
+        }
+      }
+      return;
+    }
+    Integer known = files.get(fileUri);
+    if (known != null) {
+      if (proximity < known) {
+        files.put(fileUri, proximity);
+      }
+      return;
+    }
+    files.put(fileUri, proximity);
+    Resource imported = imports.importedResource(anImport);
+    Protobuf importedRoot = (imported != null) ? resources.rootOf(imported) : null;
+    if (importedRoot == null) {
+      return;
+    }
+    for (Import publicImport : protobufs.publicImportsIn(importedRoot)) {
+      addImportedFile(publicImport, IN_INDIRECT_IMPORT, files);
+    }
+  }
+
+  // Files outside the Xtext index (e.g. descriptor.proto in a plug-in) are described from the
+  // resource already loaded by the scope of the cross-reference, if any.
+  private List<TypeName> namesIn(URI fileUri, Protobuf root, List<String> packageSegments, int proximity) {
+    List<TypeName> names = newArrayList();
+    List<ExportedType> indexed = exportedTypes.typesIn(fileUri);
+    if (indexed != null) {
+      for (ExportedType type : indexed) {
+        names.add(new TypeName(writableName(type.qualifiedName(), packageSegments), type.type(), type.uri(),
+            proximity));
+      }
+      return names;
+    }
+    Resource resource = root.eResource().getResourceSet().getResource(fileUri, false);
+    if (resource == null) {
+      return names;
+    }
+    IResourceDescription description = descriptionManager.getResourceDescription(resource);
+    for (IEObjectDescription d : description.getExportedObjectsByType(COMPLEX_TYPE)) {
+      names.add(new TypeName(writableName(d.getName(), packageSegments), d.getEClass(), d.getEObjectURI(),
+          proximity));
+    }
+    return names;
+  }
+
+  // The scope resolves names relative to the package of the file and to each package containing it,
+  // so the segments a type shares with the start of that package can be left out.
+  private static String writableName(QualifiedName qualifiedName, List<String> packageSegments) {
+    int common = 0;
+    while (common < packageSegments.size() && common < qualifiedName.getSegmentCount() - 1
+        && packageSegments.get(common).equals(qualifiedName.getSegment(common))) {
+      common++;
+    }
+    return qualifiedName.skipFirst(common).toString();
+  }
+
+  /**
+   * Name of a type, as it can be written in the file.
+   */
+  static class TypeName {
+    final String qualifiedName;
+    final EClass type;
+    final URI uri;
+    final int proximity;
+
+    TypeName(String qualifiedName, EClass type, URI uri, int proximity) {
+      this.qualifiedName = qualifiedName;
+      this.type = type;
+      this.uri = uri;
+      this.proximity = proximity;
+    }
+  }
+
+  private static class Match {
+    static final Comparator<Match> BEST_FIRST = new Comparator<Match>() {
+      @Override public int compare(Match m1, Match m2) {
+        int result = m1.kind.compareTo(m2.kind);
+        if (result == 0) {
+          result = m1.name.proximity - m2.name.proximity;
+        }
+        if (result == 0) {
+          result = m1.name.qualifiedName.length() - m2.name.qualifiedName.length();
+        }
+        if (result == 0) {
+          result = m1.name.qualifiedName.compareTo(m2.name.qualifiedName);
+        }
+        return result;
+      }
+    };
+
+    final TypeName name;
+    final TypeNameMatch kind;
+
+    Match(TypeName name, TypeNameMatch kind) {
+      this.name = name;
+      this.kind = kind;
+    }
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.ui.contentassist;
+
+import static java.lang.Character.isLowerCase;
+import static java.lang.Character.isUpperCase;
+import static java.lang.Character.toLowerCase;
+
+/**
+ * How a type name matches the text typed by the user, from best to worst.
+ */
+enum TypeNameMatch {
+  /** The name starts with the typed text, ignoring case. */
+  PREFIX,
+  /**
+   * Each upper-case letter of the typed text starts a word of the name, in order (e.g. "PhN"
+   * matches "PhoneNumber".)
+   */
+  CAMEL_CASE,
+  /** The letters of the typed text appear in the name, in order, ignoring case. */
+  SUBSEQUENCE;
+
+  /**
+   * Returns how the given name matches the given typed text.
+   * @param pattern the typed text.
+   * @param name the name to match.
+   * @return how the given name matches the given typed text, or {@code null} if it does not match.
+   */
+  static TypeNameMatch of(String pattern, String name) {
+    if (name.regionMatches(true, 0, pattern, 0, pattern.length())) {
+      return PREFIX;
+    }
+    if (isCamelCaseMatch(pattern, name)) {
+      return CAMEL_CASE;
+    }
+    if (isSubsequence(pattern, name)) {
+      return SUBSEQUENCE;
+    }
+    return null;
+  }
+
+  /**
+   * Returns how the given type name matches the given typed text. Typed text containing a '.' is
+   * matched against the whole name, any other typed text against the last segment of the name.
+   * @param pattern the typed text.
+   * @param qualifiedName the name of the type, as it can be written in the file.
+   * @return how the given type name matches the given typed text, or {@code null} if it does not
+   * match.
+   */
+  static TypeNameMatch ofTypeName(String pattern, String qualifiedName) {
+    if (pattern.indexOf('.') >= 0) {
+      return of(pattern, qualifiedName);
+    }
+    return of(pattern, qualifiedName.substring(qualifiedName.lastIndexOf('.') + 1));
+  }
+
+  private static boolean isCamelCaseMatch(String pattern, String name) {
+    if (pattern.isEmpty() || !isUpperCase(pattern.charAt(0))) {
+      return false;
+    }
+    int n = 0;
+    for (int p = 0; p < pattern.length(); p++) {
+      char c = pattern.charAt(p);
+      if (isUpperCase(c)) {
+        // skip to the next word of the name starting with this letter.
+        n = nextWordStart(name, n, c);
+        if (n < 0) {
+          return false;
+        }
+      } else if (n >= name.length() || name.charAt(n) != c) {
+        return false;
+      }
+      n++;
+    }
+    return true;
+  }
+
+  private static int nextWordStart(String name, int from, char c) {
+    for (int i = from; i < name.length(); i++) {
+      if (name.charAt(i) == c && isWordStart(name, i)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static boolean isWordStart(String name, int i) {
+    if (i == 0) {
+      return true;
+    }
+    char previous = name.charAt(i - 1);
+    return previous == '_' || previous == '.' || (isUpperCase(name.charAt(i)) && isLowerCase(previous));
+  }
+
+  private static boolean isSubsequence(String pattern, String name) {
+    int n = 0;
+    for (int p = 0; p < pattern.length(); p++) {
+      char c = toLowerCase(pattern.charAt(p));
+      while (n < name.length() && toLowerCase(name.charAt(n)) != c) {
+        n++;
+      }
+      if (n == name.length()) {
+        return false;
+      }
+      n++;
+    }
+    return true;
+  }
+}
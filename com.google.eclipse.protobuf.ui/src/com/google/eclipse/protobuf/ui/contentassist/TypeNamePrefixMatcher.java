@@ -0,0 +1,21 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.ui.contentassist;
+
+import org.eclipse.xtext.ui.editor.contentassist.PrefixMatcher;
+
+/**
+ * Keeps type name proposals that match the typed text by prefix, camel case or subsequence, so they
+ * are not discarded while the user keeps typing.
+ */
+class TypeNamePrefixMatcher extends PrefixMatcher {
+  @Override public boolean isCandidateMatchingPrefix(String name, String prefix) {
+    return TypeNameMatch.ofTypeName(prefix, name) != null;
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.ui.documentation;
+
+import static java.util.Collections.emptyList;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.xtext.nodemodel.ICompositeNode;
+import org.eclipse.xtext.nodemodel.ILeafNode;
+import org.eclipse.xtext.parser.IParseResult;
+import org.eclipse.xtext.resource.XtextResource;
+import org.eclipse.xtext.util.IResourceScopeCache;
+
+import com.google.eclipse.protobuf.model.util.INodes;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+
+/**
+ * Comments attached to the elements of a file. The comments right before an element are its
+ * leading comments; the comments after the last token of an element, on the same line, are its
+ * trailing comments.
+ * <p>
+ * The comments of all the elements in a file are found in a single pass over the leaf nodes of the
+ * file, and cached until the file changes.
+ * </p>
+ */
+@Singleton class CommentAttachments {
+  private static final String CACHE_KEY = CommentAttachments.class.getName();
+
+  @Inject private INodes nodes;
+  @Inject private IResourceScopeCache cache;
+
+  /**
+   * Returns the comments attached to the given element.
+   * @param o the given element.
+   * @return the comments attached to the given element.
+   */
+  AttachedComments commentsOf(EObject o) {
+    final Resource resource = (o != null) ? o.eResource() : null;
+    if (!(resource instanceof XtextResource)) {
+      return AttachedComments.NONE;
+    }
+    Map<EObject, AttachedComments> comments = cache.get(CACHE_KEY, resource,
+        new Provider<Map<EObject, AttachedComments>>() {
+          @Override public Map<EObject, AttachedComments> get() {
+            return attachComments((XtextResource) resource);
+          }
+        });
+    AttachedComments attached = comments.get(o);
+    return (attached != null) ? attached : AttachedComments.NONE;
+  }
+
+  private Map<EObject, AttachedComments> attachComments(XtextResource resource) {
+    Map<EObject, AttachedComments> comments = newHashMap();
+    IParseResult parseResult = resource.getParseResult();
+    if (parseResult == null || parseResult.getRootNode() == null) {
+      return comments;
+    }
+    List<ILeafNode> pending = newArrayList();
+    ILeafNode lastToken = null;
+    boolean onLineOfLastToken = false;
+    for (ILeafNode leaf : parseResult.getRootNode().getLeafNodes()) {
+      if (!leaf.isHidden()) {
+        if (!pending.isEmpty()) {
+          attachLeading(pending, leaf, comments);
+          pending = newArrayList();
+        }
+        lastToken = leaf;
+        onLineOfLastToken = true;
+        continue;
+      }
+      if (!nodes.isComment(leaf)) {
+        onLineOfLastToken &= leaf.getText().indexOf('\n') < 0;
+        continue;
+      }
+      if (onLineOfLastToken && lastToken != null) {
+        attachTrailing(leaf, lastToken, comments);
+      } else {
+        pending.add(leaf);
+      }
+      // single-line comments include the line break that ends them.
+      onLineOfLastToken &= leaf.getText().indexOf('\n') < 0;
+    }
+    return comments;
+  }
+
+  // Attaches the given comments to every element starting at the given token.
+  private static void attachLeading(List<ILeafNode> comments, ILeafNode token,
+      Map<EObject, AttachedComments> attachments) {
+    int offset = token.getOffset();
+    for (ICompositeNode node = token.getParent(); node != null && node.getOffset() == offset;
+        node = node.getParent()) {
+      if (node.hasDirectSemanticElement()) {
+        attachmentsOf(node.getSemanticElement(), attachments).leading = comments;
+      }
+    }
+  }
+
+  // Attaches the given comment to every element ending at the given token.
+  private static void attachTrailing(ILeafNode comment, ILeafNode token,
+      Map<EObject, AttachedComments> attachments) {
+    int endOffset = token.getOffset() + token.getLength();
+    for (ICompositeNode node = token.getParent();
+        node != null && node.getOffset() + node.getLength() == endOffset; node = node.getParent()) {
+      if (node.hasDirectSemanticElement()) {
+        AttachedComments attached = attachmentsOf(node.getSemanticElement(), attachments);
+        if (attached.trailing.isEmpty()) {
+          attached.trailing = newArrayList();
+        }
+        attached.trailing.add(comment);
+      }
+    }
+  }
+
+  private static AttachedComments attachmentsOf(EObject o, Map<EObject, AttachedComments> attachments) {
+    AttachedComments attached = attachments.get(o);
+    if (attached == null) {
+      attached = new AttachedComments();
+      attachments.put(o, attached);
+    }
+    return attached;
+  }
+
+  /**
+   * Leading and trailing comments of an element, in the order they appear in the file.
+   */
+  static class AttachedComments {
+    static final AttachedComments NONE = new AttachedComments();
+
+    List<ILeafNode> leading = emptyList();
+    List<ILeafNode> trailing = emptyList();
+  }
+}
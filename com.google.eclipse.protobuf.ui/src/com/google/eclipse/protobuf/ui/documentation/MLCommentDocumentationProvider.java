@@ -10,19 +10,17 @@ package com.google.eclipse.protobuf.ui.documentation;
 
 import static java.util.regex.Pattern.compile;
 
-import static org.eclipse.xtext.nodemodel.util.NodeModelUtils.getNode;
-
 import static com.google.eclipse.protobuf.ui.documentation.Patterns.compileAll;
 
+import java.util.List;
 import java.util.regex.Pattern;
 
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.xtext.documentation.IEObjectDocumentationProvider;
-import org.eclipse.xtext.nodemodel.ICompositeNode;
 import org.eclipse.xtext.nodemodel.ILeafNode;
-import org.eclipse.xtext.nodemodel.INode;
 
 import com.google.eclipse.protobuf.model.util.INodes;
+import com.google.eclipse.protobuf.ui.documentation.CommentAttachments.AttachedComments;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
@@ -37,6 +35,7 @@ import com.google.inject.Singleton;
   private static final Patterns CLEAN_UP = compileAll("\\A/\\*\\*?", "\\*/\\z", "(?m)^( |\\t)*\\** ?",
       "(?m)( |\\t)*\\**( |\\t)*$");
 
+  @Inject private CommentAttachments commentAttachments;
   @Inject private INodes nodes;
 
   @Override public String getDocumentation(EObject o) {
@@ -45,25 +44,20 @@ import com.google.inject.Singleton;
   }
 
   private String findComment(EObject o) {
-    String returnValue = null;
-    ICompositeNode node = getNode(o);
-    if (node == null) {
-      return null;
-    }
-    // get the last multiple-line comment before a non hidden leaf node
-    for (INode currentNode : node.getAsTreeIterable()) {
-      if (!nodes.isHiddenLeafNode(currentNode)) {
-        continue;
-      }
-      if (!nodes.isMultipleLineComment(currentNode)) {
-        continue;
-      }
-      String text = ((ILeafNode) currentNode).getText();
-      if (COMMENT.matcher(text).matches()) {
-        returnValue = cleanUp(text);
+    AttachedComments comments = commentAttachments.commentsOf(o);
+    String comment = lastComment(comments.leading);
+    return (comment != null) ? comment : lastComment(comments.trailing);
+  }
+
+  // get the last multiple-line comment
+  private String lastComment(List<ILeafNode> comments) {
+    for (int i = comments.size() - 1; i >= 0; i--) {
+      ILeafNode comment = comments.get(i);
+      if (nodes.isMultipleLineComment(comment) && COMMENT.matcher(comment.getText()).matches()) {
+        return cleanUp(comment.getText());
       }
     }
-    return returnValue;
+    return null;
   }
 
   private String cleanUp(String comment) {
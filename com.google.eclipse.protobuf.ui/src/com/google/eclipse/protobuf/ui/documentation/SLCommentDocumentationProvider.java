@@ -10,23 +10,21 @@ package com.google.eclipse.protobuf.ui.documentation;
 
 import static java.util.regex.Pattern.compile;
 
-import static org.eclipse.xtext.nodemodel.util.NodeModelUtils.getNode;
-
 import static com.google.eclipse.protobuf.ui.documentation.Patterns.compileAll;
 import static com.google.eclipse.protobuf.util.CommonWords.space;
 
+import java.util.List;
 import java.util.regex.Pattern;
 
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.xtext.documentation.IEObjectDocumentationProvider;
-import org.eclipse.xtext.nodemodel.ICompositeNode;
 import org.eclipse.xtext.nodemodel.ILeafNode;
-import org.eclipse.xtext.nodemodel.INode;
 
 import com.google.eclipse.protobuf.model.util.INodes;
 import com.google.eclipse.protobuf.model.util.Options;
 import com.google.eclipse.protobuf.protobuf.AbstractOption;
 import com.google.eclipse.protobuf.protobuf.IndexedElement;
+import com.google.eclipse.protobuf.ui.documentation.CommentAttachments.AttachedComments;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
@@ -40,6 +38,7 @@ import com.google.inject.Singleton;
   private static final Pattern COMMENT_START = compile("//\\s*"); // "//" plus whitespace
   private static final Patterns NEW_LINE = compileAll("\\r\\n", "\\n");
 
+  @Inject private CommentAttachments commentAttachments;
   @Inject private INodes nodes;
   @Inject private Options options;
 
@@ -49,21 +48,17 @@ import com.google.inject.Singleton;
   }
 
   private String findComment(EObject o) {
-    EObject target = findRealTarget(o);
-    ICompositeNode node = getNode(target);
-    if (node == null) {
-      return null;
-    }
+    AttachedComments comments = commentAttachments.commentsOf(findRealTarget(o));
+    String comment = concatenate(comments.leading);
+    return comment.isEmpty() ? concatenate(comments.trailing) : comment;
+  }
+
+  private String concatenate(List<ILeafNode> comments) {
     StringBuilder commentBuilder = new StringBuilder();
-    for (INode currentNode : node.getAsTreeIterable()) {
-      if (!nodes.isHiddenLeafNode(currentNode)) {
-        continue;
-      }
-      if (!nodes.isSingleLineComment(currentNode)) {
-        continue;
+    for (ILeafNode comment : comments) {
+      if (nodes.isSingleLineComment(comment)) {
+        commentBuilder.append(cleanUp(comment.getText()));
       }
-      String comment = ((ILeafNode) currentNode).getText();
-      commentBuilder.append(cleanUp(comment));
     }
     return commentBuilder.toString().trim();
   }
@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.ui.editor;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Sets.newHashSet;
+import static com.google.eclipse.protobuf.ui.editor.Messages.prefetchingImports;
+import static com.google.eclipse.protobuf.util.SystemProperties.linkingThreadCount;
+import static java.util.Collections.emptyList;
+import static org.eclipse.core.runtime.Status.CANCEL_STATUS;
+import static org.eclipse.core.runtime.Status.OK_STATUS;
+import static org.eclipse.xtext.util.Tuples.pair;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.log4j.Logger;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.xtext.resource.XtextResource;
+import org.eclipse.xtext.ui.editor.model.IXtextDocument;
+import org.eclipse.xtext.util.Pair;
+import org.eclipse.xtext.util.concurrent.IUnitOfWork;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.eclipse.protobuf.model.util.Imports;
+import com.google.eclipse.protobuf.model.util.Protobufs;
+import com.google.eclipse.protobuf.protobuf.Import;
+import com.google.eclipse.protobuf.protobuf.Protobuf;
+import com.google.eclipse.protobuf.resource.ResourceSets;
+import com.google.inject.Inject;
+
+/**
+ * Loads, in the background, the files imported directly or transitively by the file open in an
+ * editor, so they are already in the resource set of the editor when the first reconcile, hover or
+ * content assist needs them. The files imported by the same level of the import closure are parsed
+ * concurrently, outside of the resource set of the editor, and then added to it while holding the
+ * lock of the document.
+ */
+public class ImportClosurePrefetchJob extends Job {
+  private static Logger logger = Logger.getLogger(ImportClosurePrefetchJob.class);
+
+  @Inject private Imports imports;
+  @Inject private Protobufs protobufs;
+  @Inject private ResourceSets resourceSets;
+
+  private IXtextDocument document;
+  private ResourceSet resourceSet;
+  private URI fileUri;
+
+  public ImportClosurePrefetchJob() {
+    super(prefetchingImports);
+    setSystem(true);
+    setPriority(SHORT);
+  }
+
+  /**
+   * Schedules this job to load the import closure of the file in the given document.
+   * @param document the document of the editor.
+   */
+  public void prefetchImportsOf(IXtextDocument document) {
+    this.document = document;
+    schedule();
+  }
+
+  @Override protected IStatus run(final IProgressMonitor monitor) {
+    List<URI> level = document.readOnly(new IUnitOfWork<List<URI>, XtextResource>() {
+      @Override public List<URI> exec(XtextResource resource) {
+        if (resource == null) {
+          return emptyList();
+        }
+        resourceSet = resource.getResourceSet();
+        fileUri = resource.getURI();
+        return importedUrisIn(resource);
+      }
+    });
+    if (resourceSet == null) {
+      return OK_STATUS;
+    }
+    Set<URI> visited = newHashSet(level);
+    visited.add(fileUri);
+    while (!level.isEmpty()) {
+      if (monitor.isCanceled()) {
+        return CANCEL_STATUS;
+      }
+      List<URI> toLoad = newArrayList();
+      List<URI> imported = newArrayList();
+      if (!findLoaded(level, toLoad, imported)) {
+        return OK_STATUS;
+      }
+      List<Pair<Resource, List<URI>>> loaded;
+      try {
+        loaded = loadDetached(toLoad, monitor);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return CANCEL_STATUS;
+      }
+      if (!attach(loaded)) {
+        return OK_STATUS;
+      }
+      for (Pair<Resource, List<URI>> resourceAndImports : loaded) {
+        imported.addAll(resourceAndImports.getSecond());
+      }
+      List<URI> next = newArrayList();
+      for (URI uri : imported) {
+        if (visited.add(uri)) {
+          next.add(uri);
+        }
+      }
+      level = next;
+    }
+    return monitor.isCanceled() ? CANCEL_STATUS : OK_STATUS;
+  }
+
+  /*
+   * Splits the given URIs into the ones of the files to load and the ones of the files already in the
+   * resource set, whose imports are added to 'imported'. The resource set is only read while holding
+   * the lock of the document. Returns false if the document no longer uses the same resource set.
+   */
+  private boolean findLoaded(final List<URI> uris, final List<URI> toLoad, final List<URI> imported) {
+    return document.priorityReadOnly(new IUnitOfWork<Boolean, XtextResource>() {
+      @Override public Boolean exec(XtextResource resource) {
+        if (resource == null || resource.getResourceSet() != resourceSet) {
+          return false;
+        }
+        for (URI uri : uris) {
+          Resource loaded = resourceSet.getResource(uri, false);
+          if (loaded == null) {
+            toLoad.add(uri);
+          } else {
+            imported.addAll(importedUrisIn(loaded));
+          }
+        }
+        return true;
+      }
+    });
+  }
+
+  /*
+   * Loads the given files concurrently, without adding them to the resource set. The imports of each
+   * file are read before it is shared with the editor.
+   */
+  private List<Pair<Resource, List<URI>>> loadDetached(List<URI> uris, final IProgressMonitor monitor)
+      throws InterruptedException {
+    List<Future<Pair<Resource, List<URI>>>> tasks = newArrayList();
+    for (final URI uri : uris) {
+      tasks.add(PrefetchExecutor.INSTANCE.submit(new Callable<Pair<Resource, List<URI>>>() {
+        @Override public Pair<Resource, List<URI>> call() {
+          if (monitor.isCanceled()) {
+            return null;
+          }
+          Resource resource = resourceSets.loadDetached(resourceSet, uri);
+          return (resource == null) ? null : pair(resource, importedUrisIn(resource));
+        }
+      }));
+    }
+    List<Pair<Resource, List<URI>>> loaded = newArrayList();
+    for (Future<Pair<Resource, List<URI>>> task : tasks) {
+      try {
+        Pair<Resource, List<URI>> resourceAndImports = task.get();
+        if (resourceAndImports != null) {
+          loaded.add(resourceAndImports);
+        }
+      } catch (ExecutionException e) {
+        logger.error("Unable to load an imported file", e.getCause());
+      }
+    }
+    return loaded;
+  }
+
+  /*
+   * Adds the loaded files to the resource set, while holding the lock of the document: the editor
+   * reads and modifies the resource set only while holding it. Returns false if the document no
+   * longer uses the same resource set.
+   */
+  private boolean attach(final List<Pair<Resource, List<URI>>> loaded) {
+    if (loaded.isEmpty()) {
+      return true;
+    }
+    return document.priorityReadOnly(new IUnitOfWork<Boolean, XtextResource>() {
+      @Override public Boolean exec(XtextResource resource) {
+        if (resource == null || resource.getResourceSet() != resourceSet) {
+          return false;
+        }
+        for (Pair<Resource, List<URI>> resourceAndImports : loaded) {
+          resourceSets.attach(resourceSet, resourceAndImports.getFirst());
+        }
+        return true;
+      }
+    });
+  }
+
+  private List<URI> importedUrisIn(Resource resource) {
+    if (resource == null || !resource.isLoaded()) {
+      return emptyList();
+    }
+    // the root is not taken from the parse result, which would rebuild the node model of a compact
+    // resource.
+    EList<EObject> contents = resource.getContents();
+    if (contents.isEmpty() || !(contents.get(0) instanceof Protobuf)) {
+      return emptyList();
+    }
+    List<URI> importedUris = newArrayList();
+    for (Import anImport : protobufs.importsIn((Protobuf) contents.get(0))) {
+      URI importedUri = imports.resolvedUriOf(anImport);
+      if (importedUri != null) {
+        importedUris.add(importedUri);
+      }
+    }
+    return importedUris;
+  }
+
+  private static class PrefetchExecutor {
+    static final ExecutorService INSTANCE = Executors.newFixedThreadPool(linkingThreadCount(),
+        new ThreadFactoryBuilder().setNameFormat("protobuf-import-prefetch-%d").setDaemon(true).build());
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.ui.editor;
+
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.xtext.resource.XtextResource;
+import org.eclipse.xtext.ui.editor.IXtextEditorCallback.NullImpl;
+import org.eclipse.xtext.ui.editor.XtextEditor;
+import org.eclipse.xtext.ui.editor.model.IXtextDocument;
+import org.eclipse.xtext.ui.editor.model.IXtextModelListener;
+import org.eclipse.xtext.util.concurrent.IUnitOfWork;
+
+import com.google.inject.Inject;
+
+/**
+ * Shows in the title of a 'Protocol Buffer' editor whether the file being edited is handled in
+ * large-file mode. The indicator is updated every time the document is reconciled.
+ */
+public class LargeFileIndicator extends NullImpl {
+  @Inject private LargeFileMode largeFileMode;
+
+  private IXtextDocument document;
+  private IXtextModelListener listener;
+
+  @Override public void afterCreatePartControl(final XtextEditor editor) {
+    if (!(editor instanceof ProtobufEditor)) {
+      return;
+    }
+    document = editor.getDocument();
+    if (document == null) {
+      return;
+    }
+    listener = new IXtextModelListener() {
+      @Override public void modelChanged(XtextResource resource) {
+        update((ProtobufEditor) editor, largeFileMode.isLargeFile(resource));
+      }
+    };
+    document.addModelListener(listener);
+    boolean largeFile = document.readOnly(new IUnitOfWork<Boolean, XtextResource>() {
+      @Override public Boolean exec(XtextResource resource) {
+        return largeFileMode.isLargeFile(resource);
+      }
+    });
+    update((ProtobufEditor) editor, largeFile);
+  }
+
+  private void update(final ProtobufEditor editor, final boolean largeFile) {
+    if (editor.isInLargeFileMode() == largeFile) {
+      return;
+    }
+    Display display = Display.getDefault();
+    display.asyncExec(new Runnable() {
+      @Override public void run() {
+        if (editor.getEditorSite() != null) {
+          editor.setInLargeFileMode(largeFile);
+        }
+      }
+    });
+  }
+
+  @Override public void beforeDispose(XtextEditor editor) {
+    if (document != null && listener != null) {
+      document.removeModelListener(listener);
+    }
+    document = null;
+    listener = null;
+  }
+}
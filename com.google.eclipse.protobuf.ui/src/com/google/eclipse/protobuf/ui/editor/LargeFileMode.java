@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.ui.editor;
+
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.xtext.nodemodel.ICompositeNode;
+import org.eclipse.xtext.parser.IParseResult;
+import org.eclipse.xtext.resource.XtextResource;
+import org.eclipse.xtext.ui.editor.preferences.IPreferenceStoreAccess;
+import org.eclipse.xtext.util.IResourceScopeCache;
+
+import com.google.eclipse.protobuf.ui.preferences.editor.largefile.LargeFilePreferences;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+
+/**
+ * Decides whether a file is large enough for the editor to limit the work done by its expensive
+ * features (semantic highlighting, outline and validation,) and how much work they may do.
+ */
+@Singleton public class LargeFileMode {
+  private static final String ELEMENT_COUNT_KEY = LargeFileMode.class.getName() + ".elementCount";
+
+  @Inject private IPreferenceStoreAccess storeAccess;
+  @Inject private IResourceScopeCache cache;
+
+  /**
+   * Indicates whether the given resource is a large file, according to the "Large Files"
+   * preferences.
+   * @param resource the given resource.
+   * @return {@code true} if large-file mode is enabled and the given resource has more lines or
+   * model elements than the configured thresholds; {@code false} otherwise.
+   */
+  public boolean isLargeFile(Resource resource) {
+    if (!(resource instanceof XtextResource)) {
+      return false;
+    }
+    LargeFilePreferences preferences = new LargeFilePreferences(storeAccess);
+    if (!preferences.isLargeFileModeEnabled()) {
+      return false;
+    }
+    return lineCountOf((XtextResource) resource) > preferences.lineThreshold()
+        || elementCountOf(resource) > preferences.elementThreshold();
+  }
+
+  private static int lineCountOf(XtextResource resource) {
+    IParseResult parseResult = resource.getParseResult();
+    ICompositeNode rootNode = (parseResult != null) ? parseResult.getRootNode() : null;
+    return (rootNode != null) ? rootNode.getTotalEndLine() : 0;
+  }
+
+  private int elementCountOf(final Resource resource) {
+    return cache.get(ELEMENT_COUNT_KEY, resource, new Provider<Integer>() {
+      @Override public Integer get() {
+        int count = 0;
+        TreeIterator<EObject> contents = resource.getAllContents();
+        while (contents.hasNext()) {
+          contents.next();
+          count++;
+        }
+        return count;
+      }
+    });
+  }
+
+  /**
+   * Returns the time, in milliseconds since the epoch, at which semantic highlighting of the given
+   * resource should stop if it started now.
+   * @param resource the resource to highlight.
+   * @return the time at which highlighting should stop, or {@code Long.MAX_VALUE} if the given
+   * resource is not a large file.
+   */
+  public long highlightingDeadline(Resource resource) {
+    if (!isLargeFile(resource)) {
+      return Long.MAX_VALUE;
+    }
+    return System.currentTimeMillis() + new LargeFilePreferences(storeAccess).highlightingBudget();
+  }
+
+  /**
+   * Returns the maximum number of children to show per element in the outline of the given
+   * resource.
+   * @param resource the resource shown in the outline.
+   * @return the maximum number of children to show per element, or {@code Integer.MAX_VALUE} if
+   * the given resource is not a large file.
+   */
+  public int outlineBudget(Resource resource) {
+    if (!isLargeFile(resource)) {
+      return Integer.MAX_VALUE;
+    }
+    return new LargeFilePreferences(storeAccess).outlineBudget();
+  }
+}
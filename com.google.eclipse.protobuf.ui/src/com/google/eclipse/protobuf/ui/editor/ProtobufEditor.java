@@ -8,10 +8,43 @@
  */
 package com.google.eclipse.protobuf.ui.editor;
 
+import static org.eclipse.osgi.util.NLS.bind;
+
+import static com.google.eclipse.protobuf.ui.editor.Messages.largeFileMode;
+import static com.google.eclipse.protobuf.ui.editor.Messages.largeFileModeToolTip;
+
+import org.eclipse.ui.IEditorInput;
 import org.eclipse.xtext.ui.editor.XtextEditor;
 
 /**
  * @author alruiz@google.com (Alex Ruiz)
  */
 public class ProtobufEditor extends XtextEditor {
+  private volatile boolean inLargeFileMode;
+
+  /**
+   * Indicates whether this editor shows that its file is handled in large-file mode.
+   * @return {@code true} if this editor shows that its file is handled in large-file mode; {@code false} otherwise.
+   */
+  public boolean isInLargeFileMode() {
+    return inLargeFileMode;
+  }
+
+  /**
+   * Shows or hides, in the title of this editor, that its file is handled in large-file mode. Must be called in the UI
+   * thread.
+   * @param largeFile indicates whether the file in this editor is handled in large-file mode.
+   * @see LargeFileMode
+   */
+  public void setInLargeFileMode(boolean largeFile) {
+    inLargeFileMode = largeFile;
+    IEditorInput input = getEditorInput();
+    if (input == null) {
+      return;
+    }
+    String name = input.getName();
+    setPartName(largeFile ? bind(largeFileMode, name) : name);
+    String toolTip = input.getToolTipText();
+    setTitleToolTip(largeFile ? bind(largeFileModeToolTip, toolTip) : toolTip);
+  }
 }
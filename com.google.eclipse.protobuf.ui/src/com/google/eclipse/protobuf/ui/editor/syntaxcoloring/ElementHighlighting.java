@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.ui.editor.syntaxcoloring;
+
+import static java.util.Arrays.copyOf;
+
+import java.util.List;
+
+import org.eclipse.xtext.ide.editor.syntaxcoloring.IHighlightedPositionAcceptor;
+
+/**
+ * Highlighted positions of a top-level element, relative to the offset of the element. The
+ * positions of an element that was not edited are still valid after the text before it changes.
+ */
+class ElementHighlighting implements IHighlightedPositionAcceptor {
+  private final int elementOffset;
+
+  private int[] offsets = new int[16];
+  private int[] lengths = new int[16];
+  private String[][] ids = new String[16][];
+  private int size;
+
+  // Type and name of the elements declared in the top-level element, or null if changing the
+  // top-level element may change how the rest of the file is highlighted (e.g. imports.)
+  List<String> declaredNames;
+
+  // Whether the highlighting depends on a cross-reference not resolved to an element in the same
+  // file. The target may change when another file changes, without the element being edited.
+  boolean linksToOtherFiles;
+
+  ElementHighlighting(int elementOffset) {
+    this.elementOffset = elementOffset;
+  }
+
+  @Override public void addPosition(int offset, int length, String... id) {
+    if (size == offsets.length) {
+      offsets = copyOf(offsets, size * 2);
+      lengths = copyOf(lengths, size * 2);
+      ids = copyOf(ids, size * 2);
+    }
+    offsets[size] = offset - elementOffset;
+    lengths[size] = length;
+    ids[size] = id;
+    size++;
+  }
+
+  /**
+   * Passes the positions of the element to the given acceptor.
+   * @param offset the current offset of the element.
+   * @param acceptor receives the positions.
+   */
+  void replay(int offset, IHighlightedPositionAcceptor acceptor) {
+    for (int i = 0; i < size; i++) {
+      acceptor.addPosition(offset + offsets[i], lengths[i], ids[i]);
+    }
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.ui.editor.syntaxcoloring;
+
+import static com.google.common.collect.Maps.newHashMap;
+
+import java.util.Map;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.xtext.nodemodel.INode;
+
+import com.google.eclipse.protobuf.resource.DamagedRegion;
+
+/**
+ * Text changed in a resource since it was last highlighted, and the highlighted positions of each
+ * of its top-level elements.
+ * <p>
+ * The partial parser keeps the model objects outside the reparsed region, so the positions of a
+ * top-level element that does not overlap the changed text can be reused as they are.
+ * </p>
+ */
+class HighlightingState {
+  private final DamagedRegion damage;
+  private Map<EObject, ElementHighlighting> highlightingByElement = newHashMap();
+
+  HighlightingState(DamagedRegion damage) {
+    this.damage = damage;
+  }
+
+  /**
+   * Returns the positions of the top-level elements highlighted last time, or an empty map if the
+   * whole text changed since then.
+   */
+  Map<EObject, ElementHighlighting> takeHighlighting() {
+    Map<EObject, ElementHighlighting> highlighting = highlightingByElement;
+    highlightingByElement = newHashMap();
+    if (damage.isEverythingDamaged()) {
+      highlighting.clear();
+    }
+    return highlighting;
+  }
+
+  boolean isDamaged(INode node) {
+    return damage.isDamaged(node);
+  }
+
+  void update(Map<EObject, ElementHighlighting> highlighting) {
+    highlightingByElement = highlighting;
+    damage.clear();
+  }
+
+  void invalidate() {
+    highlightingByElement = newHashMap();
+    damage.damageAll();
+  }
+}
@@ -9,16 +9,18 @@
  */
 package com.google.eclipse.protobuf.ui.editor.syntaxcoloring;
 
+import static java.util.Collections.sort;
+
+import static org.eclipse.xtext.GrammarUtil.containingAssignment;
+import static org.eclipse.xtext.nodemodel.util.NodeModelUtils.getNode;
 import static org.eclipse.xtext.ui.editor.syntaxcoloring.DefaultHighlightingConfiguration.DEFAULT_ID;
 import static org.eclipse.xtext.ui.editor.syntaxcoloring.DefaultHighlightingConfiguration.NUMBER_ID;
 
-import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.ABSTRACT_OPTION__VALUE;
-import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.LITERAL__INDEX;
-import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.MESSAGE_FIELD__TYPE;
-import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.OPTION__SOURCE;
-import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.RPC__ARG_TYPE;
-import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.RPC__RETURN_TYPE;
-import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.TYPE_EXTENSION__TYPE;
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newLinkedHashMap;
+import static com.google.common.collect.Sets.newHashSet;
+import static com.google.eclipse.protobuf.model.util.ModelFeatures.modelFeatures;
+import static com.google.eclipse.protobuf.model.util.ModelFeatures.Feature.NAME;
 import static com.google.eclipse.protobuf.ui.editor.syntaxcoloring.HighlightingConfiguration.ENUM_DEFINITION_ID;
 import static com.google.eclipse.protobuf.ui.editor.syntaxcoloring.HighlightingConfiguration.ENUM_ID;
 import static com.google.eclipse.protobuf.ui.editor.syntaxcoloring.HighlightingConfiguration.ENUM_LITERAL_DEFINITION;
@@ -32,30 +34,38 @@ import static com.google.eclipse.protobuf.ui.editor.syntaxcoloring.HighlightingC
 import static com.google.eclipse.protobuf.ui.editor.syntaxcoloring.HighlightingConfiguration.RPC_RETURN_TYPE_ID;
 import static com.google.eclipse.protobuf.ui.editor.syntaxcoloring.HighlightingConfiguration.SERVICE_DEFINITION_ID;
 
-import org.eclipse.emf.common.util.EList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.emf.common.util.TreeIterator;
 import org.eclipse.emf.ecore.EObject;
-import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.xtext.Assignment;
 import org.eclipse.xtext.ide.editor.syntaxcoloring.IHighlightedPositionAcceptor;
 import org.eclipse.xtext.ide.editor.syntaxcoloring.ISemanticHighlightingCalculator;
+import org.eclipse.xtext.nodemodel.ICompositeNode;
 import org.eclipse.xtext.nodemodel.INode;
+import org.eclipse.xtext.parser.IParseResult;
 import org.eclipse.xtext.resource.XtextResource;
 import org.eclipse.xtext.util.CancelIndicator;
 
-import com.google.eclipse.protobuf.model.util.INodes;
-import com.google.eclipse.protobuf.model.util.IndexedElements;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.eclipse.protobuf.linking.ProtobufResource;
 import com.google.eclipse.protobuf.model.util.Options;
 import com.google.eclipse.protobuf.protobuf.ComplexType;
 import com.google.eclipse.protobuf.protobuf.ComplexTypeLink;
 import com.google.eclipse.protobuf.protobuf.Enum;
-import com.google.eclipse.protobuf.protobuf.EnumElement;
 import com.google.eclipse.protobuf.protobuf.FieldOption;
 import com.google.eclipse.protobuf.protobuf.Group;
-import com.google.eclipse.protobuf.protobuf.GroupElement;
+import com.google.eclipse.protobuf.protobuf.Import;
 import com.google.eclipse.protobuf.protobuf.IndexedElement;
 import com.google.eclipse.protobuf.protobuf.Literal;
 import com.google.eclipse.protobuf.protobuf.LiteralLink;
 import com.google.eclipse.protobuf.protobuf.Message;
-import com.google.eclipse.protobuf.protobuf.MessageElement;
 import com.google.eclipse.protobuf.protobuf.MessageField;
 import com.google.eclipse.protobuf.protobuf.NumberLink;
 import com.google.eclipse.protobuf.protobuf.Option;
@@ -64,20 +74,40 @@ import com.google.eclipse.protobuf.protobuf.Protobuf;
 import com.google.eclipse.protobuf.protobuf.ProtobufElement;
 import com.google.eclipse.protobuf.protobuf.Rpc;
 import com.google.eclipse.protobuf.protobuf.Service;
-import com.google.eclipse.protobuf.protobuf.ServiceElement;
 import com.google.eclipse.protobuf.protobuf.TypeExtension;
 import com.google.eclipse.protobuf.protobuf.TypeLink;
 import com.google.eclipse.protobuf.protobuf.Value;
+import com.google.eclipse.protobuf.resource.DamagedRegion;
+import com.google.eclipse.protobuf.ui.editor.LargeFileMode;
 import com.google.inject.Inject;
+import com.google.inject.Singleton;
 
 /**
+ * Highlights names, indices, types and option values in a single pass over the node model.
+ * <p>
+ * Each node assigned to a feature of a model element (e.g. the "name" of a message) is mapped to a highlighting ID,
+ * based on the feature and the type of the element. Positions are reported in document order, and the nodes inside a
+ * highlighted node are not visited.
+ * </p>
+ * <p>
+ * The positions of each top-level element are kept, and reused as long as the element is not edited, unless they
+ * depend on cross-references to other files.
+ * </p>
+ *
  * @author alruiz@google.com (Alex Ruiz)
  */
+@Singleton
 public class ProtobufSemanticHighlightingCalculator implements ISemanticHighlightingCalculator {
-  @Inject private IndexedElements indexedElements;
-  @Inject private INodes nodes;
+  private static final String NO_FEATURE = "";
+  private static final int NODES_BETWEEN_CHECKS = 1024;
+
+  @Inject private LargeFileMode largeFileMode;
   @Inject private Options options;
 
+  // Name of the feature each grammar element is assigned to.
+  private final ConcurrentMap<EObject, String> assignedFeatures = new ConcurrentHashMap<>();
+  private final Cache<Resource, HighlightingState> states = CacheBuilder.newBuilder().weakKeys().build();
+
   @Override
   public void provideHighlightingFor(
       XtextResource resource,
@@ -86,211 +116,347 @@ public class ProtobufSemanticHighlightingCalculator implements ISemanticHighligh
     if (resource == null) {
       return;
     }
-    EList<EObject> contents = resource.getContents();
-    if (contents == null || contents.isEmpty()) {
+    IParseResult parseResult = resource.getParseResult();
+    if (parseResult == null || parseResult.getRootNode() == null
+        || !(parseResult.getRootASTElement() instanceof Protobuf)) {
       return;
     }
-    Protobuf protobuf = (Protobuf) contents.get(0);
-    highlight(protobuf, acceptor);
+    Protobuf protobuf = (Protobuf) parseResult.getRootASTElement();
+    Highlighter highlighter = new Highlighter(cancelIndicator, largeFileMode.highlightingDeadline(resource));
+    HighlightingState state = stateOf(resource);
+    synchronized (state) {
+      highlight(protobuf, state, highlighter, acceptor);
+    }
+  }
+
+  private synchronized HighlightingState stateOf(XtextResource resource) {
+    HighlightingState state = states.getIfPresent(resource);
+    if (state == null) {
+      DamagedRegion damage = (resource instanceof ProtobufResource)
+          ? ((ProtobufResource) resource).trackDamage() : new DamagedRegion();
+      state = new HighlightingState(damage);
+      states.put(resource, state);
+    }
+    if (!(resource instanceof ProtobufResource)) {
+      // changes to other resources are not tracked.
+      state.invalidate();
+    }
+    return state;
   }
 
-  private void highlight(Protobuf protobuf, IHighlightedPositionAcceptor acceptor) {
+  /*
+   * Only the top-level elements overlapping the text changed since the last call are highlighted again, unless the
+   * change added, removed or renamed types or fields (which may change how references elsewhere are resolved) or
+   * changed the package or the imports.
+   */
+  private void highlight(
+      Protobuf protobuf, HighlightingState state, Highlighter highlighter, IHighlightedPositionAcceptor acceptor) {
+    Map<EObject, ElementHighlighting> previous = state.takeHighlighting();
+    Map<EObject, ElementHighlighting> current = newLinkedHashMap();
+    Set<EObject> reused = newHashSet();
+    List<String> namesBefore = newArrayList();
+    List<String> namesAfter = newArrayList();
+    boolean affectsOthers = false;
     for (ProtobufElement element : protobuf.getElements()) {
-      if (element instanceof Package) {
-        highlightName(element, acceptor, DEFAULT_ID);
+      ICompositeNode node = getNode(element);
+      ElementHighlighting known = previous.remove(element);
+      if (known != null && !known.linksToOtherFiles && !state.isDamaged(node)) {
+        current.put(element, known);
+        reused.add(element);
         continue;
       }
-      if (element instanceof Option) {
-        highlight((Option) element, acceptor);
-        continue;
+      if (known != null) {
+        affectsOthers |= addDeclaredNames(known, namesBefore);
       }
-      if (element instanceof ComplexType) {
-        highlight((ComplexType) element, acceptor);
-        continue;
+      ElementHighlighting highlighting = highlighter.highlight(element, node);
+      if (highlighting == null) {
+        break;
       }
-      if (element instanceof TypeExtension) {
-        highlight((TypeExtension) element, acceptor);
-        continue;
+      affectsOthers |= addDeclaredNames(highlighting, namesAfter);
+      current.put(element, highlighting);
+    }
+    for (ElementHighlighting removed : previous.values()) {
+      affectsOthers |= addDeclaredNames(removed, namesBefore);
+    }
+    if (!reused.isEmpty() && !highlighter.stopped) {
+      sort(namesBefore);
+      sort(namesAfter);
+      if (affectsOthers || !namesBefore.equals(namesAfter)) {
+        for (Map.Entry<EObject, ElementHighlighting> entry : current.entrySet()) {
+          if (reused.contains(entry.getKey())) {
+            entry.setValue(highlighter.highlight(entry.getKey(), getNode(entry.getKey())));
+          }
+        }
       }
-      if (element instanceof Service) {
-        highlight((Service) element, acceptor);
+    }
+    for (Map.Entry<EObject, ElementHighlighting> entry : current.entrySet()) {
+      ICompositeNode node = getNode(entry.getKey());
+      if (node != null && entry.getValue() != null) {
+        entry.getValue().replay(node.getOffset(), acceptor);
       }
     }
+    if (highlighter.stopped) {
+      state.invalidate();
+      return;
+    }
+    state.update(current);
   }
 
-  private void highlight(TypeExtension extension, IHighlightedPositionAcceptor acceptor) {
-    highlightFirstFeature(extension, TYPE_EXTENSION__TYPE, acceptor, MESSAGE_ID);
-    for (IndexedElement element : extension.getElements()) {
-      highlight(element, acceptor);
+  private static boolean addDeclaredNames(ElementHighlighting highlighting, List<String> names) {
+    if (highlighting.declaredNames == null) {
+      return true;
     }
+    names.addAll(highlighting.declaredNames);
+    return false;
   }
 
-  private void highlight(ComplexType type, IHighlightedPositionAcceptor acceptor) {
-    if (type instanceof Message) {
-      highlight((Message) type, acceptor);
-      return;
+  // In large files, highlighting stops once the deadline has passed.
+  private class Highlighter {
+    private final CancelIndicator cancelIndicator;
+    private final long deadline;
+
+    private int nodesUntilCheck = NODES_BETWEEN_CHECKS;
+    boolean stopped;
+
+    Highlighter(CancelIndicator cancelIndicator, long deadline) {
+      this.cancelIndicator = cancelIndicator;
+      this.deadline = deadline;
     }
-    if (type instanceof Enum) {
-      highlight((Enum) type, acceptor);
+
+    /*
+     * Returns the positions to highlight in the given top-level element, or null if highlighting was stopped.
+     */
+    ElementHighlighting highlight(EObject element, ICompositeNode node) {
+      if (stopped) {
+        return null;
+      }
+      ElementHighlighting highlighting = new ElementHighlighting((node != null) ? node.getOffset() : 0);
+      highlighting.declaredNames = declaredNamesOf(element);
+      if (node != null) {
+        visitChildren(node, element, highlighting);
+      }
+      return stopped ? null : highlighting;
     }
-  }
 
-  private void highlight(Message message, IHighlightedPositionAcceptor acceptor) {
-    highlightName(message, acceptor, MESSAGE_DEFINITION_ID);
-    for (MessageElement element : message.getElements()) {
-      highlight(element, acceptor);
+    private void visitChildren(ICompositeNode parent, EObject owner, ElementHighlighting highlighting) {
+      for (INode child = parent.getFirstChild(); child != null && !stopped; child = child.getNextSibling()) {
+        if (--nodesUntilCheck == 0) {
+          nodesUntilCheck = NODES_BETWEEN_CHECKS;
+          stopped = (cancelIndicator != null && cancelIndicator.isCanceled())
+              || System.currentTimeMillis() > deadline;
+        }
+        if (owner != null) {
+          String feature = assignedFeatureOf(child);
+          highlighting.linksToOtherFiles |= linksToOtherFile(owner, feature);
+          String highlightId = highlightIdOf(owner, feature);
+          if (highlightId != null) {
+            highlighting.addPosition(child.getOffset(), child.getLength(), highlightId);
+            continue;
+          }
+        }
+        if (child instanceof ICompositeNode) {
+          EObject childOwner = child.hasDirectSemanticElement() ? child.getSemanticElement() : owner;
+          visitChildren((ICompositeNode) child, childOwner, highlighting);
+        }
+      }
     }
   }
 
-  private void highlight(MessageElement element, IHighlightedPositionAcceptor acceptor) {
-    if (element instanceof Option) {
-      highlight((Option) element, acceptor);
-      return;
-    }
-    if (element instanceof IndexedElement) {
-      highlight((IndexedElement) element, acceptor);
-      return;
+  /*
+   * Returns the type and name of the elements declared in the given top-level element, or null for imports and
+   * packages, which change the types visible in the whole file.
+   */
+  private static List<String> declaredNamesOf(EObject element) {
+    if (element instanceof Import || element instanceof Package) {
+      return null;
     }
-    if (element instanceof ComplexType) {
-      highlight((ComplexType) element, acceptor);
-      return;
+    List<String> names = newArrayList();
+    addDeclaredName(element, names);
+    TreeIterator<EObject> contents = element.eAllContents();
+    while (contents.hasNext()) {
+      addDeclaredName(contents.next(), names);
     }
-    if (element instanceof TypeExtension) {
-      highlight((TypeExtension) element, acceptor);
+    return names;
+  }
+
+  private static void addDeclaredName(EObject o, List<String> names) {
+    Object name = modelFeatures().valueOf(o, NAME);
+    if (name != null) {
+      names.add(o.eClass().getName() + ":" + name);
     }
   }
 
-  private void highlight(IndexedElement element, IHighlightedPositionAcceptor acceptor) {
-    highlightName(element, acceptor, DEFAULT_ID);
-    highlightFirstFeature(
-        element, indexedElements.indexFeatureOf(element), acceptor, MESSAGE_FIELD_INDEX_ID);
-    highlightOptions(element, acceptor);
-    if (element instanceof Group) {
-      highlight((Group) element, acceptor);
-      return;
+  private String assignedFeatureOf(INode node) {
+    EObject grammarElement = node.getGrammarElement();
+    if (grammarElement == null) {
+      return NO_FEATURE;
     }
-    if (element instanceof MessageField) {
-      highlight((MessageField) element, acceptor);
+    String feature = assignedFeatures.get(grammarElement);
+    if (feature == null) {
+      Assignment assignment = containingAssignment(grammarElement);
+      feature = (assignment != null) ? assignment.getFeature() : NO_FEATURE;
+      assignedFeatures.put(grammarElement, feature);
     }
+    return feature;
   }
 
-  private void highlightOptions(IndexedElement element, IHighlightedPositionAcceptor acceptor) {
-    for (FieldOption option : indexedElements.fieldOptionsOf(element)) {
-      Value value = option.getValue();
-      if (value instanceof LiteralLink) {
-        highlightFirstFeature(option, ABSTRACT_OPTION__VALUE, acceptor, ENUM_LITERAL_ID);
-        return;
-      }
-      if (value instanceof NumberLink) {
-        highlightFirstFeature(option, ABSTRACT_OPTION__VALUE, acceptor, NUMBER_ID);
-      }
+  private String highlightIdOf(EObject owner, String feature) {
+    switch (feature) {
+      case "name":
+        return isHighlighted(owner) ? nameHighlightIdOf(owner) : null;
+      case "importedNamespace":
+        return (owner instanceof Package && isHighlighted(owner)) ? DEFAULT_ID : null;
+      case "index":
+        return isHighlighted(owner) ? indexHighlightIdOf(owner) : null;
+      case "type":
+        return isHighlighted(owner) ? typeHighlightIdOf(owner) : null;
+      case "argType":
+        return (owner instanceof Rpc && isHighlighted(owner)) ? RPC_ARGUMENT_ID : null;
+      case "returnType":
+        return (owner instanceof Rpc && isHighlighted(owner)) ? RPC_RETURN_TYPE_ID : null;
+      case "source":
+        return (owner instanceof Option && isHighlighted(owner) && options.rootSourceOf((Option) owner) != null)
+            ? DEFAULT_ID : null;
+      case "value":
+        return valueHighlightIdOf(owner);
+      default:
+        return null;
     }
   }
 
-  private void highlight(Group group, IHighlightedPositionAcceptor acceptor) {
-    for (GroupElement e : group.getElements()) {
-      if (e instanceof IndexedElement) {
-        highlight((IndexedElement) e, acceptor);
-        continue;
-      }
-      if (e instanceof Enum) {
-        highlight((Enum) e, acceptor);
+  /*
+   * Indicates whether the highlighting of the given feature depends on a cross-reference that is not resolved to an
+   * element in the same file: message and enum types, and option sources.
+   */
+  private boolean linksToOtherFile(EObject owner, String feature) {
+    EObject target;
+    if (feature.equals("type") && owner instanceof MessageField) {
+      TypeLink link = ((MessageField) owner).getType();
+      if (!(link instanceof ComplexTypeLink)) {
+        return false;
       }
+      target = ((ComplexTypeLink) link).getTarget();
+    } else if (feature.equals("source") && owner instanceof Option) {
+      target = options.rootSourceOf((Option) owner);
+    } else {
+      return false;
     }
+    if (!isHighlighted(owner)) {
+      return false;
+    }
+    return target == null || target.eIsProxy() || target.eResource() != owner.eResource();
+  }
+
+  private static String nameHighlightIdOf(EObject owner) {
+    if (owner instanceof Message) {
+      return MESSAGE_DEFINITION_ID;
+    }
+    if (owner instanceof Enum) {
+      return ENUM_DEFINITION_ID;
+    }
+    if (owner instanceof Literal) {
+      return ENUM_LITERAL_DEFINITION;
+    }
+    if (owner instanceof IndexedElement) {
+      return DEFAULT_ID;
+    }
+    if (owner instanceof Service) {
+      return SERVICE_DEFINITION_ID;
+    }
+    if (owner instanceof Rpc) {
+      return RPC_DEFINITION_ID;
+    }
+    return null;
   }
 
-  private void highlight(MessageField field, IHighlightedPositionAcceptor acceptor) {
-    highlightPropertyType(field, acceptor);
+  private static String indexHighlightIdOf(EObject owner) {
+    if (owner instanceof IndexedElement) {
+      return MESSAGE_FIELD_INDEX_ID;
+    }
+    if (owner instanceof Literal) {
+      return ENUM_LITERAL_INDEX_ID;
+    }
+    return null;
   }
 
-  private void highlightPropertyType(MessageField field, IHighlightedPositionAcceptor acceptor) {
-    TypeLink link = field.getType();
+  private static String typeHighlightIdOf(EObject owner) {
+    if (owner instanceof TypeExtension) {
+      return MESSAGE_ID;
+    }
+    if (!(owner instanceof MessageField)) {
+      return null;
+    }
+    TypeLink link = ((MessageField) owner).getType();
     if (!(link instanceof ComplexTypeLink)) {
-      return;
+      return null;
     }
     ComplexType type = ((ComplexTypeLink) link).getTarget();
     if (type instanceof Message) {
-      highlightFirstFeature(field, MESSAGE_FIELD__TYPE, acceptor, MESSAGE_ID);
-      return;
+      return MESSAGE_ID;
     }
     if (type instanceof Enum) {
-      highlightFirstFeature(field, MESSAGE_FIELD__TYPE, acceptor, ENUM_ID);
-      return;
+      return ENUM_ID;
     }
+    return null;
   }
 
-  private void highlight(Enum anEnum, IHighlightedPositionAcceptor acceptor) {
-    highlightName(anEnum, acceptor, ENUM_DEFINITION_ID);
-    for (EnumElement element : anEnum.getElements()) {
-      if (element instanceof Literal) {
-        highLight((Literal) element, acceptor);
-        continue;
-      }
-      if (element instanceof Option) {
-        highlight((Option) element, acceptor);
-      }
+  private static String valueHighlightIdOf(EObject owner) {
+    boolean highlighted = (owner instanceof Option && isHighlighted(owner))
+        || (owner instanceof FieldOption && owner.eContainer() instanceof IndexedElement
+            && isHighlighted(owner.eContainer()));
+    if (!highlighted) {
+      return null;
     }
+    Value value = (owner instanceof Option) ? ((Option) owner).getValue() : ((FieldOption) owner).getValue();
+    if (value instanceof LiteralLink) {
+      return ENUM_LITERAL_ID;
+    }
+    if (value instanceof NumberLink) {
+      return NUMBER_ID;
+    }
+    return null;
   }
 
-  private void highLight(Literal literal, IHighlightedPositionAcceptor acceptor) {
-    highlightName(literal, acceptor, ENUM_LITERAL_DEFINITION);
-    highlightFirstFeature(literal, LITERAL__INDEX, acceptor, ENUM_LITERAL_INDEX_ID);
-  }
-
-  private void highlight(Service service, IHighlightedPositionAcceptor acceptor) {
-    highlightName(service, acceptor, SERVICE_DEFINITION_ID);
-    for (ServiceElement e : service.getElements()) {
-      if (e instanceof Rpc) {
-        highlight((Rpc) e, acceptor);
-        continue;
-      }
-      if (e instanceof Option) {
-        highlight((Option) e, acceptor);
+  /*
+   * Indicates whether the names, indices, types and options of the given element are highlighted. Elements inside
+   * one-ofs, streams or groups (except fields and enums) are not highlighted.
+   */
+  private static boolean isHighlighted(EObject o) {
+    EObject current = o;
+    EObject container = current.eContainer();
+    while (container != null) {
+      if (!isHighlightedIn(container, current)) {
+        return false;
       }
+      current = container;
+      container = current.eContainer();
     }
+    return current instanceof Protobuf;
   }
 
-  private void highlight(Rpc rpc, IHighlightedPositionAcceptor acceptor) {
-    highlightName(rpc, acceptor, RPC_DEFINITION_ID);
-    highlightFirstFeature(rpc, RPC__ARG_TYPE, acceptor, RPC_ARGUMENT_ID);
-    highlightFirstFeature(rpc, RPC__RETURN_TYPE, acceptor, RPC_RETURN_TYPE_ID);
-    for (Option option : rpc.getOptions()) {
-      highlight(option, acceptor);
+  private static boolean isHighlightedIn(EObject container, EObject o) {
+    if (container instanceof Protobuf) {
+      return !(o instanceof Import);
     }
-  }
-
-  private void highlight(Option option, IHighlightedPositionAcceptor acceptor) {
-    IndexedElement element = options.rootSourceOf(option);
-    if (element != null) {
-      highlightFirstFeature(option, OPTION__SOURCE, acceptor, DEFAULT_ID);
+    if (container instanceof Message) {
+      return o instanceof Option || o instanceof IndexedElement || o instanceof ComplexType
+          || o instanceof TypeExtension;
     }
-    Value value = option.getValue();
-    if (value instanceof LiteralLink) {
-      highlightFirstFeature(option, ABSTRACT_OPTION__VALUE, acceptor, ENUM_LITERAL_ID);
-      return;
+    if (container instanceof TypeExtension) {
+      return o instanceof IndexedElement;
     }
-    if (value instanceof NumberLink) {
-      highlightFirstFeature(option, ABSTRACT_OPTION__VALUE, acceptor, NUMBER_ID);
+    if (container instanceof Group) {
+      return o instanceof IndexedElement || o instanceof Enum;
     }
-  }
-
-  private void highlightName(EObject o, IHighlightedPositionAcceptor acceptor, String highlightId) {
-    EStructuralFeature feature = o.eClass().getEStructuralFeature("name");
-    if (feature == null) {
-      feature = o.eClass().getEStructuralFeature("importedNamespace");
+    if (container instanceof Enum) {
+      return o instanceof Literal || o instanceof Option;
     }
-    highlightFirstFeature(o, feature, acceptor, highlightId);
-  }
-
-  private void highlightFirstFeature(
-      EObject semantic,
-      EStructuralFeature feature,
-      IHighlightedPositionAcceptor acceptor,
-      String highlightId) {
-    INode node = nodes.firstNodeForFeature(semantic, feature);
-    if (node == null) {
-      return;
+    if (container instanceof Service) {
+      return o instanceof Rpc || o instanceof Option;
+    }
+    if (container instanceof Rpc) {
+      return o instanceof Option;
     }
-    acceptor.addPosition(node.getOffset(), node.getLength(), highlightId);
+    return false;
   }
 }
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.ui.findrefs;
+
+import java.util.Set;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.findReferences.ReferenceFinder;
+import org.eclipse.xtext.findReferences.TargetURIs;
+import org.eclipse.xtext.resource.IResourceDescriptions;
+
+import com.google.inject.Inject;
+
+/**
+ * Finds references to model objects only in the files that refer to them, according to the
+ * <code>{@link ReverseReferenceIndex}</code>, instead of in every file in the workspace. Used by
+ * "Find References" and by rename refactoring, which then only loads and changes the affected files.
+ * Files with unsaved changes are always searched.
+ */
+public class ProtobufReferenceFinder extends ReferenceFinder {
+  @Inject private ReverseReferenceIndex reverseReferenceIndex;
+
+  @Override public void findAllReferences(TargetURIs targetURIs, IResourceAccess resourceAccess,
+      IResourceDescriptions indexData, Acceptor acceptor, IProgressMonitor monitor) {
+    if (targetURIs.isEmpty()) {
+      return;
+    }
+    Set<URI> candidates = reverseReferenceIndex.filesReferringTo(targetURIs.asSet());
+    // references inside the files declaring the targets are not all in the index.
+    candidates.addAll(targetURIs.getTargetResourceURIs());
+    // the builder has not recorded the references in files with unsaved changes.
+    candidates.addAll(reverseReferenceIndex.filesChangedIn(indexData));
+    findReferences(targetURIs, candidates, resourceAccess, indexData, acceptor, monitor);
+  }
+}
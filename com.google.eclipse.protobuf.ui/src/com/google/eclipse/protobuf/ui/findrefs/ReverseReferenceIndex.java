@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.ui.findrefs;
+
+import static com.google.common.collect.Maps.newHashMap;
+import static com.google.common.collect.Sets.newHashSet;
+import static org.eclipse.xtext.resource.impl.ResourceDescriptionsProvider.PERSISTED_DESCRIPTIONS;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.resource.IReferenceDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.IResourceDescription.Delta;
+import org.eclipse.xtext.resource.IResourceDescription.Event;
+import org.eclipse.xtext.resource.IResourceDescriptions;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+
+/**
+ * Workspace-wide table of the files referring to each model object, by URI of the object.
+ * <p>
+ * The table is built the first time it is needed from the cross-references the builder recorded,
+ * after linking, in its persisted state. It is then kept up to date with the changes the builder
+ * reports, without loading any resource. Files with unsaved changes are not in the builder state:
+ * {@link #filesChangedIn(IResourceDescriptions)} finds them.
+ * </p>
+ */
+@Singleton public class ReverseReferenceIndex {
+  private final Event.Listener listener = new Event.Listener() {
+    @Override public void descriptionsChanged(Event event) {
+      update(event.getDeltas());
+    }
+  };
+
+  private IResourceDescriptions builderState;
+
+  // Referring files by URI of the referred object, and referred objects by URI of the referring
+  // file. Both are null until first needed.
+  private Map<URI, Set<URI>> referringFilesByTarget;
+  private Map<URI, Set<URI>> targetsByReferringFile;
+
+  @Inject void listenTo(@Named(PERSISTED_DESCRIPTIONS) IResourceDescriptions builderState) {
+    this.builderState = builderState;
+    if (builderState instanceof Event.Source) {
+      ((Event.Source) builderState).addListener(listener);
+    }
+  }
+
+  /**
+   * Returns the URIs of the files containing cross-references to any of the given model objects.
+   * References inside the file declaring a model object are not all included.
+   * @param targetUris the URIs of the model objects.
+   * @return the URIs of the files referring to any of the given model objects.
+   */
+  public synchronized Set<URI> filesReferringTo(Iterable<URI> targetUris) {
+    buildIfNecessary();
+    Set<URI> files = newHashSet();
+    for (URI targetUri : targetUris) {
+      Set<URI> referring = referringFilesByTarget.get(targetUri);
+      if (referring != null) {
+        files.addAll(referring);
+      }
+    }
+    return files;
+  }
+
+  /**
+   * Returns the URIs of the files whose description in the given index is not the one in the
+   * builder state, e.g. files with unsaved changes in an editor. Their cross-references may not be
+   * in this table.
+   * @param indexData the index used to find references.
+   * @return the URIs of the files described differently in the given index.
+   */
+  public Set<URI> filesChangedIn(IResourceDescriptions indexData) {
+    Set<URI> files = newHashSet();
+    if (indexData == null || indexData == builderState) {
+      return files;
+    }
+    for (IResourceDescription description : indexData.getAllResourceDescriptions()) {
+      URI fileUri = description.getURI();
+      if (description != builderState.getResourceDescription(fileUri)) {
+        files.add(fileUri);
+      }
+    }
+    return files;
+  }
+
+  private void buildIfNecessary() {
+    if (referringFilesByTarget != null) {
+      return;
+    }
+    referringFilesByTarget = newHashMap();
+    targetsByReferringFile = newHashMap();
+    for (IResourceDescription description : builderState.getAllResourceDescriptions()) {
+      add(description);
+    }
+  }
+
+  @VisibleForTesting synchronized void update(List<Delta> deltas) {
+    if (referringFilesByTarget == null) {
+      return;
+    }
+    for (Delta delta : deltas) {
+      remove(delta.getUri());
+      if (delta.getNew() != null) {
+        add(delta.getNew());
+      }
+    }
+  }
+
+  private void add(IResourceDescription description) {
+    URI fileUri = description.getURI();
+    Set<URI> targets = newHashSet();
+    for (IReferenceDescription reference : description.getReferenceDescriptions()) {
+      URI targetUri = reference.getTargetEObjectUri();
+      if (targetUri == null || !targets.add(targetUri)) {
+        continue;
+      }
+      Set<URI> referring = referringFilesByTarget.get(targetUri);
+      if (referring == null) {
+        referring = newHashSet();
+        referringFilesByTarget.put(targetUri, referring);
+      }
+      referring.add(fileUri);
+    }
+    if (!targets.isEmpty()) {
+      targetsByReferringFile.put(fileUri, targets);
+    }
+  }
+
+  private void remove(URI fileUri) {
+    Set<URI> targets = targetsByReferringFile.remove(fileUri);
+    if (targets == null) {
+      return;
+    }
+    for (URI targetUri : targets) {
+      Set<URI> referring = referringFilesByTarget.get(targetUri);
+      referring.remove(fileUri);
+      if (referring.isEmpty()) {
+        referringFilesByTarget.remove(targetUri);
+      }
+    }
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.ui.hierarchy;
+
+import static org.eclipse.ui.handlers.HandlerUtil.getActiveWorkbenchWindowChecked;
+import static org.eclipse.xtext.EcoreUtil2.getContainerOfType;
+import static org.eclipse.xtext.ui.editor.utils.EditorUtils.getActiveXtextEditor;
+
+import org.eclipse.core.commands.AbstractHandler;
+import org.eclipse.core.commands.ExecutionEvent;
+import org.eclipse.core.commands.ExecutionException;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.jface.text.ITextSelection;
+import org.eclipse.jface.viewers.ISelection;
+import org.eclipse.ui.PartInitException;
+import org.eclipse.xtext.resource.EObjectAtOffsetHelper;
+import org.eclipse.xtext.resource.XtextResource;
+import org.eclipse.xtext.ui.editor.XtextEditor;
+import org.eclipse.xtext.util.concurrent.IUnitOfWork;
+
+import com.google.eclipse.protobuf.protobuf.ComplexType;
+import com.google.inject.Inject;
+
+/**
+ * Shows, in the <code>{@link TypeHierarchyView}</code>, the hierarchy of the message or enum at the
+ * cursor in the active editor.
+ */
+public class OpenTypeHierarchyHandler extends AbstractHandler {
+  @Inject private EObjectAtOffsetHelper eObjectAtOffsetHelper;
+
+  @Override public Object execute(ExecutionEvent event) throws ExecutionException {
+    XtextEditor editor = getActiveXtextEditor(event);
+    if (editor == null) {
+      return null;
+    }
+    ISelection selection = editor.getSelectionProvider().getSelection();
+    if (!(selection instanceof ITextSelection)) {
+      return null;
+    }
+    final int offset = ((ITextSelection) selection).getOffset();
+    URI typeUri = editor.getDocument().readOnly(new IUnitOfWork<URI, XtextResource>() {
+      @Override public URI exec(XtextResource resource) throws Exception {
+        EObject element = eObjectAtOffsetHelper.resolveElementAt(resource, offset);
+        ComplexType type = (element instanceof ComplexType)
+            ? (ComplexType) element : getContainerOfType(element, ComplexType.class);
+        return (type != null) ? EcoreUtil.getURI(type) : null;
+      }
+    });
+    if (typeUri == null) {
+      return null;
+    }
+    try {
+      TypeHierarchyView view =
+          (TypeHierarchyView) getActiveWorkbenchWindowChecked(event).getActivePage().showView(TypeHierarchyView.ID);
+      view.showHierarchyOf(typeUri);
+    } catch (PartInitException e) {
+      throw new ExecutionException(e.getMessage(), e);
+    }
+    return null;
+  }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.ui.hierarchy;
+
+import static com.google.eclipse.protobuf.ui.hierarchy.Messages.recursive;
+import static com.google.eclipse.protobuf.ui.hierarchy.Messages.showEmbeddedTypes;
+import static com.google.eclipse.protobuf.ui.hierarchy.Messages.unknownType;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Set;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.jface.action.Action;
+import org.eclipse.jface.action.IAction;
+import org.eclipse.jface.viewers.DoubleClickEvent;
+import org.eclipse.jface.viewers.IDoubleClickListener;
+import org.eclipse.jface.viewers.IStructuredSelection;
+import org.eclipse.jface.viewers.ITreeContentProvider;
+import org.eclipse.jface.viewers.LabelProvider;
+import org.eclipse.jface.viewers.TreeViewer;
+import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.ui.part.ViewPart;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.ui.PluginImageHelper;
+
+import com.google.eclipse.protobuf.ui.editor.ProtobufUriEditorOpener;
+import com.google.eclipse.protobuf.ui.labeling.Images;
+import com.google.inject.Inject;
+
+/**
+ * Shows the messages embedding a type, directly or transitively, or the types a message embeds. The
+ * children of a type are read from the <code>{@link TypeUsageGraph}</code> when the type is expanded.
+ * A type already shown among its own ancestors is not expanded again.
+ */
+public class TypeHierarchyView extends ViewPart {
+  public static final String ID = "com.google.eclipse.protobuf.ui.hierarchy.TypeHierarchyView";
+
+  @Inject private ProtobufUriEditorOpener editorOpener;
+  @Inject private TypeUsageGraph graph;
+  @Inject private Images images;
+  @Inject private PluginImageHelper imageHelper;
+
+  private TreeViewer viewer;
+  private boolean showingEmbeddedTypes;
+
+  @Override public void createPartControl(Composite parent) {
+    viewer = new TreeViewer(parent, SWT.SINGLE | SWT.H_SCROLL | SWT.V_SCROLL);
+    viewer.setContentProvider(new HierarchyContentProvider());
+    viewer.setLabelProvider(new HierarchyLabelProvider());
+    viewer.addDoubleClickListener(new IDoubleClickListener() {
+      @Override public void doubleClick(DoubleClickEvent event) {
+        Object selected = ((IStructuredSelection) event.getSelection()).getFirstElement();
+        if (selected instanceof HierarchyNode) {
+          editorOpener.open(((HierarchyNode) selected).typeUri, true);
+        }
+      }
+    });
+    Action toggleDirection = new Action(showEmbeddedTypes, IAction.AS_CHECK_BOX) {
+      @Override public void run() {
+        showingEmbeddedTypes = isChecked();
+        Object input = viewer.getInput();
+        if (input instanceof HierarchyNode) {
+          showHierarchyOf(((HierarchyNode) input).typeUri);
+        }
+      }
+    };
+    toggleDirection.setImageDescriptor(imageHelper.getImageDescriptor(images.imageFor("message")));
+    getViewSite().getActionBars().getToolBarManager().add(toggleDirection);
+  }
+
+  /**
+   * Shows the hierarchy of the message or enum with the given URI.
+   * @param typeUri the URI of the message or enum.
+   */
+  public void showHierarchyOf(URI typeUri) {
+    // the input holds the root, so the root itself is shown.
+    viewer.setInput(new HierarchyNode(typeUri, null));
+    viewer.expandToLevel(2);
+  }
+
+  @Override public void setFocus() {
+    viewer.getControl().setFocus();
+  }
+
+  private Set<URI> childrenOf(URI typeUri) {
+    return showingEmbeddedTypes ? graph.typesEmbeddedIn(typeUri) : graph.typesEmbedding(typeUri);
+  }
+
+  private String nameOf(URI typeUri) {
+    IEObjectDescription description = graph.descriptionOf(typeUri);
+    return (description != null) ? description.getName().toString() : unknownType;
+  }
+
+  private static class HierarchyNode {
+    final URI typeUri;
+    final HierarchyNode parent;
+
+    HierarchyNode(URI typeUri, HierarchyNode parent) {
+      this.typeUri = typeUri;
+      this.parent = parent;
+    }
+
+    boolean isRecursive() {
+      for (HierarchyNode ancestor = parent; ancestor != null; ancestor = ancestor.parent) {
+        if (ancestor.typeUri.equals(typeUri)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  private class HierarchyContentProvider implements ITreeContentProvider {
+    @Override public Object[] getElements(Object inputElement) {
+      return new Object[] { inputElement };
+    }
+
+    @Override public Object[] getChildren(Object parentElement) {
+      HierarchyNode parent = (HierarchyNode) parentElement;
+      if (parent.isRecursive()) {
+        return new Object[0];
+      }
+      Set<URI> children = childrenOf(parent.typeUri);
+      HierarchyNode[] nodes = new HierarchyNode[children.size()];
+      int i = 0;
+      for (URI child : children) {
+        nodes[i++] = new HierarchyNode(child, parent);
+      }
+      Arrays.sort(nodes, new Comparator<HierarchyNode>() {
+        @Override public int compare(HierarchyNode n1, HierarchyNode n2) {
+          return nameOf(n1.typeUri).compareTo(nameOf(n2.typeUri));
+        }
+      });
+      return nodes;
+    }
+
+    @Override public Object getParent(Object element) {
+      return ((HierarchyNode) element).parent;
+    }
+
+    @Override public boolean hasChildren(Object element) {
+      HierarchyNode node = (HierarchyNode) element;
+      return !node.isRecursive() && !childrenOf(node.typeUri).isEmpty();
+    }
+
+    @Override public void inputChanged(Viewer viewer, Object oldInput, Object newInput) {}
+
+    @Override public void dispose() {}
+  }
+
+  private class HierarchyLabelProvider extends LabelProvider {
+    @Override public String getText(Object element) {
+      HierarchyNode node = (HierarchyNode) element;
+      String name = nameOf(node.typeUri);
+      return node.isRecursive() ? String.format(recursive, name) : name;
+    }
+
+    @Override public Image getImage(Object element) {
+      IEObjectDescription description = graph.descriptionOf(((HierarchyNode) element).typeUri);
+      EClass type = (description != null) ? description.getEClass() : null;
+      return imageHelper.getImage((type != null) ? images.imageFor(type) : images.defaultImage());
+    }
+  }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.ui.hierarchy;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.google.common.collect.Sets.newHashSet;
+import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.COMPLEX_TYPE;
+import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.COMPLEX_TYPE_LINK__TARGET;
+import static org.eclipse.xtext.resource.impl.ResourceDescriptionsProvider.PERSISTED_DESCRIPTIONS;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IReferenceDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.IResourceDescription.Delta;
+import org.eclipse.xtext.resource.IResourceDescription.Event;
+import org.eclipse.xtext.resource.IResourceDescriptions;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+
+/**
+ * Workspace-wide graph of which messages embed which types, through the types of their fields.
+ * <p>
+ * The graph is built the first time it is needed from the field types the builder recorded in its
+ * persisted state, as cross-references (including the ones to types in the same file,) and then
+ * updated with the changes the builder reports, one file at a time. No file is loaded or linked to
+ * answer a query.
+ * </p>
+ */
+@Singleton public class TypeUsageGraph {
+  private final Event.Listener listener = new Event.Listener() {
+    @Override public void descriptionsChanged(Event event) {
+      update(event.getDeltas());
+    }
+  };
+
+  private IResourceDescriptions builderState;
+
+  // All null until first needed.
+  private Map<URI, IEObjectDescription> types;
+  private Map<URI, Set<URI>> embeddingTypes;
+  private Map<URI, Set<URI>> embeddedTypes;
+  private Map<URI, FileContribution> contributions;
+
+  @Inject void listenTo(@Named(PERSISTED_DESCRIPTIONS) IResourceDescriptions builderState) {
+    this.builderState = builderState;
+    if (builderState instanceof Event.Source) {
+      ((Event.Source) builderState).addListener(listener);
+    }
+  }
+
+  /**
+   * Returns the description of the message or enum with the given URI, as exported by the file
+   * declaring it.
+   * @param typeUri the URI of the message or enum.
+   * @return the description of the type, or {@code null} if the type is not known.
+   */
+  public synchronized IEObjectDescription descriptionOf(URI typeUri) {
+    buildIfNecessary();
+    return types.get(typeUri);
+  }
+
+  /**
+   * Returns the URIs of the messages that have at least one field of the given type.
+   * @param typeUri the URI of the message or enum.
+   * @return the URIs of the messages directly embedding the given type.
+   */
+  public synchronized Set<URI> typesEmbedding(URI typeUri) {
+    buildIfNecessary();
+    return copyOf(embeddingTypes.get(typeUri));
+  }
+
+  /**
+   * Returns the URIs of the types of the fields of the given message.
+   * @param typeUri the URI of the message.
+   * @return the URIs of the types directly embedded in the given message.
+   */
+  public synchronized Set<URI> typesEmbeddedIn(URI typeUri) {
+    buildIfNecessary();
+    return copyOf(embeddedTypes.get(typeUri));
+  }
+
+  private static Set<URI> copyOf(Set<URI> uris) {
+    return (uris == null) ? newHashSet() : newHashSet(uris);
+  }
+
+  private void buildIfNecessary() {
+    if (types != null) {
+      return;
+    }
+    types = newHashMap();
+    embeddingTypes = newHashMap();
+    embeddedTypes = newHashMap();
+    contributions = newHashMap();
+    for (IResourceDescription description : builderState.getAllResourceDescriptions()) {
+      add(description);
+    }
+  }
+
+  private synchronized void update(List<Delta> deltas) {
+    if (types == null) {
+      return;
+    }
+    for (Delta delta : deltas) {
+      remove(delta.getUri());
+      if (delta.getNew() != null) {
+        add(delta.getNew());
+      }
+    }
+  }
+
+  private void add(IResourceDescription description) {
+    FileContribution contribution = new FileContribution();
+    // names of all the exported objects, to find the message containing each field.
+    Map<URI, QualifiedName> names = newHashMap();
+    Map<QualifiedName, URI> typesByName = newHashMap();
+    for (IEObjectDescription exported : description.getExportedObjects()) {
+      names.put(exported.getEObjectURI(), exported.getName());
+      if (COMPLEX_TYPE.isSuperTypeOf(exported.getEClass())) {
+        typesByName.put(exported.getName(), exported.getEObjectURI());
+        types.put(exported.getEObjectURI(), exported);
+        contribution.types.add(exported.getEObjectURI());
+      }
+    }
+    for (IReferenceDescription reference : description.getReferenceDescriptions()) {
+      if (reference.getEReference() != COMPLEX_TYPE_LINK__TARGET || reference.getTargetEObjectUri() == null) {
+        continue;
+      }
+      URI embedding = containingType(names.get(reference.getContainerEObjectURI()), typesByName);
+      if (embedding != null) {
+        addEdge(embedding, reference.getTargetEObjectUri());
+        contribution.edges.add(new URI[] { embedding, reference.getTargetEObjectUri() });
+      }
+    }
+    contributions.put(description.getURI(), contribution);
+  }
+
+  private static URI containingType(QualifiedName name, Map<QualifiedName, URI> typesByName) {
+    for (QualifiedName current = name; current != null && !current.isEmpty(); current = current.skipLast(1)) {
+      URI type = typesByName.get(current);
+      if (type != null) {
+        return type;
+      }
+    }
+    return null;
+  }
+
+  private void addEdge(URI embedding, URI embedded) {
+    valuesOf(embeddingTypes, embedded).add(embedding);
+    valuesOf(embeddedTypes, embedding).add(embedded);
+  }
+
+  private static Set<URI> valuesOf(Map<URI, Set<URI>> map, URI key) {
+    Set<URI> values = map.get(key);
+    if (values == null) {
+      values = newHashSet();
+      map.put(key, values);
+    }
+    return values;
+  }
+
+  private void remove(URI fileUri) {
+    FileContribution contribution = contributions.remove(fileUri);
+    if (contribution == null) {
+      return;
+    }
+    for (URI type : contribution.types) {
+      types.remove(type);
+    }
+    for (URI[] edge : contribution.edges) {
+      removeValue(embeddingTypes, edge[1], edge[0]);
+      removeValue(embeddedTypes, edge[0], edge[1]);
+    }
+  }
+
+  // Edges start at a message in the file recording them, so no other file records the same edge.
+  private static void removeValue(Map<URI, Set<URI>> map, URI key, URI value) {
+    Set<URI> values = map.get(key);
+    if (values == null) {
+      return;
+    }
+    values.remove(value);
+    if (values.isEmpty()) {
+      map.remove(key);
+    }
+  }
+
+  private static class FileContribution {
+    final List<URI> types = newArrayList();
+    final List<URI[]> edges = newArrayList();
+  }
+}
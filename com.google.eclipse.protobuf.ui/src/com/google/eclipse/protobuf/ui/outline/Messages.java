@@ -15,6 +15,7 @@ import org.eclipse.osgi.util.NLS;
  */
 public class Messages extends NLS {
   public static String importDeclarations;
+  public static String moreElements;
 
   static {
     Class<Messages> type = Messages.class;
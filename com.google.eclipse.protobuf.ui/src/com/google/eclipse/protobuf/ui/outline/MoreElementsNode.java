@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.ui.outline;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.xtext.ui.editor.outline.IOutlineNode;
+
+/**
+ * Stands for the children of an element that were not added to the outline yet. The nodes of those
+ * children are created when this node is expanded.
+ */
+class MoreElementsNode extends SimpleOutlineNode {
+  private final int firstIndex;
+
+  MoreElementsNode(IOutlineNode parent, EObject owner, Object text, int firstIndex) {
+    super(parent, owner, null, text, false);
+    this.firstIndex = firstIndex;
+  }
+
+  /**
+   * Returns the index, in the children of the owner, of the first child this node stands for.
+   * @return the index of the first child this node stands for.
+   */
+  int firstIndex() {
+    return firstIndex;
+  }
+}
@@ -10,6 +10,8 @@ package com.google.eclipse.protobuf.ui.outline;
 
 import static java.util.Collections.singletonList;
 
+import static org.eclipse.swt.SWT.VIRTUAL;
+
 import static com.google.common.collect.Collections2.filter;
 import static com.google.common.collect.Lists.newArrayList;
 
@@ -23,11 +25,16 @@ import org.eclipse.xtext.ui.editor.outline.impl.OutlinePage;
 import com.google.common.base.Predicate;
 
 /**
- * Outline Page for Protocol Buffer editors.
+ * Outline Page for Protocol Buffer editors. The tree is virtual: tree items and their labels are
+ * created only when they become visible.
  *
  * @author alruiz@google.com (Alex Ruiz)
  */
 public class ProtobufOutlinePage extends OutlinePage {
+  @Override protected int getTreeStyle() {
+    return super.getTreeStyle() | VIRTUAL;
+  }
+
   @Override protected List<IOutlineNode> getInitiallyExpandedNodes() {
     IOutlineNode rootNode = getTreeProvider().createRoot(getXtextDocument());
     List<IOutlineNode> nodes = newArrayList(rootNode);
@@ -8,8 +8,11 @@
  */
 package com.google.eclipse.protobuf.ui.outline;
 
+import static org.eclipse.osgi.util.NLS.bind;
+
 import static com.google.common.collect.ImmutableList.of;
 import static com.google.eclipse.protobuf.ui.outline.Messages.importDeclarations;
+import static com.google.eclipse.protobuf.ui.outline.Messages.moreElements;
 
 import java.util.List;
 
@@ -30,9 +33,16 @@ import com.google.eclipse.protobuf.protobuf.Option;
 import com.google.eclipse.protobuf.protobuf.Package;
 import com.google.eclipse.protobuf.protobuf.Protobuf;
 import com.google.eclipse.protobuf.protobuf.Stream;
+import com.google.eclipse.protobuf.ui.editor.LargeFileMode;
+import com.google.inject.Inject;
 
 /**
  * Customization of the default outline structure.
+ * <p>
+ * In large files, the number of children shown per element is limited by the "Large Files"
+ * preferences. The remaining children are grouped under a node, and added to the outline only when
+ * that node is expanded.
+ * </p>
  *
  * @author alruiz@google.com (Alex Ruiz)
  */
@@ -43,6 +53,8 @@ public class ProtobufOutlineTreeProvider extends DefaultOutlineTreeProvider {
   private static final ImmutableList<Class<? extends EObject>> LEAF_TYPES =
       of(Extensions.class, Import.class, MessageField.class, Option.class, Package.class, Stream.class);
 
+  @Inject private LargeFileMode largeFileMode;
+
   @Override protected boolean _isLeaf(EObject e) {
     return isInstanceOfAny(e, LEAF_TYPES);
   }
@@ -53,8 +65,28 @@ public class ProtobufOutlineTreeProvider extends DefaultOutlineTreeProvider {
       createNode(parent, aPackage);
     }
     addGroup(parent, protobuf, model.imports(), "imports", importDeclarations);
-    for (EObject e : model.remainingElements()) {
-      createNode(parent, e);
+    createNodes(parent, protobuf, model.remainingElements(), 0);
+  }
+
+  @Override protected void _createChildren(IOutlineNode parent, EObject modelElement) {
+    createNodes(parent, modelElement, modelElement.eContents(), 0);
+  }
+
+  protected void _createChildren(MoreElementsNode parent, EObject owner) {
+    List<? extends EObject> elements = (owner instanceof Protobuf)
+        ? new OutlineViewModel((Protobuf) owner).remainingElements() : owner.eContents();
+    createNodes(parent, owner, elements, parent.firstIndex());
+  }
+
+  private void createNodes(IOutlineNode parent, EObject owner, List<? extends EObject> elements, int start) {
+    int budget = largeFileMode.outlineBudget(owner.eResource());
+    int count = elements.size();
+    for (int i = start; i < count; i++) {
+      if (i - start == budget) {
+        new MoreElementsNode(parent, owner, bind(moreElements, count - i), i);
+        return;
+      }
+      createNode(parent, elements.get(i));
     }
   }
 
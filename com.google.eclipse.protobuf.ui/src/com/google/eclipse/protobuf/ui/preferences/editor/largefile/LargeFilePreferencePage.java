@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.ui.preferences.editor.largefile;
+
+import static org.eclipse.osgi.util.NLS.bind;
+
+import static com.google.eclipse.protobuf.ui.preferences.editor.largefile.Messages.elementThreshold;
+import static com.google.eclipse.protobuf.ui.preferences.editor.largefile.Messages.enableLargeFileMode;
+import static com.google.eclipse.protobuf.ui.preferences.editor.largefile.Messages.highlightingBudget;
+import static com.google.eclipse.protobuf.ui.preferences.editor.largefile.Messages.invalidNumber;
+import static com.google.eclipse.protobuf.ui.preferences.editor.largefile.Messages.lineThreshold;
+import static com.google.eclipse.protobuf.ui.preferences.editor.largefile.Messages.outlineBudget;
+import static com.google.eclipse.protobuf.ui.preferences.editor.largefile.Messages.pageDescription;
+import static com.google.eclipse.protobuf.ui.preferences.editor.largefile.PreferenceNames.ELEMENT_THRESHOLD;
+import static com.google.eclipse.protobuf.ui.preferences.editor.largefile.PreferenceNames.ENABLE_LARGE_FILE_MODE;
+import static com.google.eclipse.protobuf.ui.preferences.editor.largefile.PreferenceNames.HIGHLIGHTING_BUDGET;
+import static com.google.eclipse.protobuf.ui.preferences.editor.largefile.PreferenceNames.LINE_THRESHOLD;
+import static com.google.eclipse.protobuf.ui.preferences.editor.largefile.PreferenceNames.OUTLINE_BUDGET;
+import static com.google.eclipse.protobuf.ui.preferences.pages.binding.BindingToButtonSelection.bindSelectionOf;
+import static com.google.eclipse.protobuf.ui.preferences.pages.binding.BindingToTextValue.bindTextOf;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.jface.preference.IPreferenceStore;
+import org.eclipse.jface.preference.PreferencePage;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.events.ModifyEvent;
+import org.eclipse.swt.events.ModifyListener;
+import org.eclipse.swt.events.SelectionAdapter;
+import org.eclipse.swt.events.SelectionEvent;
+import org.eclipse.swt.layout.GridData;
+import org.eclipse.swt.layout.GridLayout;
+import org.eclipse.swt.widgets.Button;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Text;
+import org.eclipse.ui.IWorkbench;
+import org.eclipse.ui.IWorkbenchPreferencePage;
+import org.eclipse.xtext.ui.editor.preferences.IPreferenceStoreAccess;
+
+import com.google.eclipse.protobuf.ui.preferences.pages.binding.PreferenceBinder;
+import com.google.eclipse.protobuf.ui.preferences.pages.binding.PreferenceFactory;
+import com.google.inject.Inject;
+
+/**
+ * "Large Files" preference page.
+ */
+public class LargeFilePreferencePage extends PreferencePage implements IWorkbenchPreferencePage {
+  @Inject private IPreferenceStoreAccess preferenceStoreAccess;
+
+  private final PreferenceBinder preferenceBinder = new PreferenceBinder();
+  private final Map<Text, String> numberFields = new LinkedHashMap<>();
+
+  private Button btnEnableLargeFileMode;
+  private Text txtLineThreshold;
+  private Text txtElementThreshold;
+  private Text txtHighlightingBudget;
+  private Text txtOutlineBudget;
+
+  @Override public void init(IWorkbench workbench) {}
+
+  @Override protected Control createContents(Composite parent) {
+    Composite contents = new Composite(parent, NONE);
+    contents.setLayout(new GridLayout(1, false));
+
+    Label lblDescription = new Label(contents, SWT.WRAP);
+    GridData descriptionData = new GridData(SWT.FILL, SWT.TOP, true, false, 1, 1);
+    descriptionData.widthHint = 300;
+    lblDescription.setLayoutData(descriptionData);
+    lblDescription.setText(pageDescription);
+
+    btnEnableLargeFileMode = new Button(contents, SWT.CHECK);
+    btnEnableLargeFileMode.setLayoutData(new GridData(SWT.LEFT, SWT.TOP, true, false, 1, 1));
+    btnEnableLargeFileMode.setText(enableLargeFileMode);
+
+    Composite composite = new Composite(contents, SWT.NONE);
+    composite.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 1, 1));
+    composite.setLayout(new GridLayout(2, false));
+
+    txtLineThreshold = addNumberField(composite, lineThreshold);
+    txtElementThreshold = addNumberField(composite, elementThreshold);
+    txtHighlightingBudget = addNumberField(composite, highlightingBudget);
+    txtOutlineBudget = addNumberField(composite, outlineBudget);
+
+    setUpBinding();
+    preferenceBinder.applyValues();
+    updateContents();
+    addEventListeners();
+    return contents;
+  }
+
+  private Text addNumberField(Composite parent, String labelText) {
+    Label label = new Label(parent, SWT.NONE);
+    label.setText(labelText);
+    Text text = new Text(parent, SWT.BORDER);
+    GridData gridData = new GridData(SWT.LEFT, SWT.CENTER, false, false, 1, 1);
+    gridData.widthHint = 60;
+    text.setLayoutData(gridData);
+    numberFields.put(text, labelText.replace("&", "").replace(":", ""));
+    return text;
+  }
+
+  private void setUpBinding() {
+    PreferenceFactory factory = new PreferenceFactory(getPreferenceStore());
+    preferenceBinder.addAll(
+        bindSelectionOf(btnEnableLargeFileMode).to(factory.newBooleanPreference(ENABLE_LARGE_FILE_MODE)),
+        bindTextOf(txtLineThreshold).to(factory.newStringPreference(LINE_THRESHOLD)),
+        bindTextOf(txtElementThreshold).to(factory.newStringPreference(ELEMENT_THRESHOLD)),
+        bindTextOf(txtHighlightingBudget).to(factory.newStringPreference(HIGHLIGHTING_BUDGET)),
+        bindTextOf(txtOutlineBudget).to(factory.newStringPreference(OUTLINE_BUDGET))
+    );
+  }
+
+  private void addEventListeners() {
+    btnEnableLargeFileMode.addSelectionListener(new SelectionAdapter() {
+      @Override public void widgetSelected(SelectionEvent e) {
+        updateContents();
+      }
+    });
+    ModifyListener numberValidator = new ModifyListener() {
+      @Override public void modifyText(ModifyEvent e) {
+        checkState();
+      }
+    };
+    for (Text text : numberFields.keySet()) {
+      text.addModifyListener(numberValidator);
+    }
+  }
+
+  private void updateContents() {
+    boolean enabled = btnEnableLargeFileMode.getSelection();
+    for (Text text : numberFields.keySet()) {
+      text.setEnabled(enabled);
+    }
+    checkState();
+  }
+
+  private void checkState() {
+    for (Map.Entry<Text, String> field : numberFields.entrySet()) {
+      if (!isPositiveNumber(field.getKey().getText())) {
+        setErrorMessage(bind(invalidNumber, field.getValue()));
+        setValid(false);
+        return;
+      }
+    }
+    setErrorMessage(null);
+    setValid(true);
+  }
+
+  private static boolean isPositiveNumber(String text) {
+    try {
+      return Integer.parseInt(text) > 0;
+    } catch (NumberFormatException e) {
+      return false;
+    }
+  }
+
+  @Override protected IPreferenceStore doGetPreferenceStore() {
+    return preferenceStoreAccess.getWritablePreferenceStore();
+  }
+
+  @Override public boolean performOk() {
+    preferenceBinder.saveValues();
+    return true;
+  }
+
+  @Override protected void performDefaults() {
+    preferenceBinder.applyDefaults();
+    super.performDefaults();
+    updateContents();
+  }
+}
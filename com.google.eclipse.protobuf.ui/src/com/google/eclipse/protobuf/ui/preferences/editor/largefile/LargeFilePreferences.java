@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.ui.preferences.editor.largefile;
+
+import static com.google.eclipse.protobuf.ui.preferences.editor.largefile.PreferenceNames.ELEMENT_THRESHOLD;
+import static com.google.eclipse.protobuf.ui.preferences.editor.largefile.PreferenceNames.ENABLE_LARGE_FILE_MODE;
+import static com.google.eclipse.protobuf.ui.preferences.editor.largefile.PreferenceNames.HIGHLIGHTING_BUDGET;
+import static com.google.eclipse.protobuf.ui.preferences.editor.largefile.PreferenceNames.LINE_THRESHOLD;
+import static com.google.eclipse.protobuf.ui.preferences.editor.largefile.PreferenceNames.OUTLINE_BUDGET;
+
+import org.eclipse.jface.preference.IPreferenceStore;
+import org.eclipse.xtext.ui.editor.preferences.IPreferenceStoreAccess;
+
+import com.google.eclipse.protobuf.preferences.DefaultPreservingInitializer;
+
+/**
+ * "Large files" preferences: when a file is considered large, and how much work the editor does for it.
+ */
+public class LargeFilePreferences {
+  private final IPreferenceStore store;
+
+  public LargeFilePreferences(IPreferenceStoreAccess storeAccess) {
+    store = storeAccess.getWritablePreferenceStore();
+  }
+
+  public boolean isLargeFileModeEnabled() {
+    return store.getBoolean(ENABLE_LARGE_FILE_MODE);
+  }
+
+  /**
+   * Returns the number of lines above which a file is considered large.
+   * @return the number of lines above which a file is considered large.
+   */
+  public int lineThreshold() {
+    return store.getInt(LINE_THRESHOLD);
+  }
+
+  /**
+   * Returns the number of model elements above which a file is considered large.
+   * @return the number of model elements above which a file is considered large.
+   */
+  public int elementThreshold() {
+    return store.getInt(ELEMENT_THRESHOLD);
+  }
+
+  /**
+   * Returns the time, in milliseconds, that semantic highlighting may take in a large file.
+   * @return the time, in milliseconds, that semantic highlighting may take in a large file.
+   */
+  public int highlightingBudget() {
+    return store.getInt(HIGHLIGHTING_BUDGET);
+  }
+
+  /**
+   * Returns the maximum number of children shown per element in the outline of a large file.
+   * @return the maximum number of children shown per element in the outline of a large file.
+   */
+  public int outlineBudget() {
+    return store.getInt(OUTLINE_BUDGET);
+  }
+
+  public static class Initializer extends DefaultPreservingInitializer {
+    @Override
+    public void setDefaults() {
+      setDefault(ENABLE_LARGE_FILE_MODE, true);
+      setDefault(LINE_THRESHOLD, 20000);
+      setDefault(ELEMENT_THRESHOLD, 20000);
+      setDefault(HIGHLIGHTING_BUDGET, 300);
+      setDefault(OUTLINE_BUDGET, 500);
+    }
+  }
+}
@@ -0,0 +1,19 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.ui.preferences.editor.largefile;
+
+final class PreferenceNames {
+  static final String ENABLE_LARGE_FILE_MODE = "largeFile.enabled";
+  static final String LINE_THRESHOLD = "largeFile.lineThreshold";
+  static final String ELEMENT_THRESHOLD = "largeFile.elementThreshold";
+  static final String HIGHLIGHTING_BUDGET = "largeFile.highlightingBudget";
+  static final String OUTLINE_BUDGET = "largeFile.outlineBudget";
+
+  private PreferenceNames() {}
+}
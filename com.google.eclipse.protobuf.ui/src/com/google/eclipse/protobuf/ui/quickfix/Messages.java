@@ -15,11 +15,16 @@ import org.eclipse.osgi.util.NLS;
  * @author alruiz@google.com (Alex Ruiz)
  */
 public class Messages extends NLS {
+  public static String addImportDescription;
+  public static String addImportLabel;
   public static String changeValueDescription;
   public static String changeValueLabel;
   public static String regenerateTagNumberLabel;
   public static String regenerateTagNumberDescription;
   public static String removeDuplicatePackageLabel;
+  public static String removeUnusedImportLabel;
+  public static String removeUnusedImportsDescription;
+  public static String removeUnusedImportsLabel;
 
   static {
     Class<Messages> type = Messages.class;
@@ -10,62 +10,98 @@ package com.google.eclipse.protobuf.ui.quickfix;
 
 import static com.google.eclipse.protobuf.protobuf.BOOL.FALSE;
 import static com.google.eclipse.protobuf.protobuf.BOOL.TRUE;
+import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.COMPLEX_TYPE;
+import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.MESSAGE;
+import static com.google.eclipse.protobuf.ui.quickfix.Messages.addImportDescription;
+import static com.google.eclipse.protobuf.ui.quickfix.Messages.addImportLabel;
 import static com.google.eclipse.protobuf.ui.quickfix.Messages.changeValueDescription;
 import static com.google.eclipse.protobuf.ui.quickfix.Messages.changeValueLabel;
 import static com.google.eclipse.protobuf.ui.quickfix.Messages.regenerateTagNumberDescription;
 import static com.google.eclipse.protobuf.ui.quickfix.Messages.regenerateTagNumberLabel;
 import static com.google.eclipse.protobuf.ui.quickfix.Messages.removeDuplicatePackageLabel;
+import static com.google.eclipse.protobuf.ui.quickfix.Messages.removeUnusedImportLabel;
+import static com.google.eclipse.protobuf.ui.quickfix.Messages.removeUnusedImportsDescription;
+import static com.google.eclipse.protobuf.ui.quickfix.Messages.removeUnusedImportsLabel;
 import static com.google.eclipse.protobuf.util.Strings.quote;
 import static com.google.eclipse.protobuf.validation.DataTypeValidator.EXPECTED_BOOL_ERROR;
 import static com.google.eclipse.protobuf.validation.DataTypeValidator.EXPECTED_STRING_ERROR;
+import static com.google.eclipse.protobuf.validation.ImportValidator.UNUSED_IMPORT_WARNING;
 import static com.google.eclipse.protobuf.validation.ProtobufJavaValidator.INVALID_FIELD_TAG_NUMBER_ERROR;
 import static com.google.eclipse.protobuf.validation.ProtobufJavaValidator.MISSING_MODIFIER_ERROR;
 import static com.google.eclipse.protobuf.validation.ProtobufJavaValidator.MORE_THAN_ONE_PACKAGE_ERROR;
 import static com.google.eclipse.protobuf.validation.ProtobufJavaValidator.REQUIRED_IN_PROTO3_ERROR;
 import static com.google.eclipse.protobuf.validation.ProtobufJavaValidator.SYNTAX_IS_NOT_KNOWN_ERROR;
+import static java.util.Collections.emptySet;
 import static org.eclipse.emf.ecore.util.EcoreUtil.remove;
+import static org.eclipse.xtext.EcoreUtil2.resolveLazyCrossReferences;
+import static org.eclipse.xtext.diagnostics.Diagnostic.LINKING_DIAGNOSTIC;
 import static org.eclipse.xtext.nodemodel.util.NodeModelUtils.findActualNodeFor;
 
 import com.google.eclipse.protobuf.grammar.CommonKeyword;
 import com.google.eclipse.protobuf.model.util.INodes;
+import com.google.eclipse.protobuf.model.util.Imports;
 import com.google.eclipse.protobuf.model.util.IndexedElements;
+import com.google.eclipse.protobuf.model.util.Protobufs;
 import com.google.eclipse.protobuf.model.util.Syntaxes;
 import com.google.eclipse.protobuf.naming.NameResolver;
 import com.google.eclipse.protobuf.protobuf.BOOL;
 import com.google.eclipse.protobuf.protobuf.BooleanLink;
+import com.google.eclipse.protobuf.protobuf.ComplexTypeLink;
 import com.google.eclipse.protobuf.protobuf.FieldOption;
+import com.google.eclipse.protobuf.protobuf.Import;
 import com.google.eclipse.protobuf.protobuf.IndexedElement;
 import com.google.eclipse.protobuf.protobuf.MessageField;
+import com.google.eclipse.protobuf.protobuf.MessageLink;
 import com.google.eclipse.protobuf.protobuf.ModifierEnum;
 import com.google.eclipse.protobuf.protobuf.Package;
+import com.google.eclipse.protobuf.protobuf.Protobuf;
+import com.google.eclipse.protobuf.protobuf.ProtobufElement;
 import com.google.eclipse.protobuf.protobuf.ProtobufFactory;
 import com.google.eclipse.protobuf.protobuf.StringLink;
 import com.google.eclipse.protobuf.protobuf.StringLiteral;
 import com.google.eclipse.protobuf.protobuf.Syntax;
 import com.google.eclipse.protobuf.protobuf.Value;
+import com.google.eclipse.protobuf.ui.scoping.ExportedTypeIndex;
+import com.google.eclipse.protobuf.ui.scoping.ExportedTypeIndex.ExportedType;
+import com.google.eclipse.protobuf.ui.scoping.ImportPaths;
 import com.google.inject.Inject;
 
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.xtext.naming.IQualifiedNameConverter;
+import org.eclipse.xtext.naming.QualifiedName;
 import org.eclipse.xtext.nodemodel.INode;
+import org.eclipse.xtext.parser.IParseResult;
 import org.eclipse.xtext.resource.XtextResource;
 import org.eclipse.xtext.ui.editor.model.IXtextDocument;
+import org.eclipse.xtext.ui.editor.model.edit.IModification;
 import org.eclipse.xtext.ui.editor.model.edit.IModificationContext;
 import org.eclipse.xtext.ui.editor.model.edit.ISemanticModification;
 import org.eclipse.xtext.ui.editor.quickfix.DefaultQuickfixProvider;
 import org.eclipse.xtext.ui.editor.quickfix.Fix;
 import org.eclipse.xtext.ui.editor.quickfix.IssueResolutionAcceptor;
+import org.eclipse.xtext.util.CancelIndicator;
 import org.eclipse.xtext.util.concurrent.IUnitOfWork;
 import org.eclipse.xtext.validation.Issue;
 
+import java.util.LinkedHashSet;
+import java.util.Set;
+
 /**
  * @author alruiz@google.com (Alex Ruiz)
  */
 public class ProtobufQuickfixProvider extends DefaultQuickfixProvider {
   private static final String ICON_FOR_CHANGE = "change.gif";
 
+  @Inject private ExportedTypeIndex exportedTypes;
+  @Inject private ImportPaths importPaths;
+  @Inject private Imports imports;
   @Inject private IndexedElements indexedElements;
   @Inject private NameResolver nameResolver;
   @Inject private INodes nodes;
+  @Inject private Protobufs protobufs;
+  @Inject private IQualifiedNameConverter qualifiedNameConverter;
   @Inject private Syntaxes syntaxes;
 
   @Fix(SYNTAX_IS_NOT_KNOWN_ERROR)
@@ -124,6 +160,146 @@ public class ProtobufQuickfixProvider extends DefaultQuickfixProvider {
     acceptor.accept(issue, removeDuplicatePackageLabel, description, "remove.gif", modification);
   }
 
+  @Fix(UNUSED_IMPORT_WARNING)
+  public void removeUnusedImport(Issue issue, IssueResolutionAcceptor acceptor) {
+    final Import anImport = element(issue, Import.class);
+    if (anImport == null) {
+      return;
+    }
+    ISemanticModification modification = new ISemanticModification() {
+      @Override public void apply(EObject element, IModificationContext context) throws Exception {
+        if (element == anImport) {
+          remove(anImport);
+        }
+      }
+    };
+    INode node = findActualNodeFor(anImport);
+    String description = nodes.textOf(node);
+    acceptor.accept(issue, removeUnusedImportLabel, description, "remove.gif", modification);
+  }
+
+  @Fix(UNUSED_IMPORT_WARNING)
+  public void removeUnusedImports(Issue issue, IssueResolutionAcceptor acceptor) {
+    ISemanticModification modification = new ISemanticModification() {
+      @Override public void apply(EObject element, IModificationContext context) throws Exception {
+        if (!(element.eContainer() instanceof Protobuf)) {
+          return;
+        }
+        // the file may have changed since it was last linked: imports are unused only according to
+        // the links of all of its cross-references.
+        resolveLazyCrossReferences(element.eResource(), CancelIndicator.NullImpl);
+        for (Import anImport : imports.unusedImportsIn((Protobuf) element.eContainer())) {
+          remove(anImport);
+        }
+      }
+    };
+    acceptor.accept(issue, removeUnusedImportsLabel, removeUnusedImportsDescription, "remove.gif",
+        modification);
+  }
+
+  @Fix(LINKING_DIAGNOSTIC)
+  public void importType(final Issue issue, IssueResolutionAcceptor acceptor) {
+    IModificationContext modificationContext = getModificationContextFactory().createModificationContext(issue);
+    final IXtextDocument document = modificationContext.getXtextDocument();
+    Set<String> paths = document.readOnly(new IUnitOfWork<Set<String>, XtextResource>() {
+      @Override public Set<String> exec(XtextResource state) throws Exception {
+        EClass linkedType = linkedTypeOf(state.getEObject(issue.getUriToProblem().fragment()));
+        String typeName = document.get(issue.getOffset(), issue.getLength()).trim();
+        while (typeName.startsWith(".")) {
+          typeName = typeName.substring(1);
+        }
+        if (linkedType == null || typeName.isEmpty()) {
+          return emptySet();
+        }
+        return importPathsFor(qualifiedNameConverter.toQualifiedName(typeName), linkedType, rootOf(state));
+      }
+    });
+    for (final String path : paths) {
+      IModification modification = new IModification() {
+        @Override public void apply(IModificationContext context) throws Exception {
+          IXtextDocument xtextDocument = context.getXtextDocument();
+          int offset = xtextDocument.readOnly(new IUnitOfWork<Integer, XtextResource>() {
+            @Override public Integer exec(XtextResource state) throws Exception {
+              return offsetOfNewImportIn(rootOf(state));
+            }
+          });
+          String text = "import " + quote(path) + ";";
+          xtextDocument.replace(offset, 0, (offset == 0) ? text + "\n" : "\n" + text);
+        }
+      };
+      String description = String.format(addImportDescription, path);
+      String label = String.format(addImportLabel, path);
+      acceptor.accept(issue, label, description, "import.gif", modification);
+    }
+  }
+
+  private EClass linkedTypeOf(EObject link) {
+    if (link instanceof ComplexTypeLink) {
+      return COMPLEX_TYPE;
+    }
+    return (link instanceof MessageLink) ? MESSAGE : null;
+  }
+
+  private Protobuf rootOf(XtextResource resource) {
+    IParseResult parseResult = resource.getParseResult();
+    EObject root = (parseResult != null) ? parseResult.getRootASTElement() : null;
+    return (root instanceof Protobuf) ? (Protobuf) root : null;
+  }
+
+  // Paths of the files, other than the given one and the ones it already imports, declaring a type
+  // whose fully-qualified name ends with the given name.
+  private Set<String> importPathsFor(QualifiedName name, EClass linkedType, Protobuf root) {
+    if (root == null) {
+      return emptySet();
+    }
+    URI resourceUri = root.eResource().getURI();
+    Set<URI> excluded = new LinkedHashSet<>();
+    excluded.add(resourceUri);
+    for (Import anImport : protobufs.importsIn(root)) {
+      excluded.add(imports.resolvedUriOf(anImport));
+    }
+    Set<String> paths = new LinkedHashSet<>();
+    for (ExportedType type : exportedTypes.typesNamed(name.getLastSegment())) {
+      if (!linkedType.isSuperTypeOf(type.type()) || !endsWith(type.qualifiedName(), name)
+          || !excluded.add(type.fileUri())) {
+        continue;
+      }
+      String path = importPaths.importPathOf(type.fileUri(), resourceUri);
+      if (path != null) {
+        paths.add(path);
+      }
+    }
+    return paths;
+  }
+
+  private boolean endsWith(QualifiedName name, QualifiedName suffix) {
+    int offset = name.getSegmentCount() - suffix.getSegmentCount();
+    if (offset < 0) {
+      return false;
+    }
+    for (int i = 0; i < suffix.getSegmentCount(); i++) {
+      if (!name.getSegment(offset + i).equals(suffix.getSegment(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // New imports go after the last import, or after the package or syntax if there are no imports.
+  private int offsetOfNewImportIn(Protobuf root) {
+    if (root == null) {
+      return 0;
+    }
+    EObject anchor = root.getSyntax();
+    for (ProtobufElement e : root.getElements()) {
+      if (e instanceof Import || e instanceof Package) {
+        anchor = e;
+      }
+    }
+    INode node = (anchor != null) ? findActualNodeFor(anchor) : null;
+    return (node != null) ? node.getOffset() + node.getLength() : 0;
+  }
+
   @Fix(MISSING_MODIFIER_ERROR)
   public void changeModifierToRequired(Issue issue, IssueResolutionAcceptor acceptor) {
     ISemanticModification modification = new ISemanticModification() {
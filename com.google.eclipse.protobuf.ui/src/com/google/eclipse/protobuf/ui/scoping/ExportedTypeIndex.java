@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.ui.scoping;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.COMPLEX_TYPE;
+import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.RPC;
+import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.SERVICE;
+
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.IResourceDescription.Delta;
+import org.eclipse.xtext.resource.IResourceDescription.Event;
+import org.eclipse.xtext.resource.IResourceDescriptions;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * Workspace-wide table of the messages, enums, services and rpcs exported by each file, by simple
+ * name.
+ * <p>
+ * The table is built from the Xtext index the first time it is needed, and then kept up to date
+ * with the changes reported by the index. Looking up a name never loads a resource.
+ * </p>
+ */
+@Singleton public class ExportedTypeIndex {
+  private static final EClass[] INDEXED_TYPES = { COMPLEX_TYPE, SERVICE, RPC };
+
+  private final Event.Listener listener = new Event.Listener() {
+    @Override public void descriptionsChanged(Event event) {
+      update(event.getDeltas());
+    }
+  };
+
+  private IResourceDescriptions xtextIndex;
+
+  // Types by simple name, and by URI of the file exporting them (every indexed file has an entry.)
+  // Both are null until first needed.
+  private Map<String, List<ExportedType>> typesByName;
+  private Map<URI, List<ExportedType>> typesByFile;
+
+  @Inject void listenTo(IResourceDescriptions xtextIndex) {
+    this.xtextIndex = xtextIndex;
+    if (xtextIndex instanceof Event.Source) {
+      ((Event.Source) xtextIndex).addListener(listener);
+    }
+  }
+
+  /**
+   * Returns the messages, enums, services and rpcs in the workspace with the given simple name.
+   * @param simpleName the given simple name.
+   * @return the messages, enums, services and rpcs in the workspace with the given simple name.
+   */
+  public synchronized List<ExportedType> typesNamed(String simpleName) {
+    buildIfNecessary();
+    List<ExportedType> types = typesByName.get(simpleName);
+    if (types == null) {
+      return emptyList();
+    }
+    return unmodifiableList(newArrayList(types));
+  }
+
+  /**
+   * Returns all the messages, enums, services and rpcs in the workspace.
+   * @return all the messages, enums, services and rpcs in the workspace.
+   */
+  public synchronized List<ExportedType> allTypes() {
+    buildIfNecessary();
+    List<ExportedType> types = newArrayList();
+    for (List<ExportedType> inFile : typesByFile.values()) {
+      types.addAll(inFile);
+    }
+    return unmodifiableList(types);
+  }
+
+  /**
+   * Returns the messages, enums, services and rpcs exported by the file with the given URI.
+   * @param fileUri the URI of the given file.
+   * @return the messages, enums, services and rpcs exported by the given file, or {@code null} if
+   * the given file is not in the Xtext index.
+   */
+  public synchronized List<ExportedType> typesIn(URI fileUri) {
+    buildIfNecessary();
+    List<ExportedType> types = typesByFile.get(fileUri);
+    if (types == null) {
+      return null;
+    }
+    return unmodifiableList(newArrayList(types));
+  }
+
+  private void buildIfNecessary() {
+    if (typesByName != null) {
+      return;
+    }
+    typesByName = newHashMap();
+    typesByFile = newHashMap();
+    for (IResourceDescription description : xtextIndex.getAllResourceDescriptions()) {
+      add(description);
+    }
+  }
+
+  synchronized void update(List<Delta> deltas) {
+    if (typesByName == null) {
+      return;
+    }
+    for (Delta delta : deltas) {
+      remove(delta.getUri());
+      if (delta.getNew() != null) {
+        add(delta.getNew());
+      }
+    }
+  }
+
+  private void add(IResourceDescription description) {
+    URI fileUri = description.getURI();
+    List<ExportedType> types = newArrayList();
+    for (EClass indexedType : INDEXED_TYPES) {
+      for (IEObjectDescription exported : description.getExportedObjectsByType(indexedType)) {
+        ExportedType type = new ExportedType(exported.getName(), exported.getEClass(), exported.getEObjectURI());
+        types.add(type);
+        String simpleName = type.qualifiedName.getLastSegment();
+        List<ExportedType> named = typesByName.get(simpleName);
+        if (named == null) {
+          named = newArrayList();
+          typesByName.put(simpleName, named);
+        }
+        named.add(type);
+      }
+    }
+    typesByFile.put(fileUri, types);
+  }
+
+  private void remove(URI fileUri) {
+    List<ExportedType> types = typesByFile.remove(fileUri);
+    if (types == null) {
+      return;
+    }
+    for (ExportedType type : types) {
+      String simpleName = type.qualifiedName.getLastSegment();
+      List<ExportedType> named = typesByName.get(simpleName);
+      named.remove(type);
+      if (named.isEmpty()) {
+        typesByName.remove(simpleName);
+      }
+    }
+  }
+
+  /**
+   * A message, enum, service or rpc, as exported by the file declaring it.
+   */
+  public static class ExportedType {
+    private final QualifiedName qualifiedName;
+    private final EClass type;
+    private final URI uri;
+
+    ExportedType(QualifiedName qualifiedName, EClass type, URI uri) {
+      this.qualifiedName = qualifiedName;
+      this.type = type;
+      this.uri = uri;
+    }
+
+    /**
+     * Returns the fully-qualified name of this type.
+     * @return the fully-qualified name of this type.
+     */
+    public QualifiedName qualifiedName() {
+      return qualifiedName;
+    }
+
+    /**
+     * Returns the class of this type (message, enum, service or rpc.)
+     * @return the class of this type.
+     */
+    public EClass type() {
+      return type;
+    }
+
+    /**
+     * Returns the URI of this type.
+     * @return the URI of this type.
+     */
+    public URI uri() {
+      return uri;
+    }
+
+    /**
+     * Returns the URI of the file declaring this type.
+     * @return the URI of the file declaring this type.
+     */
+    public URI fileUri() {
+      return uri.trimFragment();
+    }
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.ui.scoping;
+
+import static org.eclipse.core.runtime.IPath.SEPARATOR;
+
+import java.util.List;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.emf.common.util.URI;
+
+import com.google.eclipse.protobuf.scoping.IUriResolver;
+import com.google.eclipse.protobuf.util.Uris;
+import com.google.inject.Inject;
+
+/**
+ * Finds the path to write in an "import" to refer to a given file. This is the opposite of what
+ * <code>{@link UriResolver}</code> does.
+ */
+public class ImportPaths {
+  @Inject private IUriResolver resolver;
+  @Inject private Uris uris;
+
+  /**
+   * Returns the shortest path that, written in an "import" in the given file, resolves to the given
+   * file to import. Only the existence of files is checked; no resource is loaded.
+   * @param importedUri the URI of the file to import.
+   * @param importingUri the URI of the file where the "import" is written.
+   * @return the path to import, or {@code null} if the file to import cannot be imported from the
+   * given file.
+   */
+  public String importPathOf(URI importedUri, URI importingUri) {
+    IProject project = uris.projectOfReferredFile(importingUri);
+    List<String> segments = importedUri.segmentsList();
+    // the first segment of a platform resource URI is "resource."
+    int firstSegment = importedUri.isPlatformResource() ? 1 : 0;
+    String path = null;
+    for (int i = segments.size() - 1; i >= firstSegment; i--) {
+      String segment = URI.decode(segments.get(i));
+      path = (path == null) ? segment : segment + SEPARATOR + path;
+      if (resolvesTo(importedUri, resolver.resolveUri(path, importingUri, project))) {
+        return path;
+      }
+    }
+    return null;
+  }
+
+  private boolean resolvesTo(URI expected, String resolved) {
+    return resolved != null && expected.equals(URI.createURI(resolved));
+  }
+}
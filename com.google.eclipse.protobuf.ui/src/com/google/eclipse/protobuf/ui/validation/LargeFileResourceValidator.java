@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.ui.validation;
+
+import org.eclipse.emf.ecore.resource.Resource;
+
+import com.google.eclipse.protobuf.ui.editor.LargeFileMode;
+import com.google.eclipse.protobuf.validation.ProtobufResourceValidator;
+import com.google.inject.Inject;
+
+/**
+ * Validates large files incrementally: only the declarations affected by the edits made since the
+ * last validation are checked again.
+ *
+ * @see LargeFileMode
+ */
+public class LargeFileResourceValidator extends ProtobufResourceValidator {
+  @Inject private LargeFileMode largeFileMode;
+
+  @Override protected boolean shouldValidateIncrementally(Resource resource) {
+    return super.shouldValidateIncrementally(resource) || largeFileMode.isLargeFile(resource);
+  }
+}
@@ -14,10 +14,6 @@ import static java.lang.Double.POSITIVE_INFINITY;
 
 import static org.eclipse.xtext.util.Strings.isEmpty;
 
-import static com.google.common.collect.Maps.newHashMap;
-
-import java.util.Map;
-
 import org.eclipse.xtext.conversion.ValueConverterException;
 import org.eclipse.xtext.conversion.impl.AbstractLexerBasedConverter;
 import org.eclipse.xtext.nodemodel.INode;
@@ -28,13 +24,12 @@ import org.eclipse.xtext.nodemodel.INode;
  * @author alruiz@google.com (Alex Ruiz)
  */
 public class DOUBLEValueConverter extends AbstractLexerBasedConverter<Double> {
-  private static final Map<String, Double> PREDEFINED_VALUES = newHashMap();
-
-  static {
-    PREDEFINED_VALUES.put("nan", NaN);
-    PREDEFINED_VALUES.put("inf", POSITIVE_INFINITY);
-    PREDEFINED_VALUES.put("-inf", NEGATIVE_INFINITY);
-  }
+  // Largest number of decimal digits always represented exactly by a double.
+  private static final int MAX_EXACT_DIGITS = 15;
+  private static final double[] EXACT_POWERS_OF_TEN = {
+    1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19,
+    1e20, 1e21, 1e22
+  };
 
   /**
    * Creates an {@code float} from the given input, if the given input represents a floating-point number.
@@ -48,9 +43,18 @@ public class DOUBLEValueConverter extends AbstractLexerBasedConverter<Double> {
     if (isEmpty(string)) {
       throw new ValueConverterException("Couldn't convert empty string to double.", node, null);
     }
-    Double predefinedValue = PREDEFINED_VALUES.get(string);
-    if (predefinedValue != null) {
-      return predefinedValue;
+    if (string.equals("nan")) {
+      return NaN;
+    }
+    if (string.equals("inf")) {
+      return POSITIVE_INFINITY;
+    }
+    if (string.equals("-inf")) {
+      return NEGATIVE_INFINITY;
+    }
+    double value = parseSimpleDecimal(string);
+    if (!Double.isNaN(value)) {
+      return value;
     }
     try {
       return Double.parseDouble(string);
@@ -59,6 +63,75 @@ public class DOUBLEValueConverter extends AbstractLexerBasedConverter<Double> {
     }
   }
 
+  /*
+   * Parses numbers like "-12.5e3" whose digits fit in a long and whose exponent is small enough for the digits and the
+   * power of ten to be exact doubles. In that case, a single multiplication or division is correctly rounded, and
+   * gives the same result as Double.parseDouble. Returns NaN for any other input.
+   */
+  private static double parseSimpleDecimal(String s) {
+    int length = s.length();
+    int i = 0;
+    boolean negative = s.charAt(0) == '-';
+    if (negative) {
+      i++;
+    }
+    long digits = 0;
+    int digitCount = 0;
+    int exponent = 0;
+    boolean seenDigit = false;
+    boolean seenPoint = false;
+    for (; i < length; i++) {
+      char c = s.charAt(i);
+      if (c >= '0' && c <= '9') {
+        seenDigit = true;
+        if (digits != 0 || c != '0') {
+          if (++digitCount > MAX_EXACT_DIGITS) {
+            return NaN;
+          }
+          digits = digits * 10 + (c - '0');
+        }
+        if (seenPoint) {
+          exponent--;
+        }
+      } else if (c == '.' && !seenPoint) {
+        seenPoint = true;
+      } else {
+        break;
+      }
+    }
+    if (!seenDigit) {
+      return NaN;
+    }
+    if (i < length) {
+      char c = s.charAt(i++);
+      if ((c != 'e' && c != 'E') || i == length) {
+        return NaN;
+      }
+      boolean negativeExponent = s.charAt(i) == '-';
+      if (negativeExponent || s.charAt(i) == '+') {
+        i++;
+      }
+      if (i == length || length - i > 3) {
+        return NaN;
+      }
+      int explicitExponent = 0;
+      for (; i < length; i++) {
+        c = s.charAt(i);
+        if (c < '0' || c > '9') {
+          return NaN;
+        }
+        explicitExponent = explicitExponent * 10 + (c - '0');
+      }
+      exponent += negativeExponent ? -explicitExponent : explicitExponent;
+    }
+    if (exponent < -22 || exponent > 22) {
+      return NaN;
+    }
+    double value = digits;
+    value = (exponent < 0) ? value / EXACT_POWERS_OF_TEN[-exponent] : value * EXACT_POWERS_OF_TEN[exponent];
+    return negative ? -value : value;
+  }
+
   private ValueConverterException parsingError(String string, INode node, Exception cause) {
     return new ValueConverterException("Couldn't convert '" + string + "' to double.", node, cause);
   }
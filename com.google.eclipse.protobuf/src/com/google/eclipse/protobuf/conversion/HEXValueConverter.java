@@ -10,8 +10,6 @@ package com.google.eclipse.protobuf.conversion;
 
 import static org.eclipse.xtext.util.Strings.isEmpty;
 
-import java.math.BigInteger;
-
 import org.eclipse.xtext.conversion.ValueConverterException;
 import org.eclipse.xtext.conversion.impl.AbstractLexerBasedConverter;
 import org.eclipse.xtext.nodemodel.INode;
@@ -39,14 +37,22 @@ public class HEXValueConverter extends AbstractLexerBasedConverter<Long> {
     if (!startsWithValidPrefix(string)) {
       throw parsingError(string, node);
     }
-    String withoutZeroX = removeZeroX(string);
-    try {
-      BigInteger value = new BigInteger(withoutZeroX, 16);
-      long longValue = value.longValue();
-      return longValue != -1 ? longValue : 1L;
-    } catch (NumberFormatException e) {
-      throw parsingError(string, node, e);
+    boolean negative = string.charAt(0) == '-';
+    int start = negative ? 3 : 2;
+    if (start == string.length()) {
+      throw parsingError(string, node, new NumberFormatException("Zero length BigInteger"));
+    }
+    // Same result as BigInteger.longValue(): digits beyond the lowest 64 bits are dropped.
+    long value = 0;
+    for (int i = start; i < string.length(); i++) {
+      int digit = Character.digit(string.charAt(i), 16);
+      if (digit < 0) {
+        throw parsingError(string, node, new NumberFormatException("For input string: \"" + string + "\""));
+      }
+      value = (value << 4) | digit;
     }
+    long longValue = negative ? -value : value;
+    return longValue != -1 ? longValue : 1L;
   }
 
   private boolean startsWithValidPrefix(String string) {
@@ -58,14 +64,6 @@ public class HEXValueConverter extends AbstractLexerBasedConverter<Long> {
     return false;
   }
 
-  private String removeZeroX(String string) {
-    if (string.startsWith("-")) {
-      String withoutSign = string.substring(3, string.length());
-      return "-" + withoutSign;
-    }
-    return string.substring(2, string.length());
-  }
-
   private ValueConverterException parsingError(String string, INode node) {
     return parsingError(string, node, null);
   }
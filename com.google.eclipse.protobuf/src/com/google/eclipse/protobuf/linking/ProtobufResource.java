@@ -8,25 +8,113 @@
  */
 package com.google.eclipse.protobuf.linking;
 
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newLinkedHashMap;
+import static com.google.common.collect.Sets.newHashSet;
+import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.COMPLEX_TYPE_LINK__TARGET;
+import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.EXTENSIBLE_TYPE_LINK__TARGET;
+import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.OPTION_SOURCE__TARGET;
+import static java.util.Collections.singletonList;
+import static org.eclipse.xtext.util.Tuples.create;
+import static org.eclipse.xtext.util.Tuples.pair;
+
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
+import org.eclipse.emf.common.notify.Adapter;
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.common.util.WrappedException;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.xtext.diagnostics.DiagnosticMessage;
+import org.eclipse.xtext.diagnostics.IDiagnosticConsumer;
+import org.eclipse.xtext.diagnostics.Severity;
+import org.eclipse.xtext.linking.ILinkingService;
+import org.eclipse.xtext.linking.impl.IllegalNodeException;
 import org.eclipse.xtext.linking.lazy.LazyLinkingResource;
 import org.eclipse.xtext.nodemodel.INode;
+import org.eclipse.xtext.parser.IParseResult;
+import org.eclipse.xtext.parser.IParser;
+import org.eclipse.xtext.parser.ParseResult;
+import org.eclipse.xtext.resource.impl.ListBasedDiagnosticConsumer;
+import org.eclipse.xtext.scoping.IGlobalScopeProvider;
+import org.eclipse.xtext.util.CancelIndicator;
+import org.eclipse.xtext.util.Pair;
 import org.eclipse.xtext.util.Triple;
 
+import com.google.eclipse.protobuf.parser.LazyAggregateValuesParser;
+import com.google.eclipse.protobuf.protobuf.ComplexType;
+import com.google.eclipse.protobuf.protobuf.ComplexValue;
+import com.google.eclipse.protobuf.protobuf.ComplexTypeLink;
+import com.google.eclipse.protobuf.protobuf.ExtensibleTypeLink;
+import com.google.eclipse.protobuf.protobuf.OneOf;
+import com.google.eclipse.protobuf.protobuf.OptionSource;
+import com.google.eclipse.protobuf.protobuf.Protobuf;
+import com.google.eclipse.protobuf.protobuf.Rpc;
+import com.google.eclipse.protobuf.protobuf.Service;
+import com.google.eclipse.protobuf.protobuf.Stream;
+import com.google.eclipse.protobuf.protobuf.TypeExtension;
+import com.google.eclipse.protobuf.resource.DamagedRegion;
 import com.google.eclipse.protobuf.resource.IResourceVerifier;
+import com.google.eclipse.protobuf.resource.ProtobufResourceScopeCache;
+import com.google.eclipse.protobuf.validation.IncrementalValidationState;
 import com.google.inject.Inject;
 
 /**
  * @author alruiz@google.com (Alex Ruiz)
  */
 public class ProtobufResource extends LazyLinkingResource {
+  /**
+   * Load option indicating that the contents of large aggregate option values should not be parsed
+   * until the resource is validated. Value: {@code Boolean.TRUE}.
+   */
+  public static final String OPTION_LAZY_AGGREGATE_VALUES = ProtobufResource.class.getName() + ".lazyAggregateValues";
+
+  /**
+   * Load option indicating that the node model of the resource should be dropped once the resource
+   * is loaded, and rebuilt the first time it is needed. Value: {@code Boolean.TRUE}.
+   */
+  public static final String OPTION_COMPACT = ProtobufResource.class.getName() + ".compact";
+
+  private static final int MIN_CROSS_REFERENCES_PER_TASK = 64;
+
+  @Inject private IGlobalScopeProvider globalScopeProvider;
   @Inject private IResourceVerifier resourceVerifier;
+  @Inject private LazyAggregateValuesParser lazyAggregateValuesParser;
+  @Inject private ProtobufResourceScopeCache scopeCache;
+
+  private final IncrementalValidationState incrementalValidationState = new IncrementalValidationState();
+  private final List<DamagedRegion> damagedRegions = new CopyOnWriteArrayList<>();
+  // The other file supplying the target of each cross-reference resolved so far, by source object
+  // and reference.
+  private final Map<Pair<EObject, EReference>, URI> linkedFiles = new ConcurrentHashMap<>();
+
+  // Both record the files supplying the targets of cross-references. The precomputed one is
+  // wrapped when created; the other one, the first time it is needed.
+  private volatile ILinkingService precomputedLinkingService;
+  private volatile ILinkingService recordingLinkingService;
+  private volatile boolean lazyAggregateValues;
+  // The text of this resource, while its node model is dropped.
+  private volatile String compactText;
 
   @Override
   protected ProtobufDiagnostic createDiagnostic(Triple<EObject, EReference, INode> t, DiagnosticMessage message) {
@@ -37,6 +125,613 @@ public class ProtobufResource extends LazyLinkingResource {
     if (resourceVerifier.shouldIgnore(uri)) {
       return;
     }
+    lazyAggregateValues = isSet(OPTION_LAZY_AGGREGATE_VALUES, options);
     super.doLoad(inputStream, options);
+    if (isSet(OPTION_COMPACT, options)) {
+      compact();
+    }
+  }
+
+  private static boolean isSet(String option, Map<?, ?> options) {
+    return options != null && Boolean.TRUE.equals(options.get(option));
+  }
+
+  /**
+   * Returns the result of parsing this resource. If the node model of this resource was dropped, it
+   * is rebuilt first.
+   * @return the result of parsing this resource.
+   */
+  @Override public IParseResult getParseResult() {
+    if (compactText != null) {
+      restoreNodeModel();
+    }
+    return super.getParseResult();
+  }
+
+  /**
+   * Returns the text of this resource. If the node model of this resource was dropped, it is not
+   * rebuilt.
+   * @return the text of this resource, or {@code null} if this resource has not been parsed.
+   */
+  public String getText() {
+    String text = compactText;
+    if (text != null) {
+      return text;
+    }
+    IParseResult parseResult = super.getParseResult();
+    if (parseResult == null || parseResult.getRootASTElement() == null || parseResult.getRootNode() == null) {
+      // the node model was dropped after 'compactText' was read.
+      return compactText;
+    }
+    return parseResult.getRootNode().getText();
+  }
+
+  /**
+   * Indicates whether the node model of this resource is currently dropped.
+   * @return {@code true} if the node model of this resource is currently dropped; {@code false}
+   * otherwise.
+   */
+  public boolean isCompact() {
+    return compactText != null;
+  }
+
+  // Drops the node model, keeping only the text of this resource. Resources with errors are not
+  // compacted, since their diagnostics refer to nodes.
+  private synchronized void compact() {
+    IParseResult parseResult = super.getParseResult();
+    if (!(parseResult instanceof ParseResult) || parseResult.getRootNode() == null
+        || parseResult.hasSyntaxErrors() || !getErrors().isEmpty()) {
+      return;
+    }
+    String text = parseResult.getRootNode().getText();
+    TreeIterator<EObject> contents = getAllContents();
+    while (contents.hasNext()) {
+      removeNodes(contents.next());
+    }
+    ((ParseResult) parseResult).setRootNode(null);
+    compactText = text;
+  }
+
+  private static void removeNodes(EObject o) {
+    List<Adapter> adapters = o.eAdapters();
+    for (int i = adapters.size() - 1; i >= 0; i--) {
+      if (adapters.get(i) instanceof INode) {
+        adapters.remove(i);
+      }
+    }
+  }
+
+  /**
+   * Rebuilds the node model of this resource, if it was dropped. The rebuilt nodes are attached to
+   * the existing model objects, which keep their identity. Does nothing if this resource has its
+   * node model.
+   */
+  public synchronized void restoreNodeModel() {
+    String text = compactText;
+    if (text == null) {
+      return;
+    }
+    compactText = null;
+    IParseResult parseResult = super.getParseResult();
+    IParseResult restored = getParser().parse(new StringReader(text));
+    if (parseResult instanceof ParseResult
+        && moveNodes(restored.getRootASTElement(), parseResult.getRootASTElement())) {
+      ((ParseResult) parseResult).setRootNode(restored.getRootNode());
+      return;
+    }
+    // the text did not produce the same model: start over.
+    try {
+      reparse(text);
+    } catch (IOException e) {
+      throw new WrappedException(e);
+    }
+  }
+
+  // Moves the nodes of the model objects in 'source' to the matching model objects in 'target'.
+  private static boolean moveNodes(EObject source, EObject target) {
+    if (source == null || target == null) {
+      return false;
+    }
+    List<EObject> sources = contentsOf(source);
+    List<EObject> targets = contentsOf(target);
+    if (sources.size() != targets.size()) {
+      return false;
+    }
+    for (int i = 0; i < sources.size(); i++) {
+      if (sources.get(i).eClass() != targets.get(i).eClass()) {
+        return false;
+      }
+    }
+    for (int i = 0; i < sources.size(); i++) {
+      List<Adapter> adapters = sources.get(i).eAdapters();
+      for (int j = adapters.size() - 1; j >= 0; j--) {
+        if (adapters.get(j) instanceof INode) {
+          targets.get(i).eAdapters().add(adapters.remove(j));
+        }
+      }
+    }
+    return true;
+  }
+
+  private static List<EObject> contentsOf(EObject root) {
+    List<EObject> contents = newArrayList(root);
+    TreeIterator<EObject> all = root.eAllContents();
+    while (all.hasNext()) {
+      contents.add(all.next());
+    }
+    return contents;
+  }
+
+  @Override public IParser getParser() {
+    return lazyAggregateValues ? lazyAggregateValuesParser : super.getParser();
+  }
+
+  /**
+   * Indicates whether the contents of the large aggregate option values in this resource have not
+   * been parsed yet.
+   * @return {@code true} if this resource was loaded with {@link #OPTION_LAZY_AGGREGATE_VALUES} and
+   * has not been expanded yet; {@code false} otherwise.
+   */
+  public boolean hasLazyAggregateValues() {
+    return lazyAggregateValues;
+  }
+
+  /**
+   * Parses the contents of the aggregate option values skipped when this resource was loaded with
+   * {@link #OPTION_LAZY_AGGREGATE_VALUES}. Does nothing if this resource has already been fully
+   * parsed.
+   * <p>
+   * The contents of the aggregate values are added to the existing model objects, which keep their
+   * identity: cross-references from other resources to this resource stay valid.
+   * </p>
+   */
+  public synchronized void expandAggregateValues() {
+    if (!lazyAggregateValues) {
+      return;
+    }
+    IParseResult parseResult = super.getParseResult();
+    if (!(parseResult instanceof ParseResult) || parseResult.getRootASTElement() == null) {
+      return;
+    }
+    String text = compactText;
+    if (text == null) {
+      if (parseResult.getRootNode() == null) {
+        return;
+      }
+      text = parseResult.getRootNode().getText();
+    }
+    IParseResult expanded = super.getParser().parse(new StringReader(text));
+    EObject expandedRoot = expanded.getRootASTElement();
+    EObject collapsedRoot = parseResult.getRootASTElement();
+    if (expandedRoot == null || !matchesCollapsed(expandedRoot, collapsedRoot)) {
+      // the text did not produce the same model: keep the aggregate values collapsed.
+      return;
+    }
+    lazyAggregateValues = false;
+    compactText = null;
+    TreeIterator<EObject> contents = getAllContents();
+    while (contents.hasNext()) {
+      removeNodes(contents.next());
+    }
+    ListBasedDiagnosticConsumer diagnostics = new ListBasedDiagnosticConsumer();
+    expand(expandedRoot, collapsedRoot, diagnostics);
+    ((ParseResult) parseResult).setRootNode(expanded.getRootNode());
+    getErrors().addAll(diagnostics.getResult(Severity.ERROR));
+    getWarnings().addAll(diagnostics.getResult(Severity.WARNING));
+    incrementalValidationState.invalidate();
+    damageAll();
+  }
+
+  // Indicates whether 'collapsed' is 'expanded' without the contents of its aggregate values.
+  private static boolean matchesCollapsed(EObject expanded, EObject collapsed) {
+    if (expanded.eClass() != collapsed.eClass()) {
+      return false;
+    }
+    for (EReference containment : expanded.eClass().getEAllContainments()) {
+      List<EObject> collapsedContents = containedIn(collapsed, containment);
+      if (collapsed instanceof ComplexValue && collapsedContents.isEmpty()) {
+        continue;
+      }
+      List<EObject> expandedContents = containedIn(expanded, containment);
+      if (expandedContents.size() != collapsedContents.size()) {
+        return false;
+      }
+      for (int i = 0; i < expandedContents.size(); i++) {
+        if (!matchesCollapsed(expandedContents.get(i), collapsedContents.get(i))) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  // Moves the nodes of the model objects in 'expanded' to the matching model objects in
+  // 'collapsed', and the contents of the aggregate values in 'expanded' to the empty aggregate
+  // values in 'collapsed'. The moved contents are linked.
+  private void expand(EObject expanded, EObject collapsed, IDiagnosticConsumer diagnostics) {
+    List<Adapter> adapters = expanded.eAdapters();
+    for (int i = adapters.size() - 1; i >= 0; i--) {
+      if (adapters.get(i) instanceof INode) {
+        collapsed.eAdapters().add(adapters.remove(i));
+      }
+    }
+    for (EReference containment : expanded.eClass().getEAllContainments()) {
+      List<EObject> expandedContents = newArrayList(containedIn(expanded, containment));
+      List<EObject> collapsedContents = containedIn(collapsed, containment);
+      if (collapsed instanceof ComplexValue && containment.isMany() && collapsedContents.isEmpty()) {
+        collapsedContents.addAll(expandedContents);
+        for (EObject moved : expandedContents) {
+          getLinker().linkModel(moved, diagnostics);
+        }
+        continue;
+      }
+      for (int i = 0; i < expandedContents.size(); i++) {
+        expand(expandedContents.get(i), collapsedContents.get(i), diagnostics);
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<EObject> containedIn(EObject o, EReference containment) {
+    Object value = o.eGet(containment);
+    if (containment.isMany()) {
+      return (List<EObject>) value;
+    }
+    return (value == null) ? Collections.<EObject>emptyList() : singletonList((EObject) value);
+  }
+
+  @Override public void update(int offset, int replacedTextLength, String newText) {
+    restoreNodeModel();
+    incrementalValidationState.recordChange(offset, replacedTextLength, newText.length());
+    for (DamagedRegion damagedRegion : damagedRegions) {
+      damagedRegion.recordChange(offset, replacedTextLength, newText.length());
+    }
+    super.update(offset, replacedTextLength, newText);
+  }
+
+  @Override public void reparse(String newContent) throws IOException {
+    compactText = null;
+    linkedFiles.clear();
+    incrementalValidationState.invalidate();
+    damageAll();
+    super.reparse(newContent);
+  }
+
+  @Override protected void doUnload() {
+    incrementalValidationState.invalidate();
+    damageAll();
+    lazyAggregateValues = false;
+    compactText = null;
+    linkedFiles.clear();
+    super.doUnload();
+  }
+
+  /**
+   * Returns the changes made to this resource since it was last validated, and the diagnostics
+   * found by that validation.
+   * @return the state used to validate this resource incrementally.
+   */
+  public IncrementalValidationState getIncrementalValidationState() {
+    return incrementalValidationState;
+  }
+
+  /**
+   * Returns a new region that records the changes made to the text of this resource from now on.
+   * The whole region is damaged when the contents of this resource are replaced or unloaded.
+   * @return a new region that records the changes made to the text of this resource.
+   */
+  public DamagedRegion trackDamage() {
+    DamagedRegion damagedRegion = new DamagedRegion();
+    damagedRegions.add(damagedRegion);
+    return damagedRegion;
+  }
+
+  private void damageAll() {
+    for (DamagedRegion damagedRegion : damagedRegions) {
+      damagedRegion.damageAll();
+    }
+  }
+
+  @Override public ILinkingService getLinkingService() {
+    ILinkingService linkingService = precomputedLinkingService;
+    if (linkingService != null) {
+      return linkingService;
+    }
+    linkingService = recordingLinkingService;
+    if (linkingService == null) {
+      // creating more than one wrapper when called concurrently is harmless: they are stateless.
+      linkingService = new RecordingLinkingService(super.getLinkingService());
+      recordingLinkingService = linkingService;
+    }
+    return linkingService;
+  }
+
+  /**
+   * Returns the URIs of the other files supplying the targets of the cross-references resolved in
+   * this resource. The files are recorded while the cross-references are linked: cross-references not
+   * resolved yet are not taken into account, and no scope is computed by this method.
+   * @return the URIs of the files supplying the targets of the cross-references in this resource.
+   */
+  public Set<URI> linkedFiles() {
+    Set<URI> files = newHashSet();
+    Iterator<Map.Entry<Pair<EObject, EReference>, URI>> entries = linkedFiles.entrySet().iterator();
+    while (entries.hasNext()) {
+      Map.Entry<Pair<EObject, EReference>, URI> entry = entries.next();
+      // objects replaced by a partial parse no longer belong to this resource.
+      if (entry.getKey().getFirst().eResource() != this) {
+        entries.remove();
+        continue;
+      }
+      files.add(entry.getValue());
+    }
+    return files;
+  }
+
+  private void recordLink(EObject source, EReference reference, List<EObject> linked) {
+    Pair<EObject, EReference> key = pair(source, reference);
+    if (linked == null || linked.size() != 1) {
+      linkedFiles.remove(key);
+      return;
+    }
+    EObject target = linked.get(0);
+    Resource resource = target.eResource();
+    URI fileUri = (resource != null) ? resource.getURI() : EcoreUtil.getURI(target).trimFragment();
+    if (fileUri.equals(uri)) {
+      linkedFiles.remove(key);
+    } else {
+      linkedFiles.put(key, fileUri);
+    }
+  }
+
+  @Override public EObject getEObject(String uriFragment) {
+    ProxyResolutionLock lock = proxyResolutionLockOf(lockOwner());
+    if (lock == null) {
+      return super.getEObject(uriFragment);
+    }
+    synchronized (lock) {
+      return super.getEObject(uriFragment);
+    }
+  }
+
+  // The resources of a resource set resolve each other's proxies.
+  private Notifier lockOwner() {
+    ResourceSet resourceSet = getResourceSet();
+    return (resourceSet != null) ? resourceSet : this;
+  }
+
+  private static ProxyResolutionLock proxyResolutionLockOf(Notifier owner) {
+    return (ProxyResolutionLock) EcoreUtil.getExistingAdapter(owner, ProxyResolutionLock.class);
+  }
+
+  /**
+   * Looks up the targets of the unresolved cross-references in this resource using the given
+   * executor. Cross-references declared in the same statement (e.g. the fields of a custom option)
+   * usually depend on each other and are looked up by the same task; independent statements are
+   * looked up concurrently.
+   * <p>
+   * The imported files are loaded, and the cross-references the scopes of other cross-references
+   * depend on (field types, extended types and option sources) are resolved, serially on the calling
+   * thread first. The other targets found are not set in the model: they are used by the next call to
+   * {@link #resolveLazyCrossReferences(CancelIndicator)}, which still runs serially and creates the
+   * same diagnostics as it would without this method. Proxies the concurrent lookups need to resolve
+   * are resolved by one thread at a time. Call {@link #discardPrecomputedCrossReferences()} once the
+   * cross-references have been resolved.
+   * </p>
+   * @param monitor indicates whether the lookup has been canceled.
+   * @param executor runs the lookups.
+   */
+  public void precomputeCrossReferences(CancelIndicator monitor, ExecutorService executor) {
+    // computing the global scope loads the imported files.
+    globalScopeProvider.getScope(this, COMPLEX_TYPE_LINK__TARGET, null);
+    resolveScopeDependencies(monitor);
+    Map<Triple<EObject, EReference, INode>, List<EObject>> links = new ConcurrentHashMap<>();
+    ConcurrentMap<Object, Object> cacheSection = scopeCache.newConcurrentSection();
+    List<Future<?>> tasks = newArrayList();
+    Notifier lockOwner = lockOwner();
+    ProxyResolutionLock lock = null;
+    if (proxyResolutionLockOf(lockOwner) == null) {
+      lock = new ProxyResolutionLock();
+      lockOwner.eAdapters().add(lock);
+    }
+    try {
+      for (List<Triple<EObject, EReference, INode>> batch : batchesOf(unresolvedCrossReferences(monitor))) {
+        tasks.add(executor.submit(new LinkingTask(batch, links, cacheSection, monitor)));
+      }
+      for (Future<?> task : tasks) {
+        try {
+          task.get();
+        } catch (ExecutionException e) {
+          // the cross-references of the failed task are resolved serially.
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          // the tasks still running keep resolving proxies one at a time.
+          lock = null;
+          return;
+        }
+      }
+    } finally {
+      if (lock != null) {
+        lockOwner.eAdapters().remove(lock);
+      }
+    }
+    precomputedLinkingService =
+        new RecordingLinkingService(new PrecomputedLinkingService(super.getLinkingService(), links));
+  }
+
+  /**
+   * Discards the targets found by {@link #precomputeCrossReferences(CancelIndicator, ExecutorService)}.
+   */
+  public void discardPrecomputedCrossReferences() {
+    precomputedLinkingService = null;
+  }
+
+  private void resolveScopeDependencies(CancelIndicator monitor) {
+    TreeIterator<EObject> contents = getAllContents();
+    while (contents.hasNext() && !monitor.isCanceled()) {
+      EObject source = contents.next();
+      EReference reference = scopeDependencyOf(source);
+      if (reference != null) {
+        source.eGet(reference, true);
+      }
+    }
+  }
+
+  private static EReference scopeDependencyOf(EObject o) {
+    if (o instanceof ComplexTypeLink) {
+      return COMPLEX_TYPE_LINK__TARGET;
+    }
+    if (o instanceof ExtensibleTypeLink) {
+      return EXTENSIBLE_TYPE_LINK__TARGET;
+    }
+    return (o instanceof OptionSource) ? OPTION_SOURCE__TARGET : null;
+  }
+
+  private Map<EObject, List<Triple<EObject, EReference, INode>>> unresolvedCrossReferences(
+      CancelIndicator monitor) {
+    Map<EObject, List<Triple<EObject, EReference, INode>>> unresolved = newLinkedHashMap();
+    TreeIterator<EObject> contents = getAllContents();
+    while (contents.hasNext() && !monitor.isCanceled()) {
+      EObject source = contents.next();
+      for (EReference reference : source.eClass().getEAllReferences()) {
+        if (reference.isContainment() || reference.isContainer() || reference.isMany()
+            || !isPotentialLazyCrossReference(reference)) {
+          continue;
+        }
+        EObject target = (EObject) source.eGet(reference, false);
+        if (target == null || !target.eIsProxy()) {
+          continue;
+        }
+        String fragment = ((InternalEObject) target).eProxyURI().fragment();
+        if (!getEncoder().isCrossLinkFragment(this, fragment)) {
+          continue;
+        }
+        EObject statement = statementOf(source);
+        List<Triple<EObject, EReference, INode>> inStatement = unresolved.get(statement);
+        if (inStatement == null) {
+          inStatement = newArrayList();
+          unresolved.put(statement, inStatement);
+        }
+        inStatement.add(getEncoder().decode(this, fragment));
+      }
+    }
+    return unresolved;
+  }
+
+  private static EObject statementOf(EObject source) {
+    EObject current = source;
+    while (current.eContainer() != null && !isDeclarationContainer(current.eContainer())) {
+      current = current.eContainer();
+    }
+    return current;
+  }
+
+  private static boolean isDeclarationContainer(EObject o) {
+    return o instanceof Protobuf || o instanceof ComplexType || o instanceof OneOf
+        || o instanceof TypeExtension || o instanceof Service || o instanceof Rpc || o instanceof Stream;
+  }
+
+  private static List<List<Triple<EObject, EReference, INode>>> batchesOf(
+      Map<EObject, List<Triple<EObject, EReference, INode>>> crossReferencesByStatement) {
+    List<List<Triple<EObject, EReference, INode>>> batches = newArrayList();
+    List<Triple<EObject, EReference, INode>> current = newArrayList();
+    for (List<Triple<EObject, EReference, INode>> inStatement : crossReferencesByStatement.values()) {
+      current.addAll(inStatement);
+      if (current.size() >= MIN_CROSS_REFERENCES_PER_TASK) {
+        batches.add(current);
+        current = newArrayList();
+      }
+    }
+    if (!current.isEmpty()) {
+      batches.add(current);
+    }
+    return batches;
+  }
+
+  // Installed on the resource set while cross-references are looked up concurrently. Resolving a
+  // proxy modifies the model, and may load other resources: until the lock is removed, proxies are
+  // resolved by one thread at a time. Without it, proxies are resolved without synchronization.
+  private static class ProxyResolutionLock extends AdapterImpl {
+    @Override public boolean isAdapterForType(Object type) {
+      return type == ProxyResolutionLock.class;
+    }
+  }
+
+  private class LinkingTask implements Runnable {
+    private final List<Triple<EObject, EReference, INode>> crossReferences;
+    private final Map<Triple<EObject, EReference, INode>, List<EObject>> links;
+    private final ConcurrentMap<Object, Object> cacheSection;
+    private final CancelIndicator monitor;
+
+    LinkingTask(List<Triple<EObject, EReference, INode>> crossReferences,
+        Map<Triple<EObject, EReference, INode>, List<EObject>> links,
+        ConcurrentMap<Object, Object> cacheSection, CancelIndicator monitor) {
+      this.crossReferences = crossReferences;
+      this.links = links;
+      this.cacheSection = cacheSection;
+      this.monitor = monitor;
+    }
+
+    @Override public void run() {
+      ILinkingService linkingService = ProtobufResource.super.getLinkingService();
+      scopeCache.enterConcurrentSection(cacheSection);
+      try {
+        for (Triple<EObject, EReference, INode> crossReference : crossReferences) {
+          if (monitor.isCanceled()) {
+            return;
+          }
+          try {
+            links.put(crossReference, linkingService.getLinkedObjects(
+                crossReference.getFirst(), crossReference.getSecond(), crossReference.getThird()));
+          } catch (IllegalNodeException | RuntimeException e) {
+            // resolved serially, which also reports the error.
+          }
+        }
+      } finally {
+        scopeCache.exitConcurrentSection();
+      }
+    }
+  }
+
+  // Records the file supplying the target of each cross-reference of this resource it resolves.
+  private class RecordingLinkingService implements ILinkingService {
+    private final ILinkingService delegate;
+
+    RecordingLinkingService(ILinkingService delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override public List<EObject> getLinkedObjects(EObject context, EReference reference, INode node)
+        throws IllegalNodeException {
+      List<EObject> linked = delegate.getLinkedObjects(context, reference, node);
+      if (context.eResource() == ProtobufResource.this) {
+        recordLink(context, reference, linked);
+      }
+      return linked;
+    }
+
+    @Override public String getCrossRefNodeAsString(INode node) throws IllegalNodeException {
+      return delegate.getCrossRefNodeAsString(node);
+    }
+  }
+
+  private static class PrecomputedLinkingService implements ILinkingService {
+    private final ILinkingService delegate;
+    private final Map<Triple<EObject, EReference, INode>, List<EObject>> links;
+
+    PrecomputedLinkingService(ILinkingService delegate,
+        Map<Triple<EObject, EReference, INode>, List<EObject>> links) {
+      this.delegate = delegate;
+      this.links = links;
+    }
+
+    @Override public List<EObject> getLinkedObjects(EObject context, EReference reference, INode node)
+        throws IllegalNodeException {
+      List<EObject> linked = links.remove(create(context, reference, node));
+      return (linked != null) ? linked : delegate.getLinkedObjects(context, reference, node);
+    }
+
+    @Override public String getCrossRefNodeAsString(INode node) throws IllegalNodeException {
+      return delegate.getCrossRefNodeAsString(node);
+    }
   }
 }
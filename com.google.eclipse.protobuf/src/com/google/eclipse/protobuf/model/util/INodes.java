@@ -9,7 +9,9 @@
 package com.google.eclipse.protobuf.model.util;
 
 import static org.eclipse.xtext.nodemodel.util.NodeModelUtils.findNodesForFeature;
+import static org.eclipse.xtext.nodemodel.util.NodeModelUtils.getNode;
 
+import com.google.eclipse.protobuf.linking.ProtobufResource;
 import com.google.inject.Singleton;
 
 import org.eclipse.emf.ecore.EObject;
@@ -17,6 +19,7 @@ import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.xtext.AbstractRule;
 import org.eclipse.xtext.RuleCall;
 import org.eclipse.xtext.TerminalRule;
+import org.eclipse.xtext.nodemodel.ICompositeNode;
 import org.eclipse.xtext.nodemodel.ILeafNode;
 import org.eclipse.xtext.nodemodel.INode;
 
@@ -28,6 +31,23 @@ import java.util.List;
  * @author alruiz@google.com (Alex Ruiz)
  */
 @Singleton public class INodes {
+  /**
+   * Returns the node that was used to create the given object. If the object belongs to a resource whose node model
+   * was dropped, the node model is rebuilt first.
+   * @param o the given object.
+   * @return the node that was used to create the given object, or {@code null} if a node cannot be found.
+   */
+  public ICompositeNode nodeOf(EObject o) {
+    restoreNodeModelOf(o);
+    return getNode(o);
+  }
+
+  private static void restoreNodeModelOf(EObject o) {
+    if (o != null && o.eResource() instanceof ProtobufResource) {
+      ((ProtobufResource) o.eResource()).restoreNodeModel();
+    }
+  }
+
   /**
    * Returns the first node that was used to assign values to the given feature for the given object.
    * @param o the given object.
@@ -36,6 +56,7 @@ import java.util.List;
    * a node cannot be found.
    */
   public INode firstNodeForFeature(EObject o, EStructuralFeature feature) {
+    restoreNodeModelOf(o);
     List<INode> nodes = findNodesForFeature(o, feature);
     if (nodes.isEmpty()) {
       return null;
@@ -9,9 +9,15 @@
 package com.google.eclipse.protobuf.model.util;
 
 import static com.google.common.base.Strings.isNullOrEmpty;
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Sets.newHashSet;
+import static java.util.Collections.emptyList;
 import static org.eclipse.xtext.util.Strings.isEmpty;
 
+import com.google.eclipse.protobuf.linking.ProtobufResource;
 import com.google.eclipse.protobuf.protobuf.Import;
+import com.google.eclipse.protobuf.protobuf.Protobuf;
+import com.google.eclipse.protobuf.protobuf.PublicImport;
 import com.google.eclipse.protobuf.protobuf.StringLiteral;
 import com.google.eclipse.protobuf.resource.ResourceSets;
 import com.google.eclipse.protobuf.scoping.IImportResolver;
@@ -25,6 +31,9 @@ import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.jdt.annotation.Nullable;
 
+import java.util.List;
+import java.util.Set;
+
 /**
  * Utility methods related to imports.
  *
@@ -32,6 +41,8 @@ import org.eclipse.jdt.annotation.Nullable;
  */
 public class Imports {
   @Inject private ProtoDescriptorProvider descriptorProvider;
+  @Inject private Protobufs protobufs;
+  @Inject private Resources resources;
   @Inject private ResourceSets resourceSets;
   @Inject private StringLiterals stringLiterals;
   @Inject private IImportResolver importResolver;
@@ -125,6 +136,70 @@ public class Imports {
     return !isEmpty(uri.scheme());
   }
 
+  /**
+   * Returns the imports in the given root that supply none of the targets of the cross-references
+   * in its resource, either directly or through the files they import publicly. Public imports are
+   * never unused, since they make the imported file visible to the files importing this one.
+   * <p>
+   * The files supplying the targets are the ones recorded while linking the resource (see
+   * <code>{@link ProtobufResource#linkedFiles()}</code>,) so the cross-references of the resource
+   * should be resolved before calling this method. No scope is computed.
+   * </p>
+   *
+   * @param root the given root.
+   * @return the unused imports in the given root, or an empty list if the resource of the given root
+   *     has errors: any import may be needed to resolve a cross-reference that is not resolved yet.
+   */
+  public List<Import> unusedImportsIn(Protobuf root) {
+    Resource resource = root.eResource();
+    if (!(resource instanceof ProtobufResource) || !resource.getErrors().isEmpty()) {
+      return emptyList();
+    }
+    Set<URI> linkedFiles = ((ProtobufResource) resource).linkedFiles();
+    List<Import> unused = newArrayList();
+    for (Import anImport : protobufs.importsIn(root)) {
+      if (anImport instanceof PublicImport) {
+        continue;
+      }
+      URI importedUri = importedUriOf(anImport);
+      if (importedUri == null || linkedFiles.contains(importedUri)) {
+        continue;
+      }
+      if (!exportsAnyOf(importedResource(anImport), linkedFiles, newHashSet(importedUri))) {
+        unused.add(anImport);
+      }
+    }
+    return unused;
+  }
+
+  // The URI the scope of the importing file uses for the imported file.
+  private URI importedUriOf(Import anImport) {
+    URI resolvedUri = resolvedUriOf(anImport);
+    if (resolvedUri != null || !hasUnresolvedDescriptorUri(anImport)) {
+      return resolvedUri;
+    }
+    IProject project = EResources.getProjectOf(anImport.eResource());
+    return descriptorProvider.descriptorLocation(project, getPath(anImport));
+  }
+
+  // Whether the given resource imports publicly, directly or transitively, any of the given files.
+  private boolean exportsAnyOf(Resource resource, Set<URI> files, Set<URI> visited) {
+    Protobuf root = (resource != null) ? resources.rootOf(resource) : null;
+    if (root == null) {
+      return false;
+    }
+    for (Import publicImport : protobufs.publicImportsIn(root)) {
+      URI importedUri = resolvedUriOf(publicImport);
+      if (importedUri == null || !visited.add(importedUri)) {
+        continue;
+      }
+      if (files.contains(importedUri) || exportsAnyOf(importedResource(publicImport), files, visited)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Returns the path that is being imported by the given {@link Import} as a {@code String} or null
    * if the {@code anImport.getPath()} is null.
@@ -10,14 +10,16 @@ package com.google.eclipse.protobuf.model.util;
 
 import static java.lang.Math.max;
 import static java.util.Collections.emptyList;
-import static org.eclipse.xtext.util.SimpleAttributeResolver.newResolver;
+
+import static com.google.eclipse.protobuf.model.util.ModelFeatures.modelFeatures;
+import static com.google.eclipse.protobuf.model.util.ModelFeatures.Feature.FIELD_OPTIONS;
+import static com.google.eclipse.protobuf.model.util.ModelFeatures.Feature.INDEX;
 
 import java.util.List;
 
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.xtext.EcoreUtil2;
-import org.eclipse.xtext.util.SimpleAttributeResolver;
 
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Range;
@@ -38,8 +40,6 @@ import com.google.inject.Singleton;
  * @author alruiz@google.com (Alex Ruiz)
  */
 @Singleton public class IndexedElements {
-  private final static SimpleAttributeResolver<EObject, Long> INDEX_RESOLVER = newResolver(long.class, "index");
-
   @Inject private IndexRanges indexRanges;
   @Inject private ModelObjects modelObjects;
 
@@ -115,7 +115,7 @@ import com.google.inject.Singleton;
    */
   @SuppressWarnings("unchecked")
   public List<FieldOption> fieldOptionsOf(IndexedElement e) {
-    List<FieldOption> options = modelObjects.valueOfFeature(e, "fieldOptions", List.class);
+    List<FieldOption> options = modelObjects.valueOfFeature(e, FIELD_OPTIONS, List.class);
     if (options == null) {
       options = emptyList();
     }
@@ -141,6 +141,6 @@ import com.google.inject.Singleton;
    * {@code IndexedElement} is {@code null}.
    */
   public EStructuralFeature indexFeatureOf(IndexedElement e) {
-    return (e != null) ? INDEX_RESOLVER.getAttribute(e) : null;
+    return modelFeatures().featureOf(e, INDEX);
   }
 }
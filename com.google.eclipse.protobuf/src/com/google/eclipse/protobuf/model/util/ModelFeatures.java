@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.model.util;
+
+import java.util.List;
+
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EStructuralFeature;
+
+import com.google.eclipse.protobuf.protobuf.ProtobufPackage;
+
+/**
+ * Per-{@link EClass} table of the structural features shared by several types in the protobuf grammar (e.g. "name" or
+ * "index".) Looking up a feature is an array access, instead of a search by name in the features of the type.
+ */
+public final class ModelFeatures {
+  /**
+   * Structural features shared by several types in the protobuf grammar.
+   */
+  public static enum Feature {
+    /** The {@code String} attribute "name". */
+    NAME("name", String.class),
+    /** The {@code long} attribute "index". */
+    INDEX("index", long.class),
+    /** The {@code String} attribute "importedNamespace". */
+    IMPORTED_NAMESPACE("importedNamespace", String.class),
+    /** The feature "fieldOptions". */
+    FIELD_OPTIONS("fieldOptions", null),
+    /** The feature "source". */
+    SOURCE("source", null),
+    /** The feature "fields". */
+    FIELDS("fields", null);
+
+    final String featureName;
+    final Class<?> attributeType;
+
+    private Feature(String featureName, Class<?> attributeType) {
+      this.featureName = featureName;
+      this.attributeType = attributeType;
+    }
+
+    EStructuralFeature lookUpIn(EClass eClass) {
+      EStructuralFeature feature = eClass.getEStructuralFeature(featureName);
+      if (feature == null || attributeType == null) {
+        return feature;
+      }
+      if (feature instanceof EAttribute && attributeType.equals(feature.getEType().getInstanceClass())) {
+        return feature;
+      }
+      return null;
+    }
+  }
+
+  private static final ModelFeatures INSTANCE = new ModelFeatures(ProtobufPackage.eINSTANCE);
+
+  /**
+   * Returns the table of the types in the protobuf grammar.
+   * @return the table of the types in the protobuf grammar.
+   */
+  public static ModelFeatures modelFeatures() {
+    return INSTANCE;
+  }
+
+  private final EPackage ePackage;
+  private final EStructuralFeature[][] features;
+
+  private ModelFeatures(EPackage ePackage) {
+    this.ePackage = ePackage;
+    List<EClassifier> classifiers = ePackage.getEClassifiers();
+    Feature[] allFeatures = Feature.values();
+    features = new EStructuralFeature[classifiers.size()][];
+    for (EClassifier classifier : classifiers) {
+      if (!(classifier instanceof EClass)) {
+        continue;
+      }
+      EStructuralFeature[] ofClass = new EStructuralFeature[allFeatures.length];
+      for (Feature feature : allFeatures) {
+        ofClass[feature.ordinal()] = feature.lookUpIn((EClass) classifier);
+      }
+      features[classifier.getClassifierID()] = ofClass;
+    }
+  }
+
+  /**
+   * Returns the given structural feature of the given model object.
+   * @param o the given model object.
+   * @param feature the structural feature to look up.
+   * @return the given structural feature of the given model object, or {@code null} if the given model object is
+   * {@code null} or if its type does not have such feature.
+   */
+  public EStructuralFeature featureOf(EObject o, Feature feature) {
+    if (o == null) {
+      return null;
+    }
+    EClass eClass = o.eClass();
+    if (eClass.getEPackage() != ePackage) {
+      return feature.lookUpIn(eClass);
+    }
+    return features[eClass.getClassifierID()][feature.ordinal()];
+  }
+
+  /**
+   * Returns the value of the given structural feature in the given model object.
+   * @param o the given model object.
+   * @param feature the structural feature to read the value from.
+   * @return the value of the given structural feature in the given model object, or {@code null} if the given model
+   * object is {@code null} or if its type does not have such feature.
+   */
+  public Object valueOf(EObject o, Feature feature) {
+    EStructuralFeature structuralFeature = featureOf(o, feature);
+    return (structuralFeature != null) ? o.eGet(structuralFeature) : null;
+  }
+}
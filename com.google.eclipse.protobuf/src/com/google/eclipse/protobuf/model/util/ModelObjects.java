@@ -8,11 +8,14 @@
  */
 package com.google.eclipse.protobuf.model.util;
 
+import static com.google.eclipse.protobuf.model.util.ModelFeatures.modelFeatures;
+
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.emf.ecore.resource.Resource;
 
+import com.google.eclipse.protobuf.model.util.ModelFeatures.Feature;
 import com.google.eclipse.protobuf.protobuf.Package;
 import com.google.eclipse.protobuf.protobuf.Protobuf;
 import com.google.eclipse.protobuf.protobuf.ProtobufElement;
@@ -25,7 +28,21 @@ import com.google.inject.Singleton;
  */
 @Singleton public class ModelObjects {
   /**
-   * Returns the value of the structural feature with a matching name in the given model object.
+   * Returns the value of the given structural feature in the given model object.
+   * @param o the given model object.
+   * @param feature the structural feature to read the value from.
+   * @param valueType the expected type of the value to return.
+   * @return the value of the given structural feature in the given model object, or {@code null} if the given model
+   * object is {@code null} or if the model object does not have such structural feature.
+   * @throws ClassCastException if the value of the structural value is not the same as the expected one.
+   */
+  public <T> T valueOfFeature(EObject o, Feature feature, Class<T> valueType) {
+    return valueType.cast(modelFeatures().valueOf(o, feature));
+  }
+
+  /**
+   * Returns the value of the structural feature with a matching name in the given model object. Prefer
+   * {@link #valueOfFeature(EObject, Feature, Class)} for the features in <code>{@link Feature}</code>.
    * @param o the given model object.
    * @param featureName the name of the structural feature to read the value from.
    * @param valueType the expected type of the value to return.
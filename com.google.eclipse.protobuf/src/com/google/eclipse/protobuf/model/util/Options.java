@@ -12,6 +12,9 @@ import static java.util.Collections.unmodifiableList;
 
 import static org.eclipse.xtext.util.Strings.isEmpty;
 
+import static com.google.eclipse.protobuf.model.util.ModelFeatures.Feature.FIELDS;
+import static com.google.eclipse.protobuf.model.util.ModelFeatures.Feature.SOURCE;
+
 import java.util.List;
 
 import com.google.eclipse.protobuf.naming.NameResolver;
@@ -46,7 +49,7 @@ import com.google.inject.Singleton;
 
   @SuppressWarnings("unchecked")
   public List<OptionField> fieldsOf(AbstractCustomOption option) {
-    List<OptionField> fields = modelObjects.valueOfFeature(option, "fields", List.class);
+    List<OptionField> fields = modelObjects.valueOfFeature(option, FIELDS, List.class);
     return unmodifiableList(fields);
   }
 
@@ -106,7 +109,7 @@ import com.google.inject.Singleton;
    */
   @SuppressWarnings("unchecked")
   public IndexedElement sourceOfLastFieldIn(AbstractCustomOption option) {
-    List<OptionField> fields = modelObjects.valueOfFeature(option, "fields", List.class);
+    List<OptionField> fields = modelObjects.valueOfFeature(option, FIELDS, List.class);
     if (fields == null || fields.isEmpty()) {
       return null;
     }
@@ -126,7 +129,7 @@ import com.google.inject.Singleton;
    * @return the {@code Property} the given option is referring to, or {@code null} if it cannot be found.
    */
   public IndexedElement rootSourceOf(AbstractOption option) {
-    OptionSource source = modelObjects.valueOfFeature(option, "source", OptionSource.class);
+    OptionSource source = modelObjects.valueOfFeature(option, SOURCE, OptionSource.class);
     return source == null ? null : source.getTarget();
   }
 
@@ -16,6 +16,7 @@ import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.xtext.parser.IParseResult;
 import org.eclipse.xtext.resource.XtextResource;
 
+import com.google.eclipse.protobuf.linking.ProtobufResource;
 import com.google.eclipse.protobuf.protobuf.Protobuf;
 import com.google.inject.Singleton;
 
@@ -31,7 +32,8 @@ import com.google.inject.Singleton;
    * @return the root element of the given resource, or {@code null} if the given resource does not have a root element.
    */
   public Protobuf rootOf(Resource resource) {
-    if (resource instanceof XtextResource) {
+    // the node model of a compact resource is not rebuilt to find its root.
+    if (resource instanceof XtextResource && !isCompact(resource)) {
       IParseResult parseResult = ((XtextResource) resource).getParseResult();
       if (parseResult != null) {
         EObject root = parseResult.getRootASTElement();
@@ -47,4 +49,8 @@ import com.google.inject.Singleton;
     }
     return null;
   }
+
+  private static boolean isCompact(Resource resource) {
+    return resource instanceof ProtobufResource && ((ProtobufResource) resource).isCompact();
+  }
 }
@@ -11,6 +11,10 @@ package com.google.eclipse.protobuf.model.util;
 import static com.google.eclipse.protobuf.util.Strings.unquote;
 import static org.eclipse.xtext.util.Strings.convertToJavaString;
 
+import java.util.List;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.eclipse.protobuf.protobuf.StringLiteral;
 import com.google.inject.Singleton;
 
@@ -18,14 +22,54 @@ import com.google.inject.Singleton;
  * Helper methods for working with {@link StringLiteral}s.
  */
 @Singleton public class StringLiterals {
+  // Combined strings per literal, along with the chunks they were combined from.
+  private final Cache<StringLiteral, CombinedString> combinedStrings =
+      CacheBuilder.newBuilder().weakKeys().build();
+
   /**
    * Returns the result of combining the chunks of a string literal.
    */
   public String getCombinedString(StringLiteral stringLiteral) {
-    StringBuilder sb = new StringBuilder();
-    for (String chunk : stringLiteral.getChunks()) {
-      sb.append(convertToJavaString(unquote(chunk)));
+    List<String> chunks = stringLiteral.getChunks();
+    CombinedString cached = combinedStrings.getIfPresent(stringLiteral);
+    if (cached != null && cached.isCombinationOf(chunks)) {
+      return cached.value;
+    }
+    CombinedString combined = new CombinedString(chunks);
+    combinedStrings.put(stringLiteral, combined);
+    return combined.value;
+  }
+
+  private static class CombinedString {
+    final String[] chunks;
+    final String value;
+
+    CombinedString(List<String> chunks) {
+      this.chunks = chunks.toArray(new String[chunks.size()]);
+      value = combine(this.chunks);
+    }
+
+    private static String combine(String[] chunks) {
+      if (chunks.length == 1) {
+        return convertToJavaString(unquote(chunks[0]));
+      }
+      StringBuilder sb = new StringBuilder();
+      for (String chunk : chunks) {
+        sb.append(convertToJavaString(unquote(chunk)));
+      }
+      return sb.toString();
+    }
+
+    boolean isCombinationOf(List<String> otherChunks) {
+      if (chunks.length != otherChunks.size()) {
+        return false;
+      }
+      for (int i = 0; i < chunks.length; i++) {
+        if (chunks[i] != otherChunks.get(i)) {
+          return false;
+        }
+      }
+      return true;
     }
-    return sb.toString();
   }
 }
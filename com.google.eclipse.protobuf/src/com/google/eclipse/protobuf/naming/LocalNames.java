@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.naming;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.eclipse.xtext.naming.QualifiedName;
+
+/**
+ * Read-only list of the local names of an element. Each name is the previous one, prefixed with the name of a
+ * container (or a segment of the package.) A name is created the first time it is accessed, directly from the
+ * segments of its prefixes, without creating the names in between.
+ */
+class LocalNames extends AbstractList<QualifiedName> implements RandomAccess {
+  private final QualifiedName[] prefixes;
+  private final QualifiedName[] names;
+
+  /**
+   * Creates a new <code>{@link LocalNames}</code>.
+   * @param prefixes the name of the element, followed by the prefixes to add, one at a time, to create each of the
+   * other names.
+   */
+  LocalNames(List<QualifiedName> prefixes) {
+    this.prefixes = prefixes.toArray(new QualifiedName[prefixes.size()]);
+    names = new QualifiedName[this.prefixes.length];
+  }
+
+  @Override public QualifiedName get(int index) {
+    QualifiedName name = names[index];
+    if (name == null) {
+      name = createName(index);
+      names[index] = name;
+    }
+    return name;
+  }
+
+  private QualifiedName createName(int index) {
+    if (index == 0) {
+      return prefixes[0];
+    }
+    int segmentCount = 0;
+    for (int i = 0; i <= index; i++) {
+      segmentCount += prefixes[i].getSegmentCount();
+    }
+    String[] segments = new String[segmentCount];
+    int position = 0;
+    for (int i = index; i >= 0; i--) {
+      QualifiedName prefix = prefixes[i];
+      for (int j = 0; j < prefix.getSegmentCount(); j++) {
+        segments[position++] = prefix.getSegment(j);
+      }
+    }
+    return QualifiedName.create(segments);
+  }
+
+  @Override public int size() {
+    return prefixes.length;
+  }
+}
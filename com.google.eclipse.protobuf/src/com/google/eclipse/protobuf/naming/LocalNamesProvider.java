@@ -56,6 +56,9 @@ import com.google.inject.Provider;
  * <li>{@code test.names.Person.PhoneType}</li>
  * </ul>
  * </p>
+ * <p>
+ * Names are created lazily, the first time they are accessed.
+ * </p>
  *
  * @author alruiz@google.com (Alex Ruiz)
  */
@@ -79,24 +82,23 @@ public class LocalNamesProvider {
     Pair<NameType, List<QualifiedName>> cached = cache.get(key, e.eResource(),
         new Provider<Pair<NameType, List<QualifiedName>>>() {
       @Override public Pair<NameType, List<QualifiedName>> get() {
-        List<QualifiedName> allNames = newArrayList();
-        EObject current = e;
         Pair<NameType, String> name = strategy.nameOf(e);
         if (name == null) {
           return EMPTY_NAMES;
         }
-        QualifiedName qualifiedName = qualifiedNameConverter.toQualifiedName(name.getSecond());
-        allNames.add(qualifiedName);
-        while (current.eContainer() != null) {
-          current = current.eContainer();
+        List<QualifiedName> prefixes = newArrayList();
+        prefixes.add(qualifiedNameConverter.toQualifiedName(name.getSecond()));
+        for (EObject current = e.eContainer(); current != null; current = current.eContainer()) {
           String containerName = nameResolver.nameOf(current);
-          if (isEmpty(containerName)) {
-            continue;
+          if (!isEmpty(containerName)) {
+            prefixes.add(qualifiedNameConverter.toQualifiedName(containerName));
           }
-          qualifiedName = qualifiedNameConverter.toQualifiedName(containerName).append(qualifiedName);
-          allNames.add(qualifiedName);
         }
-        allNames.addAll(packages.addPackageNameSegments(modelObjects.packageOf(e), qualifiedName));
+        List<String> packageSegments = packages.segmentsOf(modelObjects.packageOf(e));
+        for (int i = packageSegments.size() - 1; i > 0; i--) {
+          prefixes.add(QualifiedName.create(packageSegments.get(i)));
+        }
+        List<QualifiedName> allNames = new LocalNames(prefixes);
         return pair(name.getFirst(), allNames);
       }
     });
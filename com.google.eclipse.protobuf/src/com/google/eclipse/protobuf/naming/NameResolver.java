@@ -8,13 +8,12 @@
  */
 package com.google.eclipse.protobuf.naming;
 
-import static org.eclipse.xtext.util.SimpleAttributeResolver.NAME_RESOLVER;
-
 import static com.google.eclipse.protobuf.grammar.CommonKeyword.DEFAULT;
+import static com.google.eclipse.protobuf.model.util.ModelFeatures.modelFeatures;
+import static com.google.eclipse.protobuf.model.util.ModelFeatures.Feature.IMPORTED_NAMESPACE;
+import static com.google.eclipse.protobuf.model.util.ModelFeatures.Feature.NAME;
 
 import org.eclipse.emf.ecore.EObject;
-import org.eclipse.emf.ecore.EStructuralFeature;
-import org.eclipse.xtext.util.SimpleAttributeResolver;
 
 import com.google.eclipse.protobuf.protobuf.DefaultValueFieldOption;
 import com.google.inject.Singleton;
@@ -40,21 +39,10 @@ public class NameResolver {
     if (o instanceof DefaultValueFieldOption) {
       return DEFAULT.toString();
     }
-    Object value = nameFeatureOf(o);
+    Object value = modelFeatures().valueOf(o, NAME);
     if (value == null) {
-      value = importedNamespaceFeatureOf(o);
+      value = modelFeatures().valueOf(o, IMPORTED_NAMESPACE);
     }
     return (String) value;
   }
-
-  private Object nameFeatureOf(EObject e) {
-    EStructuralFeature feature = NAME_RESOLVER.getAttribute(e);
-    return (feature != null) ? e.eGet(feature) : null;
-  }
-
-  private Object importedNamespaceFeatureOf(EObject e) {
-    EStructuralFeature feature =
-        SimpleAttributeResolver.newResolver(String.class, "importedNamespace").getAttribute(e);
-    return (feature != null) ? e.eGet(feature) : null;
-  }
 }
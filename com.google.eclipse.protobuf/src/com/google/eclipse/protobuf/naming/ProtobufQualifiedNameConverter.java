@@ -10,29 +10,33 @@ package com.google.eclipse.protobuf.naming;
 
 import static org.eclipse.xtext.util.Strings.isEmpty;
 
-import static com.google.eclipse.protobuf.util.Strings.removeLineBreaksFrom;
+import static com.google.common.collect.Lists.newArrayListWithCapacity;
 
-import java.util.regex.Pattern;
+import java.util.List;
 
 import org.eclipse.xtext.naming.IQualifiedNameConverter.DefaultImpl;
 import org.eclipse.xtext.naming.QualifiedName;
 
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.google.inject.Singleton;
 
 /**
  * Provides support for multi-line qualified names.
+ * <p>
+ * Segments and qualified names are interned: the same package segments show up in most of the names
+ * in the index, and are stored only once.
+ * </p>
  *
  * @author alruiz@google.com (Alex Ruiz)
  */
 @Singleton public class ProtobufQualifiedNameConverter extends DefaultImpl {
-  private final Pattern delimiterPattern = Pattern.compile(delimiterPlusWhitespace());
-
-  private String delimiterPlusWhitespace() {
-    return "\\s*" + Pattern.quote(getDelimiter()) + "\\s*";
-  }
+  private static final Interner<String> SEGMENTS = Interners.newWeakInterner();
+  private static final Interner<QualifiedName> QUALIFIED_NAMES = Interners.newWeakInterner();
 
   /**
-   * Splits the given {@code String} into segments and returns them as a <code>{@link QualifiedName}</code>.
+   * Splits the given {@code String} into segments and returns them as a <code>{@link QualifiedName}</code>. Whitespace
+   * around delimiters and line breaks (including the whitespace around them) are ignored.
    * @param s the given input.
    * @throws IllegalArgumentException if the input is empty or {@code null}.
    */
@@ -40,8 +44,70 @@ import com.google.inject.Singleton;
     if (isEmpty(s)) {
       throw new IllegalArgumentException("Qualified name cannot be null or empty");
     }
-    String withoutLineBreaks = removeLineBreaksFrom(s);
-    String[] segments = delimiterPattern.split(withoutLineBreaks);
-    return QualifiedName.create(segments);
+    String delimiter = getDelimiter();
+    List<String> segments = newArrayListWithCapacity(4);
+    int start = 0;
+    int delimiterIndex;
+    while ((delimiterIndex = s.indexOf(delimiter, start)) >= 0) {
+      segments.add(segment(s, start, delimiterIndex));
+      start = delimiterIndex + delimiter.length();
+    }
+    segments.add(segment(s, start, s.length()));
+    if (segments.size() > 1) {
+      removeTrailingEmptySegments(segments);
+    }
+    return QUALIFIED_NAMES.intern(QualifiedName.create(segments));
+  }
+
+  private static String segment(String s, int start, int end) {
+    int first = start;
+    int last = end;
+    while (first < last && isWhitespace(s.charAt(first))) {
+      first++;
+    }
+    while (last > first && isWhitespace(s.charAt(last - 1))) {
+      last--;
+    }
+    for (int i = first; i < last; i++) {
+      if (isLineBreak(s.charAt(i))) {
+        return SEGMENTS.intern(withoutLineBreaks(s, first, last));
+      }
+    }
+    return SEGMENTS.intern(s.substring(first, last));
+  }
+
+  private static String withoutLineBreaks(String s, int start, int end) {
+    StringBuilder segment = new StringBuilder(end - start);
+    int lineStart = start;
+    for (int i = start; i <= end; i++) {
+      if (i == end || isLineBreak(s.charAt(i))) {
+        int first = lineStart;
+        int last = i;
+        while (first < last && isWhitespace(s.charAt(first))) {
+          first++;
+        }
+        while (last > first && isWhitespace(s.charAt(last - 1))) {
+          last--;
+        }
+        segment.append(s, first, last);
+        lineStart = i + 1;
+      }
+    }
+    return segment.toString();
+  }
+
+  private static void removeTrailingEmptySegments(List<String> segments) {
+    int last = segments.size() - 1;
+    while (last >= 0 && segments.get(last).isEmpty()) {
+      segments.remove(last--);
+    }
+  }
+
+  private static boolean isWhitespace(char c) {
+    return c <= ' ';
+  }
+
+  private static boolean isLineBreak(char c) {
+    return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
   }
 }
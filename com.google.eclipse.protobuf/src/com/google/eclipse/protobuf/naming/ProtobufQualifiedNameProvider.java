@@ -8,13 +8,13 @@
  */
 package com.google.eclipse.protobuf.naming;
 
-import static org.eclipse.xtext.util.Tuples.pair;
-
-import static com.google.eclipse.protobuf.naming.NameType.NORMAL;
-
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.xtext.naming.IQualifiedNameConverter;
 import org.eclipse.xtext.naming.IQualifiedNameProvider;
 import org.eclipse.xtext.naming.QualifiedName;
@@ -41,12 +41,24 @@ import com.google.inject.Provider;
 
 /**
  * Provides fully-qualified names for protobuf elements.
+ * <p>
+ * Names are cached per resource, in one identity-based table per {@link NamingStrategy}. Tables are
+ * discarded when the resource changes.
+ * </p>
  *
  * @author alruiz@google.com (Alex Ruiz)
  */
 public class ProtobufQualifiedNameProvider extends IQualifiedNameProvider.AbstractImpl implements
     IProtobufQualifiedNameProvider {
-  private static final Pair<NameType, QualifiedName> EMPTY_NAME = pair(NORMAL, null);
+  private static final String NAMES_KEY = ProtobufQualifiedNameProvider.class.getName();
+  private static final Object NO_NAME = new Object();
+
+  private static final Provider<ConcurrentMap<NamingStrategy, Map<EObject, Object>>> NEW_NAMES =
+      new Provider<ConcurrentMap<NamingStrategy, Map<EObject, Object>>>() {
+        @Override public ConcurrentMap<NamingStrategy, Map<EObject, Object>> get() {
+          return new ConcurrentHashMap<>();
+        }
+      };
 
   private static final Class<?>[] IGNORED_TYPES = { Protobuf.class, Import.class, AbstractOption.class,
     OptionSource.class, ScalarTypeLink.class, NumberLink.class, BooleanLink.class, StringLink.class, ComplexValue.class,
@@ -64,30 +76,46 @@ public class ProtobufQualifiedNameProvider extends IQualifiedNameProvider.Abstra
     return getFullyQualifiedName(target, normalNamingStrategy);
   }
 
-  @Override public QualifiedName getFullyQualifiedName(final EObject e, final NamingStrategy namingStrategy) {
+  @Override public QualifiedName getFullyQualifiedName(EObject e, NamingStrategy namingStrategy) {
     if (shouldIgnore(e)) {
       return null;
     }
-    Pair<EObject, String> key = pair(e, "fqn");
-    Pair<NameType, QualifiedName> cached = cache.get(key, e.eResource(), new Provider<Pair<NameType, QualifiedName>>() {
-      @Override public Pair<NameType, QualifiedName> get() {
-        EObject current = e;
-        Pair<NameType, String> name = namingStrategy.nameOf(e);
-        if (name == null) {
-          return EMPTY_NAME;
-        }
-        QualifiedName qualifiedName = converter.toQualifiedName(name.getSecond());
-        while (current.eContainer() != null) {
-          current = current.eContainer();
-          QualifiedName parentsQualifiedName = getFullyQualifiedName(current, namingStrategy);
-          if (parentsQualifiedName != null) {
-            return pair(name.getFirst(), parentsQualifiedName.append(qualifiedName));
-          }
-        }
-        return pair(name.getFirst(), addPackage(e, qualifiedName));
+    Map<EObject, Object> names = namesFor(e.eResource(), namingStrategy);
+    Object name = names.get(e);
+    if (name == null) {
+      QualifiedName computed = computeFullyQualifiedName(e, namingStrategy);
+      name = (computed != null) ? computed : NO_NAME;
+      names.put(e, name);
+    }
+    return (name != NO_NAME) ? (QualifiedName) name : null;
+  }
+
+  private Map<EObject, Object> namesFor(Resource resource, NamingStrategy namingStrategy) {
+    ConcurrentMap<NamingStrategy, Map<EObject, Object>> namesByStrategy = cache.get(NAMES_KEY, resource, NEW_NAMES);
+    Map<EObject, Object> names = namesByStrategy.get(namingStrategy);
+    if (names == null) {
+      Map<EObject, Object> newNames = new ConcurrentHashMap<>();
+      names = namesByStrategy.putIfAbsent(namingStrategy, newNames);
+      if (names == null) {
+        names = newNames;
+      }
+    }
+    return names;
+  }
+
+  private QualifiedName computeFullyQualifiedName(EObject e, NamingStrategy namingStrategy) {
+    Pair<NameType, String> name = namingStrategy.nameOf(e);
+    if (name == null) {
+      return null;
+    }
+    QualifiedName qualifiedName = converter.toQualifiedName(name.getSecond());
+    for (EObject current = e.eContainer(); current != null; current = current.eContainer()) {
+      QualifiedName parentsQualifiedName = getFullyQualifiedName(current, namingStrategy);
+      if (parentsQualifiedName != null) {
+        return parentsQualifiedName.append(qualifiedName);
       }
-    });
-    return cached.getSecond();
+    }
+    return addPackage(e, qualifiedName);
   }
 
   private boolean shouldIgnore(EObject e) {
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.parser;
+
+import static com.google.common.collect.Lists.newArrayList;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+import org.antlr.runtime.CharStream;
+import org.antlr.runtime.CommonToken;
+import org.antlr.runtime.Token;
+import org.antlr.runtime.TokenSource;
+
+/**
+ * Token source that hides the contents of large aggregate option values (e.g.
+ * <code>option (opt) = { ... };</code>) from the parser.
+ * <p>
+ * The tokens between the braces (or angle brackets) of an aggregate value containing at least
+ * {@link #MIN_COLLAPSED_TOKENS} tokens are replaced by a single whitespace token covering the same
+ * text. The value is then parsed as an empty aggregate: the text and offsets of the node model do
+ * not change, but no model objects, nodes or cross-references are created for its contents.
+ * </p>
+ */
+public class AggregateValueCollapsingTokenSource implements TokenSource {
+  /** The minimum number of tokens inside an aggregate value for it to be collapsed. */
+  public static final int MIN_COLLAPSED_TOKENS = 64;
+
+  private final TokenSource delegate;
+  private final TokenTypes types;
+  private final Deque<Token> pending = new ArrayDeque<>();
+
+  private Token lastVisible;
+
+  /**
+   * Creates a new <code>{@link AggregateValueCollapsingTokenSource}</code>.
+   * @param delegate the token source to read tokens from.
+   * @param tokenDefs the names of the token types, as returned by the parser's
+   * {@code ITokenDefProvider}.
+   */
+  public AggregateValueCollapsingTokenSource(TokenSource delegate, Map<Integer, String> tokenDefs) {
+    this.delegate = delegate;
+    types = new TokenTypes(tokenDefs);
+  }
+
+  @Override public Token nextToken() {
+    if (!pending.isEmpty()) {
+      return pending.poll();
+    }
+    Token token = delegate.nextToken();
+    if (types.isHidden(token)) {
+      return token;
+    }
+    boolean afterEquals = lastVisible != null && lastVisible.getType() == types.equals;
+    lastVisible = token;
+    if (afterEquals && types.isOpening(token)) {
+      collapseAggregateValue();
+    }
+    return token;
+  }
+
+  private void collapseAggregateValue() {
+    List<Token> contents = newArrayList();
+    int depth = 1;
+    while (true) {
+      Token token = delegate.nextToken();
+      if (token.getType() == Token.EOF) {
+        // not terminated: let the parser report the error.
+        pending.addAll(contents);
+        pending.add(token);
+        lastVisible = token;
+        return;
+      }
+      if (types.isOpening(token)) {
+        depth++;
+      } else if (types.isClosing(token) && --depth == 0) {
+        if (contents.size() >= MIN_COLLAPSED_TOKENS) {
+          pending.add(collapse(contents));
+        } else {
+          pending.addAll(contents);
+        }
+        pending.add(token);
+        lastVisible = token;
+        return;
+      }
+      contents.add(token);
+    }
+  }
+
+  private Token collapse(List<Token> contents) {
+    CommonToken first = (CommonToken) contents.get(0);
+    CommonToken last = (CommonToken) contents.get(contents.size() - 1);
+    CharStream input = first.getInputStream();
+    CommonToken collapsed = new CommonToken(input, types.whitespace, Token.DEFAULT_CHANNEL,
+        first.getStartIndex(), last.getStopIndex());
+    collapsed.setLine(first.getLine());
+    collapsed.setCharPositionInLine(first.getCharPositionInLine());
+    return collapsed;
+  }
+
+  @Override public String getSourceName() {
+    return delegate.getSourceName();
+  }
+
+  private static class TokenTypes {
+    final int whitespace;
+    final int singleLineComment;
+    final int multiLineComment;
+    final int equals;
+    final int openingBrace;
+    final int closingBrace;
+    final int openingAngleBracket;
+    final int closingAngleBracket;
+
+    TokenTypes(Map<Integer, String> tokenDefs) {
+      whitespace = typeOf("RULE_WS", tokenDefs);
+      singleLineComment = typeOf("RULE_SL_COMMENT", tokenDefs);
+      multiLineComment = typeOf("RULE_ML_COMMENT", tokenDefs);
+      equals = typeOf("'='", tokenDefs);
+      openingBrace = typeOf("'{'", tokenDefs);
+      closingBrace = typeOf("'}'", tokenDefs);
+      openingAngleBracket = typeOf("'<'", tokenDefs);
+      closingAngleBracket = typeOf("'>'", tokenDefs);
+    }
+
+    private static int typeOf(String name, Map<Integer, String> tokenDefs) {
+      for (Map.Entry<Integer, String> entry : tokenDefs.entrySet()) {
+        if (name.equals(entry.getValue())) {
+          return entry.getKey();
+        }
+      }
+      throw new IllegalArgumentException("Unknown token: " + name);
+    }
+
+    boolean isHidden(Token token) {
+      int type = token.getType();
+      return type == whitespace || type == singleLineComment || type == multiLineComment;
+    }
+
+    boolean isOpening(Token token) {
+      int type = token.getType();
+      return type == openingBrace || type == openingAngleBracket;
+    }
+
+    boolean isClosing(Token token) {
+      int type = token.getType();
+      return type == closingBrace || type == closingAngleBracket;
+    }
+  }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.parser;
+
+import org.antlr.runtime.CharStream;
+import org.antlr.runtime.TokenSource;
+import org.eclipse.xtext.parser.antlr.ITokenDefProvider;
+
+import com.google.eclipse.protobuf.parser.antlr.ProtobufParser;
+import com.google.inject.Inject;
+
+/**
+ * Parser that does not parse the contents of large aggregate option values.
+ *
+ * @see AggregateValueCollapsingTokenSource
+ */
+public class LazyAggregateValuesParser extends ProtobufParser {
+  @Inject private ITokenDefProvider tokenDefProvider;
+
+  @Override protected TokenSource createLexer(CharStream stream) {
+    return new AggregateValueCollapsingTokenSource(super.createLexer(stream), tokenDefProvider.getTokenDefMap());
+  }
+}
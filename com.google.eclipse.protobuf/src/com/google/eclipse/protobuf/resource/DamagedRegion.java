@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.resource;
+
+import org.eclipse.xtext.nodemodel.INode;
+
+/**
+ * Region of the text of a resource changed since the last time it was cleared. Nodes overlapping
+ * this region may have been reparsed, and anything computed from them may be out of date.
+ */
+public class DamagedRegion {
+  private int start = -1;
+  private int end = -1;
+  private boolean everything;
+
+  /**
+   * Records a change in the text of the resource.
+   * @param offset the offset of the change.
+   * @param replacedLength the length of the replaced text.
+   * @param newLength the length of the new text.
+   */
+  public synchronized void recordChange(int offset, int replacedLength, int newLength) {
+    if (start < 0) {
+      start = offset;
+      end = offset + newLength;
+      return;
+    }
+    int shiftedEnd = end;
+    if (shiftedEnd > offset + replacedLength) {
+      shiftedEnd += newLength - replacedLength;
+    }
+    start = Math.min(start, offset);
+    end = Math.max(shiftedEnd, offset + newLength);
+  }
+
+  /**
+   * Marks the whole text of the resource as damaged (e.g. after its contents were replaced.)
+   */
+  public synchronized void damageAll() {
+    everything = true;
+  }
+
+  /**
+   * Marks the whole text of the resource as undamaged.
+   */
+  public synchronized void clear() {
+    start = -1;
+    end = -1;
+    everything = false;
+  }
+
+  /**
+   * Indicates whether the whole text of the resource is damaged.
+   * @return {@code true} if the whole text of the resource is damaged; {@code false} otherwise.
+   */
+  public synchronized boolean isEverythingDamaged() {
+    return everything;
+  }
+
+  /**
+   * Indicates whether the given node overlaps this region.
+   * @param node the given node.
+   * @return {@code true} if the given node is {@code null} or overlaps this region; {@code false}
+   * otherwise.
+   */
+  public synchronized boolean isDamaged(INode node) {
+    if (node == null || everything) {
+      return true;
+    }
+    if (start < 0) {
+      return false;
+    }
+    int nodeStart = node.getTotalOffset();
+    int nodeEnd = nodeStart + node.getTotalLength();
+    return nodeStart <= end && start <= nodeEnd;
+  }
+}
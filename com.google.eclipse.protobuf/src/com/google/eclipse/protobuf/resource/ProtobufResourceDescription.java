@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.resource;
+
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.xtext.resource.IDefaultResourceDescriptionStrategy;
+import org.eclipse.xtext.resource.IReferenceDescription;
+import org.eclipse.xtext.resource.impl.DefaultResourceDescription;
+import org.eclipse.xtext.util.IResourceScopeCache;
+
+import com.google.eclipse.protobuf.linking.ProtobufResource;
+
+/**
+ * Description of a file in the Xtext index. The aggregate option values of a file loaded with
+ * {@link ProtobufResource#OPTION_LAZY_AGGREGATE_VALUES} are parsed only when the cross-references of
+ * the file are described, so the index contains the cross-references inside them. Looking up the
+ * exported objects of the file leaves it as loaded.
+ */
+public class ProtobufResourceDescription extends DefaultResourceDescription {
+  public ProtobufResourceDescription(
+      Resource resource, IDefaultResourceDescriptionStrategy strategy, IResourceScopeCache cache) {
+    super(resource, strategy, cache);
+  }
+
+  @Override public Iterable<IReferenceDescription> getReferenceDescriptions() {
+    Resource resource = getResource();
+    if (resource instanceof ProtobufResource) {
+      ((ProtobufResource) resource).expandAggregateValues();
+    }
+    return super.getReferenceDescriptions();
+  }
+}
@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.resource;
+
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.xtext.resource.IDefaultResourceDescriptionStrategy;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.impl.DefaultResourceDescriptionManager;
+
+import com.google.inject.Singleton;
+
+/**
+ * Describes files in the Xtext index using {@link ProtobufResourceDescription}s.
+ */
+@Singleton public class ProtobufResourceDescriptionManager extends DefaultResourceDescriptionManager {
+  @Override protected IResourceDescription internalGetResourceDescription(
+      Resource resource, IDefaultResourceDescriptionStrategy strategy) {
+    return new ProtobufResourceDescription(resource, strategy, getCache());
+  }
+}
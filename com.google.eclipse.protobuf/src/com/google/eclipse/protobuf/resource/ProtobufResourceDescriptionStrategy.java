@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.resource;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.xtext.resource.impl.DefaultResourceDescriptionStrategy;
+
+import com.google.eclipse.protobuf.protobuf.ComplexTypeLink;
+import com.google.inject.Singleton;
+
+/**
+ * Describes the cross-references of a file in the Xtext index. Besides the references to other files,
+ * the types of fields are recorded even when they are declared in the same file, so that which types
+ * each message embeds can be read from the index, without linking the file again.
+ */
+@Singleton public class ProtobufResourceDescriptionStrategy extends DefaultResourceDescriptionStrategy {
+  @Override protected boolean isResolvedAndExternal(EObject from, EObject to) {
+    if (from instanceof ComplexTypeLink && to != null && !to.eIsProxy() && to.eResource() != null) {
+      return true;
+    }
+    return super.isResolvedAndExternal(from, to);
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.resource;
+
+import static org.eclipse.xtext.util.Tuples.pair;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.xtext.util.OnChangeEvictingCache;
+
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+
+/**
+ * Resource scope cache that can be shared by the threads resolving the cross-references of a
+ * resource concurrently.
+ * <p>
+ * Outside of a concurrent section this cache behaves exactly like {@link OnChangeEvictingCache}.
+ * Inside a concurrent section (see {@link #enterConcurrentSection(ConcurrentMap)}) values are
+ * stored in the section's {@link ConcurrentMap} instead of the resource adapters, which are not
+ * thread-safe. Values are computed outside of any lock, so two threads may compute the same value,
+ * but only the first one to finish is kept.
+ * </p>
+ */
+@Singleton public class ProtobufResourceScopeCache extends OnChangeEvictingCache {
+  private static final Object NULL_VALUE = new Object();
+
+  private static final ThreadLocal<ConcurrentMap<Object, Object>> concurrentSection = new ThreadLocal<>();
+
+  /**
+   * Creates the storage for a new concurrent section.
+   * @return the storage for a new concurrent section.
+   */
+  public ConcurrentMap<Object, Object> newConcurrentSection() {
+    return new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Makes the current thread use the given storage until {@link #exitConcurrentSection()} is called.
+   * @param section the storage shared by all the threads of the concurrent section.
+   */
+  public void enterConcurrentSection(ConcurrentMap<Object, Object> section) {
+    concurrentSection.set(section);
+  }
+
+  /**
+   * Makes the current thread use the resource adapters again.
+   */
+  public void exitConcurrentSection() {
+    concurrentSection.remove();
+  }
+
+  @Override public <T> T get(Object key, Resource resource, Provider<T> provider) {
+    ConcurrentMap<Object, Object> section = concurrentSection.get();
+    if (section == null || resource == null) {
+      return super.get(key, resource, provider);
+    }
+    Object sectionKey = pair(resource, key);
+    Object value = section.get(sectionKey);
+    if (value == null) {
+      T computed = provider.get();
+      value = section.putIfAbsent(sectionKey, computed == null ? NULL_VALUE : computed);
+      if (value == null) {
+        return computed;
+      }
+    }
+    return unwrap(value);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T unwrap(Object value) {
+    return (value == NULL_VALUE) ? null : (T) value;
+  }
+}
@@ -8,10 +8,20 @@
  */
 package com.google.eclipse.protobuf.resource;
 
+import static com.google.eclipse.protobuf.util.SystemProperties.isCompactImportsEnabled;
+import static com.google.eclipse.protobuf.util.SystemProperties.isLazyAggregateValuesEnabled;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
 
+import com.google.eclipse.protobuf.linking.ProtobufResource;
 import com.google.inject.Singleton;
 
 /**
@@ -20,9 +30,16 @@ import com.google.inject.Singleton;
  * @author alruiz@google.com (Alex Ruiz)
  */
 @Singleton public class ResourceSets {
+  private static Logger logger = Logger.getLogger(ResourceSets.class);
 
   /**
    * Finds in the given <code>{@link ResourceSet}</code> the resource referred by the given URI.
+   * <p>
+   * If the resource has not been loaded yet, it is loaded with
+   * {@link ProtobufResource#OPTION_LAZY_AGGREGATE_VALUES} if lazy parsing of aggregate values is
+   * enabled, and with {@link ProtobufResource#OPTION_COMPACT} if compact loading of imported files
+   * is enabled.
+   * </p>
    * @param resourceSet a collection of resources.
    * @param uri the given URI.
    * @return the resource referred by the given URI, or {@code null} is the given {@code ResourceSet} does
@@ -30,9 +47,76 @@ import com.google.inject.Singleton;
    */
   public Resource findResource(ResourceSet resourceSet, URI uri) {
     try {
+      if ((isLazyAggregateValuesEnabled() || isCompactImportsEnabled())
+          && resourceSet.getResource(uri, false) == null) {
+        return loadImportedResource(resourceSet, uri);
+      }
       return resourceSet.getResource(uri, true);
     } catch (Throwable t) {
       return null;
     }
   }
+
+  private Resource loadImportedResource(ResourceSet resourceSet, URI uri) throws Exception {
+    Resource resource = resourceSet.createResource(uri);
+    if (resource == null) {
+      return null;
+    }
+    resource.load(loadOptions(resourceSet));
+    return resource;
+  }
+
+  private static Map<Object, Object> loadOptions(ResourceSet resourceSet) {
+    Map<Object, Object> options = new HashMap<>(resourceSet.getLoadOptions());
+    if (isLazyAggregateValuesEnabled()) {
+      options.put(ProtobufResource.OPTION_LAZY_AGGREGATE_VALUES, Boolean.TRUE);
+    }
+    if (isCompactImportsEnabled()) {
+      options.put(ProtobufResource.OPTION_COMPACT, Boolean.TRUE);
+    }
+    return options;
+  }
+
+  /**
+   * Loads the resource referred by the given URI, with the same options as
+   * {@link #findResource(ResourceSet, URI)}, without adding it to the given
+   * <code>{@link ResourceSet}</code>. The resource can be loaded by any thread, since the
+   * {@code ResourceSet} is not modified; it is then added with {@link #attach(ResourceSet, Resource)}.
+   * @param resourceSet the collection of resources the loaded resource is meant for.
+   * @param uri the URI of the resource to load.
+   * @return the loaded resource, or {@code null} if it could not be loaded.
+   */
+  public Resource loadDetached(ResourceSet resourceSet, URI uri) {
+    Resource.Factory factory = resourceSet.getResourceFactoryRegistry().getFactory(uri);
+    if (factory == null) {
+      return null;
+    }
+    Resource resource = factory.createResource(uri);
+    Map<Object, Object> options = loadOptions(resourceSet);
+    try (InputStream contents = resourceSet.getURIConverter().createInputStream(uri, options)) {
+      resource.load(contents, options);
+      return resource;
+    } catch (IOException | RuntimeException e) {
+      logger.error("Unable to load " + uri, e);
+      return null;
+    }
+  }
+
+  /**
+   * Adds a resource loaded with {@link #loadDetached(ResourceSet, URI)} to the given
+   * <code>{@link ResourceSet}</code>, unless it already contains a resource with the same URI. Must
+   * be called by a thread allowed to modify the {@code ResourceSet} (e.g. while holding the lock of
+   * the document whose resource is in the {@code ResourceSet}.)
+   * @param resourceSet a collection of resources.
+   * @param resource the resource to add.
+   * @return the resource in the given {@code ResourceSet} with the URI of the given resource.
+   */
+  public Resource attach(ResourceSet resourceSet, Resource resource) {
+    Resource existing = resourceSet.getResource(resource.getURI(), false);
+    if (existing != null) {
+      return existing;
+    }
+    resourceSet.getResources().add(resource);
+    return resource;
+  }
 }
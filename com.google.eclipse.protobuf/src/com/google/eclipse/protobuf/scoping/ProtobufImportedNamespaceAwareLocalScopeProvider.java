@@ -8,9 +8,12 @@
  */
 package com.google.eclipse.protobuf.scoping;
 
-import java.lang.reflect.Array;
+import static java.util.Collections.unmodifiableList;
+
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.ecore.EClass;
@@ -26,6 +29,8 @@ import org.eclipse.xtext.scoping.impl.ImportScope;
 import org.eclipse.xtext.scoping.impl.ImportedNamespaceAwareLocalScopeProvider;
 import org.eclipse.xtext.util.Strings;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.eclipse.protobuf.naming.ProtobufQualifiedNameConverter;
 import com.google.inject.Inject;
 
@@ -40,6 +45,13 @@ public class ProtobufImportedNamespaceAwareLocalScopeProvider
   @Inject private IGlobalScopeProvider globalScopeProvider;
 
   private static final boolean WILDCARD = true;
+  private static final int MAX_CACHED_NAMESPACES = 1024;
+
+  // Normalizers for the inner namespaces of a package, shared by all the files declaring that package.
+  private static final Cache<String, List<ImportNormalizer>> innerNamespaceResolvers =
+      CacheBuilder.newBuilder().maximumSize(MAX_CACHED_NAMESPACES).build();
+  private static final Cache<String, List<ImportNormalizer>> innerNamespaceResolversIgnoringCase =
+      CacheBuilder.newBuilder().maximumSize(MAX_CACHED_NAMESPACES).build();
 
   @Override
   protected ImportScope createImportScope(
@@ -84,17 +96,28 @@ public class ProtobufImportedNamespaceAwareLocalScopeProvider
    * @return a list of the resolvers for an imported namespace
    */
   private List<ImportNormalizer> createResolversForInnerNamespaces(
+      final String namespace, final boolean ignoreCase) {
+    Cache<String, List<ImportNormalizer>> cache =
+        ignoreCase ? innerNamespaceResolversIgnoringCase : innerNamespaceResolvers;
+    try {
+      return cache.get(namespace, new Callable<List<ImportNormalizer>>() {
+        @Override public List<ImportNormalizer> call() {
+          return unmodifiableList(doCreateResolversForInnerNamespaces(namespace, ignoreCase));
+        }
+      });
+    } catch (ExecutionException e) {
+      return doCreateResolversForInnerNamespaces(namespace, ignoreCase);
+    }
+  }
+
+  private List<ImportNormalizer> doCreateResolversForInnerNamespaces(
       String namespace, boolean ignoreCase) {
-    String[] splitValue = namespace.split("\\.");
     List<ImportNormalizer> importedNamespaceResolvers = new ArrayList<>();
-    String currentNamespaceResolver = "";
-    for (int i = 0; i < Array.getLength(splitValue) - 1; i++) {
-      currentNamespaceResolver += splitValue[i] + ".";
-      ImportNormalizer resolver =
-          createImportedNamespaceResolver(currentNamespaceResolver, ignoreCase);
-      if (resolver != null) {
-        importedNamespaceResolvers.add(resolver);
-      }
+    QualifiedName qualifiedName = qualifiedNameConverter.toQualifiedName(namespace);
+    int segmentCount = qualifiedName.getSegmentCount();
+    for (int i = 1; i < segmentCount; i++) {
+      importedNamespaceResolvers.add(
+          doCreateImportNormalizer(qualifiedName.skipLast(segmentCount - i), WILDCARD, ignoreCase));
     }
     return importedNamespaceResolvers;
   }
@@ -8,6 +8,13 @@
  */
 package com.google.eclipse.protobuf.scoping;
 
+import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.COMPLEX_TYPE_LINK__TARGET;
+import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.EXTENSIBLE_TYPE_LINK__TARGET;
+import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.FIELD_NAME__TARGET;
+import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.LITERAL_LINK__TARGET;
+import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.MESSAGE_LINK__TARGET;
+import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.OPTION_FIELD__TARGET;
+import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.OPTION_SOURCE__TARGET;
 import static com.google.eclipse.protobuf.util.Tracer.DEBUG_SCOPING;
 import static com.google.eclipse.protobuf.validation.ProtobufResourceValidator.getScopeProviderTimingCollector;
 import com.google.eclipse.protobuf.naming.ProtobufQualifiedNameConverter;
@@ -32,6 +39,7 @@ import com.google.eclipse.protobuf.protobuf.OptionField;
 import com.google.eclipse.protobuf.protobuf.OptionSource;
 import com.google.eclipse.protobuf.protobuf.Package;
 import com.google.eclipse.protobuf.protobuf.Protobuf;
+import com.google.eclipse.protobuf.protobuf.ProtobufPackage;
 import com.google.eclipse.protobuf.protobuf.TypeLink;
 import com.google.eclipse.protobuf.protobuf.ValueField;
 import com.google.eclipse.protobuf.util.EResources;
@@ -46,13 +54,17 @@ import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.IEObjectDescription;
 import org.eclipse.xtext.scoping.IScope;
 import org.eclipse.xtext.scoping.impl.AbstractDeclarativeScopeProvider;
 import org.eclipse.xtext.scoping.impl.ImportNormalizer;
+import org.eclipse.xtext.scoping.impl.SimpleScope;
 import org.eclipse.xtext.util.IResourceScopeCache;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * A scope provider for the Protobuf language.
@@ -60,6 +72,9 @@ import java.util.List;
  * @author atrookey@google.com (Alexander Rookey)
  */
 public class ProtobufScopeProvider extends AbstractDeclarativeScopeProvider {
+  /** Returned by {@code dispatchScope} for the combinations it does not handle; compared by identity. */
+  private static final IScope NOT_HANDLED =
+      new SimpleScope(Collections.<IEObjectDescription>emptyList());
 
   @Inject private ProtoDescriptorProvider descriptorProvider;
   @Inject private IResourceScopeCache cache;
@@ -117,18 +132,18 @@ public class ProtobufScopeProvider extends AbstractDeclarativeScopeProvider {
    */
   private IScope createNormalizedScopeForIndexedElement(
       IndexedElement indexedElement, EReference reference) {
-    HashMap<EReference, IScope> scopeMap =
+    ConcurrentMap<EReference, IScope> scopeMap =
         cache.get(
             indexedElement,
             indexedElement.eResource(),
-            new Provider<HashMap<EReference, IScope>>() {
+            new Provider<ConcurrentMap<EReference, IScope>>() {
               @Override
-              public HashMap<EReference, IScope> get() {
-                return new HashMap<>();
+              public ConcurrentMap<EReference, IScope> get() {
+                return new ConcurrentHashMap<>();
               }
             });
-    if (!scopeMap.containsKey(reference)) {
-      IScope scope = null;
+    IScope scope = scopeMap.get(reference);
+    if (scope == null) {
       if (indexedElement instanceof MessageField) {
         TypeLink typeLink = ((MessageField) indexedElement).getType();
         if (typeLink instanceof ComplexTypeLink) {
@@ -147,9 +162,14 @@ public class ProtobufScopeProvider extends AbstractDeclarativeScopeProvider {
         scope = createProtobufImportScope(scope, group, reference);
         ((ProtobufImportScope) scope).addNormalizer(normalizer);
       }
-      scopeMap.put(reference, scope);
+      if (scope != null) {
+        IScope existing = scopeMap.putIfAbsent(reference, scope);
+        if (existing != null) {
+          scope = existing;
+        }
+      }
     }
-    return scopeMap.get(reference);
+    return scope;
   }
 
   private IScope createProtobufImportScope(IScope parent, EObject context, EReference reference) {
@@ -206,13 +226,64 @@ public class ProtobufScopeProvider extends AbstractDeclarativeScopeProvider {
     if (DEBUG_SCOPING) {
       getScopeProviderTimingCollector().startTimer();
     }
-    IScope scope = super.getScope(context, reference);
+    IScope scope = dispatchScope(context, reference);
+    if (scope == NOT_HANDLED) {
+      scope = super.getScope(context, reference);
+    } else if (scope == null) {
+      // Same fallback as the declarative dispatcher when a scope_* method returns null.
+      scope = delegateGetScope(context, reference);
+    }
     if (DEBUG_SCOPING) {
       getScopeProviderTimingCollector().stopTimer();
     }
     return scope;
   }
 
+  /**
+   * Calls the {@code scope_*} method for the given context and reference directly, instead of
+   * looking it up by name through reflection. Returns {@link #NOT_HANDLED} if the given combination
+   * is not handled here, in which case the declarative dispatcher in the superclass is used as a
+   * fallback, or the result of the {@code scope_*} method, which may be {@code null}, otherwise.
+   */
+  private @Nullable IScope dispatchScope(EObject context, EReference reference) {
+    if (reference == COMPLEX_TYPE_LINK__TARGET
+        || reference == MESSAGE_LINK__TARGET
+        || reference == EXTENSIBLE_TYPE_LINK__TARGET) {
+      // No scope_* method exists for these references.
+      return delegateGetScope(context, reference);
+    }
+    if (context.eClass().getEPackage() != ProtobufPackage.eINSTANCE) {
+      return NOT_HANDLED;
+    }
+    switch (context.eClass().getClassifierID()) {
+      case ProtobufPackage.NORMAL_FIELD_NAME:
+      case ProtobufPackage.EXTENSION_FIELD_NAME:
+        if (reference == FIELD_NAME__TARGET) {
+          return scope_FieldName_target((FieldName) context, reference);
+        }
+        break;
+      case ProtobufPackage.LITERAL_LINK:
+        if (reference == LITERAL_LINK__TARGET) {
+          return scope_LiteralLink_target((LiteralLink) context, reference);
+        }
+        break;
+      case ProtobufPackage.MESSAGE_OPTION_FIELD:
+      case ProtobufPackage.EXTENSION_OPTION_FIELD:
+        if (reference == OPTION_FIELD__TARGET) {
+          return scope_OptionField_target((OptionField) context, reference);
+        }
+        break;
+      case ProtobufPackage.OPTION_SOURCE:
+        if (reference == OPTION_SOURCE__TARGET) {
+          return scope_OptionSource_target((OptionSource) context, reference);
+        }
+        break;
+      default:
+        break;
+    }
+    return NOT_HANDLED;
+  }
+
   /**
    * Scopes the {@code FieldName}.
    *
@@ -16,9 +16,85 @@ package com.google.eclipse.protobuf.util;
 public final class SystemProperties {
   private static final String LINE_SEPARATOR = System.getProperty("line.separator");
 
+  private static final String PARALLEL_LINKING = "com.google.eclipse.protobuf.parallelLinking";
+  private static final String LINKING_THREADS = "com.google.eclipse.protobuf.linkingThreads";
+  private static final String INCREMENTAL_VALIDATION = "com.google.eclipse.protobuf.incrementalValidation";
+  private static final String LAZY_AGGREGATE_VALUES = "com.google.eclipse.protobuf.lazyAggregateValues";
+  private static final String COMPACT_IMPORTS = "com.google.eclipse.protobuf.compactImports";
+  private static final String PREFETCH_IMPORTS = "com.google.eclipse.protobuf.prefetchImports";
+  private static final String VALIDATION_RESULT_CACHE = "com.google.eclipse.protobuf.validationResultCache";
+
   public static String lineSeparator() {
     return LINE_SEPARATOR;
   }
 
+  /**
+   * Indicates whether the cross-references of a single resource should be resolved concurrently.
+   * Enabled by starting Eclipse with {@code -Dcom.google.eclipse.protobuf.parallelLinking=true}.
+   * @return {@code true} if concurrent linking is enabled; {@code false} otherwise.
+   */
+  public static boolean isParallelLinkingEnabled() {
+    return Boolean.getBoolean(PARALLEL_LINKING);
+  }
+
+  /**
+   * Returns the number of threads to use when resolving cross-references concurrently. Defaults to
+   * the number of available processors.
+   * @return the number of threads to use when resolving cross-references concurrently.
+   */
+  public static int linkingThreadCount() {
+    int threadCount = Integer.getInteger(LINKING_THREADS, Runtime.getRuntime().availableProcessors());
+    return Math.max(1, threadCount);
+  }
+
+  /**
+   * Indicates whether editors should only re-run the checks of the declarations affected by an edit.
+   * Enabled by starting Eclipse with {@code -Dcom.google.eclipse.protobuf.incrementalValidation=true}.
+   * @return {@code true} if incremental validation is enabled; {@code false} otherwise.
+   */
+  public static boolean isIncrementalValidationEnabled() {
+    return Boolean.getBoolean(INCREMENTAL_VALIDATION);
+  }
+
+  /**
+   * Indicates whether imported files should be loaded without parsing the contents of their large
+   * aggregate option values. Enabled by starting Eclipse with
+   * {@code -Dcom.google.eclipse.protobuf.lazyAggregateValues=true}.
+   * @return {@code true} if lazy parsing of aggregate values is enabled; {@code false} otherwise.
+   */
+  public static boolean isLazyAggregateValuesEnabled() {
+    return Boolean.getBoolean(LAZY_AGGREGATE_VALUES);
+  }
+
+  /**
+   * Indicates whether imported files should be loaded without keeping their node model, which is
+   * rebuilt when needed. Enabled by starting Eclipse with
+   * {@code -Dcom.google.eclipse.protobuf.compactImports=true}.
+   * @return {@code true} if compact loading of imported files is enabled; {@code false} otherwise.
+   */
+  public static boolean isCompactImportsEnabled() {
+    return Boolean.getBoolean(COMPACT_IMPORTS);
+  }
+
+  /**
+   * Indicates whether editors should load the files imported, directly or transitively, by the file
+   * they open in the background, before they are needed. Enabled by starting Eclipse with
+   * {@code -Dcom.google.eclipse.protobuf.prefetchImports=true}.
+   * @return {@code true} if imported files are loaded in the background; {@code false} otherwise.
+   */
+  public static boolean isImportPrefetchEnabled() {
+    return Boolean.getBoolean(PREFETCH_IMPORTS);
+  }
+
+  /**
+   * Indicates whether the issues found by validating a file should be reused when neither the file
+   * nor the files it imports changed. Enabled by starting Eclipse with
+   * {@code -Dcom.google.eclipse.protobuf.validationResultCache=true}.
+   * @return {@code true} if validation results are cached; {@code false} otherwise.
+   */
+  public static boolean isValidationResultCacheEnabled() {
+    return Boolean.getBoolean(VALIDATION_RESULT_CACHE);
+  }
+
   private SystemProperties() {}
 }
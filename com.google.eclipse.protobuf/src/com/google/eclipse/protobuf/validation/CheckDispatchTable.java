@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.validation;
+
+import static com.google.common.collect.Lists.newArrayList;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.xtext.validation.Check;
+import org.eclipse.xtext.validation.ComposedChecks;
+
+/**
+ * Per-{@link EClass} table of the {@code @Check} methods declared by a validator and the
+ * validators it composes (see {@link ComposedChecks}).
+ * <p>
+ * {@code AbstractDeclarativeValidator} allocates its validation state and looks up the checks for
+ * every model object it is offered. Most objects in a proto file (links, literals, option values)
+ * have no checks at all; the table lets a validator skip them with a single array lookup.
+ * </p>
+ */
+public class CheckDispatchTable {
+  private final EPackage ePackage;
+  private final boolean[] hasChecks;
+
+  /**
+   * Creates a new <code>{@link CheckDispatchTable}</code>.
+   * @param validatorType the type of the validator declaring the {@code @Check} methods.
+   * @param ePackage the package containing the types of the objects to validate.
+   */
+  public CheckDispatchTable(Class<?> validatorType, EPackage ePackage) {
+    this.ePackage = ePackage;
+    List<Class<?>> checkedTypes = checkedTypesIn(validatorType);
+    List<EClassifier> classifiers = ePackage.getEClassifiers();
+    hasChecks = new boolean[classifiers.size()];
+    for (EClassifier classifier : classifiers) {
+      if (classifier instanceof EClass) {
+        hasChecks[classifier.getClassifierID()] = isChecked(classifier.getInstanceClass(), checkedTypes);
+      }
+    }
+  }
+
+  private static List<Class<?>> checkedTypesIn(Class<?> validatorType) {
+    List<Class<?>> checkedTypes = newArrayList();
+    addCheckedTypes(validatorType, checkedTypes);
+    return checkedTypes;
+  }
+
+  private static void addCheckedTypes(Class<?> validatorType, List<Class<?>> checkedTypes) {
+    for (Method method : validatorType.getMethods()) {
+      if (method.isAnnotationPresent(Check.class) && method.getParameterTypes().length == 1) {
+        checkedTypes.add(method.getParameterTypes()[0]);
+      }
+    }
+    for (Class<?> type = validatorType; type != null; type = type.getSuperclass()) {
+      ComposedChecks composedChecks = type.getAnnotation(ComposedChecks.class);
+      if (composedChecks == null) {
+        continue;
+      }
+      for (Class<?> composed : composedChecks.validators()) {
+        addCheckedTypes(composed, checkedTypes);
+      }
+    }
+  }
+
+  private static boolean isChecked(Class<?> instanceType, List<Class<?>> checkedTypes) {
+    if (instanceType == null) {
+      return true;
+    }
+    for (Class<?> checkedType : checkedTypes) {
+      if (checkedType.isAssignableFrom(instanceType)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Indicates whether any {@code @Check} method accepts objects of the given type. Types outside
+   * of this table's package are always considered checked.
+   * @param eClass the given type.
+   * @return {@code true} if any {@code @Check} method accepts objects of the given type,
+   * {@code false} otherwise.
+   */
+  public boolean hasChecksFor(EClass eClass) {
+    if (eClass.getEPackage() != ePackage) {
+      return true;
+    }
+    return hasChecks[eClass.getClassifierID()];
+  }
+}
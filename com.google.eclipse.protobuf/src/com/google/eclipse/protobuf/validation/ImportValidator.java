@@ -13,6 +13,7 @@ import static com.google.common.collect.Sets.newHashSet;
 import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.IMPORT__PATH;
 import static com.google.eclipse.protobuf.validation.Messages.importNotFound;
 import static com.google.eclipse.protobuf.validation.Messages.importingUnsupportedSyntax;
+import static com.google.eclipse.protobuf.validation.Messages.unusedImport;
 import static java.lang.String.format;
 import static org.eclipse.xtext.util.Tuples.pair;
 
@@ -39,6 +40,8 @@ import java.util.Set;
  * @author alruiz@google.com (Alex Ruiz)
  */
 public class ImportValidator extends AbstractDeclarativeValidator {
+  public static final String UNUSED_IMPORT_WARNING = "unusedImport";
+
   @Inject private Imports imports;
   @Inject private Protobufs protobufs;
   @Inject private Resources resources;
@@ -128,6 +131,20 @@ public class ImportValidator extends AbstractDeclarativeValidator {
     error(format(importNotFound, imports.getPath(anImport)), IMPORT__PATH);
   }
 
+  /**
+   * Verifies that the {@code Import}s in the given root supply the target of at least one of its
+   * cross-references, according to the files recorded while linking them. This validator will
+   * create a warning marker for each unused {@code Import}.
+   *
+   * @param root the root containing the imports to check.
+   */
+  @Check public void checkImportsAreUsed(Protobuf root) {
+    for (Import anImport : imports.unusedImportsIn(root)) {
+      warning(format(unusedImport, imports.getPath(anImport)), anImport, IMPORT__PATH,
+          UNUSED_IMPORT_WARNING);
+    }
+  }
+
   private static enum HasKnownSyntax {
     YES, NO;
   }
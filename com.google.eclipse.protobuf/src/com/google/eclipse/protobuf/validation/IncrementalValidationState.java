@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.validation;
+
+import static java.util.Collections.emptyList;
+
+import static com.google.common.collect.Maps.newHashMap;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.common.util.Diagnostic;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.xtext.nodemodel.INode;
+import org.eclipse.xtext.validation.CheckMode;
+
+import com.google.common.hash.HashCode;
+import com.google.eclipse.protobuf.protobuf.ComplexType;
+import com.google.eclipse.protobuf.protobuf.Protobuf;
+import com.google.eclipse.protobuf.protobuf.Service;
+import com.google.eclipse.protobuf.protobuf.TypeExtension;
+import com.google.eclipse.protobuf.resource.DamagedRegion;
+
+/**
+ * Text changed in a resource since it was last validated, and the validation diagnostics of each of
+ * its top-level declarations (messages, enums, groups, services and type extensions.)
+ * <p>
+ * The diagnostics of a declaration that was neither edited nor refers to an edited declaration
+ * are still valid after an edit, and do not need to be computed again. Diagnostics refer to model
+ * objects, not to text offsets, so they are still reported at the right place after the text
+ * before them changes. No diagnostics are kept when the context of the declarations (the package,
+ * the imports or the text of the imported files) changed.
+ * </p>
+ */
+public class IncrementalValidationState {
+  /**
+   * Key of the validation option holding the top-level declarations to validate. Objects contained
+   * in any other top-level declaration are not validated.
+   */
+  static final String DECLARATIONS_TO_VALIDATE = "com.google.eclipse.protobuf.declarationsToValidate";
+
+  private final DamagedRegion damage = new DamagedRegion();
+  private CheckMode checkMode;
+  private HashCode context;
+  private Map<EObject, List<Diagnostic>> diagnosticsByDeclaration = newHashMap();
+
+  /**
+   * Records a change in the text of the resource.
+   * @param offset the offset of the change.
+   * @param replacedLength the length of the replaced text.
+   * @param newLength the length of the new text.
+   */
+  public synchronized void recordChange(int offset, int replacedLength, int newLength) {
+    damage.recordChange(offset, replacedLength, newLength);
+  }
+
+  /**
+   * Discards the stored diagnostics, forcing the next validation to validate every declaration.
+   */
+  public synchronized void invalidate() {
+    checkMode = null;
+    context = null;
+    diagnosticsByDeclaration = newHashMap();
+    damage.clear();
+  }
+
+  synchronized boolean canValidateIncrementally(CheckMode mode, HashCode currentContext) {
+    return checkMode == mode && context != null && context.equals(currentContext);
+  }
+
+  synchronized boolean isKnown(EObject declaration) {
+    return diagnosticsByDeclaration.containsKey(declaration);
+  }
+
+  synchronized boolean isDamaged(INode node) {
+    return damage.isDamaged(node);
+  }
+
+  synchronized List<Diagnostic> diagnosticsOf(EObject declaration) {
+    List<Diagnostic> diagnostics = diagnosticsByDeclaration.get(declaration);
+    if (diagnostics == null) {
+      return emptyList();
+    }
+    return diagnostics;
+  }
+
+  synchronized void update(CheckMode mode, HashCode currentContext,
+      Map<EObject, List<Diagnostic>> diagnostics) {
+    checkMode = mode;
+    context = currentContext;
+    diagnosticsByDeclaration = diagnostics;
+    damage.clear();
+  }
+
+  /**
+   * Indicates whether the given object needs to be validated, according to the given validation
+   * options.
+   * @param o the given object.
+   * @param context the validation options.
+   * @return {@code true} if the given object needs to be validated; {@code false} otherwise.
+   */
+  static boolean shouldValidate(EObject o, Map<Object, Object> context) {
+    if (context == null) {
+      return true;
+    }
+    Set<?> declarations = (Set<?>) context.get(DECLARATIONS_TO_VALIDATE);
+    if (declarations == null) {
+      return true;
+    }
+    EObject declaration = topLevelDeclarationOf(o);
+    return declaration == null || declarations.contains(declaration);
+  }
+
+  /**
+   * Returns the top-level declaration containing the given object.
+   * @param o the given object.
+   * @return the top-level declaration containing the given object, or {@code null} if the given
+   * object is not contained in a top-level declaration.
+   */
+  static EObject topLevelDeclarationOf(EObject o) {
+    EObject current = o;
+    while (current != null) {
+      EObject container = current.eContainer();
+      if (container instanceof Protobuf) {
+        return isDeclaration(current) ? current : null;
+      }
+      current = container;
+    }
+    return null;
+  }
+
+  static boolean isDeclaration(EObject o) {
+    return o instanceof ComplexType || o instanceof Service || o instanceof TypeExtension;
+  }
+}
@@ -51,6 +51,7 @@ public class Messages extends NLS {
   public static String tagNumberConflict;
   public static String unknownSyntax;
   public static String unrecognizedSyntaxIdentifier;
+  public static String unusedImport;
 
   static {
     Class<Messages> targetType = Messages.class;
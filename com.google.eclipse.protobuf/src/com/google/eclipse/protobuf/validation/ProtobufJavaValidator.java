@@ -8,6 +8,8 @@
  */
 package com.google.eclipse.protobuf.validation;
 
+import static com.google.eclipse.protobuf.model.util.ModelFeatures.modelFeatures;
+import static com.google.eclipse.protobuf.model.util.ModelFeatures.Feature.NAME;
 import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.MAP_TYPE__KEY_TYPE;
 import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.MAP_TYPE__VALUE_TYPE;
 import static com.google.eclipse.protobuf.protobuf.ProtobufPackage.Literals.MESSAGE_FIELD__MODIFIER;
@@ -81,12 +83,12 @@ import com.google.eclipse.protobuf.protobuf.TypeExtension;
 import com.google.eclipse.protobuf.protobuf.TypeLink;
 import com.google.inject.Inject;
 
+import org.eclipse.emf.common.util.DiagnosticChain;
 import org.eclipse.emf.common.util.TreeIterator;
-import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.xtext.EcoreUtil2;
-import org.eclipse.xtext.util.SimpleAttributeResolver;
 import org.eclipse.xtext.validation.Check;
 import org.eclipse.xtext.validation.ComposedChecks;
 
@@ -105,6 +107,9 @@ public class ProtobufJavaValidator extends AbstractProtobufJavaValidator {
   public static final String MAP_WITH_MAP_VALUE_TYPE_ERROR = "mapWithMapValueType";
   public static final String ONEOF_FIELD_WITH_MODIFIER_ERROR = "oneofFieldWithModifier";
 
+  private static final CheckDispatchTable checkDispatchTable =
+      new CheckDispatchTable(ProtobufJavaValidator.class, ProtobufPackage.eINSTANCE);
+
   @Inject private IndexedElements indexedElements;
   @Inject private IndexRanges indexRanges;
   @Inject private NameResolver nameResolver;
@@ -112,6 +117,20 @@ public class ProtobufJavaValidator extends AbstractProtobufJavaValidator {
   @Inject private Protobufs protobufs;
   @Inject private Syntaxes syntaxes;
 
+  /**
+   * Skips the model objects that no {@code @Check} method (including the ones in composed
+   * validators) accepts, without going through the reflective dispatch. Also skips the model
+   * objects whose diagnostics are kept from the last incremental validation.
+   */
+  @Override protected boolean internalValidate(
+      EClass eClass, EObject eObject, DiagnosticChain diagnostics, Map<Object, Object> context) {
+    if (!checkDispatchTable.hasChecksFor(eClass)
+        || !IncrementalValidationState.shouldValidate(eObject, context)) {
+      return true;
+    }
+    return super.internalValidate(eClass, eObject, diagnostics, context);
+  }
+
   @Check public void checkIsKnownSyntax(Protobuf protobuf) {
     if (!protobufs.hasKnownSyntax(protobuf)) {
       warning(unknownSyntax, null);
@@ -248,7 +267,7 @@ public class ProtobufJavaValidator extends AbstractProtobufJavaValidator {
     for (IndexedElement element : getOwnedElements(message, IndexedElement.class)) {
       String name = nameResolver.nameOf(element);
       if (name != null) {
-        EAttribute nameAttribute = SimpleAttributeResolver.NAME_RESOLVER.getAttribute(element);
+        EStructuralFeature nameAttribute = modelFeatures().featureOf(element, NAME);
         reportReservedNameConflicts(name, reservedNames, element, nameAttribute);
       }
     }
@@ -271,7 +290,7 @@ public class ProtobufJavaValidator extends AbstractProtobufJavaValidator {
   }
 
   private void reportReservedNameConflicts(
-      String name, Set<String> reservedNames, EObject errorSource, EAttribute errorFeature) {
+      String name, Set<String> reservedNames, EObject errorSource, EStructuralFeature errorFeature) {
     if (reservedNames.contains(name)) {
       String nameUser = String.format(conflictingReservedName, name);
       String message = String.format(nameConflict, name, nameUser);
@@ -15,23 +15,40 @@ import static org.eclipse.xtext.validation.CancelableDiagnostician.CANCEL_INDICA
 import static org.eclipse.xtext.validation.CheckMode.KEY;
 import static org.eclipse.xtext.validation.CheckType.FAST;
 import static org.eclipse.xtext.validation.impl.ConcreteSyntaxEValidator.DISABLE_CONCRETE_SYNTAX_EVALIDATOR;
+import static com.google.eclipse.protobuf.util.SystemProperties.isIncrementalValidationEnabled;
+import static com.google.eclipse.protobuf.util.SystemProperties.isParallelLinkingEnabled;
+import static com.google.eclipse.protobuf.util.SystemProperties.isValidationResultCacheEnabled;
+import static com.google.eclipse.protobuf.util.SystemProperties.linkingThreadCount;
 import static com.google.eclipse.protobuf.util.Tracer.DEBUG_SCOPING;
 import static com.google.eclipse.protobuf.util.Tracer.trace;
 
+import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Lists.newArrayListWithExpectedSize;
 import static com.google.common.collect.Maps.newHashMap;
+import static com.google.common.collect.Sets.newHashSet;
+import static com.google.eclipse.protobuf.validation.IncrementalValidationState.DECLARATIONS_TO_VALIDATE;
+import static com.google.eclipse.protobuf.validation.IncrementalValidationState.isDeclaration;
+import static com.google.eclipse.protobuf.validation.IncrementalValidationState.topLevelDeclarationOf;
 import static com.google.eclipse.protobuf.validation.Messages.importingUnsupportedSyntax;
 import static com.google.eclipse.protobuf.validation.Messages.scopingError;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.apache.log4j.Logger;
 import org.eclipse.emf.common.util.Diagnostic;
+import org.eclipse.emf.common.util.TreeIterator;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
 import org.eclipse.emf.ecore.EValidator;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.xtext.diagnostics.Severity;
+import org.eclipse.xtext.nodemodel.INode;
+import org.eclipse.xtext.nodemodel.util.NodeModelUtils;
 import org.eclipse.xtext.resource.XtextResource;
 import org.eclipse.xtext.util.CancelIndicator;
 import org.eclipse.xtext.util.IAcceptor;
@@ -39,11 +56,44 @@ import org.eclipse.xtext.validation.CheckMode;
 import org.eclipse.xtext.validation.Issue;
 import org.eclipse.xtext.validation.ResourceValidatorImpl;
 
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.eclipse.protobuf.linking.ProtobufDiagnostic;
+import com.google.eclipse.protobuf.linking.ProtobufResource;
+import com.google.eclipse.protobuf.protobuf.Option;
+import com.google.eclipse.protobuf.protobuf.Package;
+import com.google.eclipse.protobuf.protobuf.Protobuf;
+import com.google.eclipse.protobuf.protobuf.ProtobufElement;
 import com.google.eclipse.protobuf.util.TimingCollector;
+import com.google.inject.Inject;
 
 /**
  * Adds support for converting scoping errors into warnings if non-proto2 files are imported.
+ * <p>
+ * When the validation result cache is enabled (system property
+ * {@code com.google.eclipse.protobuf.validationResultCache}), issues are cached in a
+ * {@link ValidationResultCache}: validating a resource whose text, and the text of the resources it
+ * imports, did not change since its last validation links the resource and returns the issues found
+ * by that validation.
+ * </p>
+ * <p>
+ * When concurrent linking is enabled (system property
+ * {@code com.google.eclipse.protobuf.parallelLinking}), the targets of the cross-references in a
+ * {@link ProtobufResource} are looked up concurrently before the proxies are resolved.
+ * </p>
+ * <p>
+ * Resources loaded with {@link ProtobufResource#OPTION_LAZY_AGGREGATE_VALUES} are fully parsed
+ * before being validated.
+ * </p>
+ * <p>
+ * When incremental validation is enabled (system property
+ * {@code com.google.eclipse.protobuf.incrementalValidation}), only the top-level declarations
+ * edited since the last validation, and the ones referring to them, are checked again. The
+ * diagnostics of the other declarations are taken from the last validation, unless the package, the
+ * imports or the text of the imported files changed since then.
+ * </p>
  *
  * @author alruiz@google.com (Alex Ruiz)
  */
@@ -57,16 +107,47 @@ public class ProtobufResourceValidator extends ResourceValidatorImpl {
         }
       };
 
+  @Inject private ValidationResultCache resultCache;
+
   @Override
   public List<Issue> validate(Resource resource, CheckMode mode, CancelIndicator indicator) {
     CancelIndicator monitor = indicator == null ? CancelIndicator.NullImpl : indicator;
+    if (resource instanceof ProtobufResource) {
+      ((ProtobufResource) resource).expandAggregateValues();
+    }
     getScopeProviderTimingCollector().clear();
-    resolveProxies(resource, monitor);
+    resolveCrossReferences(resource, monitor);
     if (DEBUG_SCOPING) {
       trace("Debugging AbstractDeclarativeScopeProvider.getScope() "
            + getScopeProviderTimingCollector().toString());
     }
-    return handleIssues(resource, mode, monitor);
+    // The resource is linked even if its issues are cached: editors rely on its cross-references.
+    HashCode key = isValidationResultCacheEnabled() ? resultCache.keyOf(resource, mode) : null;
+    if (key != null) {
+      List<Issue> cached = resultCache.get(resource, key);
+      if (cached != null) {
+        return cached;
+      }
+    }
+    List<Issue> issues = handleIssues(resource, mode, monitor);
+    if (key != null && issues != null && !monitor.isCanceled()) {
+      resultCache.put(resource, key, issues);
+    }
+    return issues;
+  }
+
+  private void resolveCrossReferences(Resource resource, CancelIndicator monitor) {
+    if (!isParallelLinkingEnabled() || !(resource instanceof ProtobufResource)) {
+      resolveProxies(resource, monitor);
+      return;
+    }
+    ProtobufResource protobufResource = (ProtobufResource) resource;
+    protobufResource.precomputeCrossReferences(monitor, LinkingExecutor.INSTANCE);
+    try {
+      resolveProxies(resource, monitor);
+    } finally {
+      protobufResource.discardPrecomputedCrossReferences();
+    }
   }
 
   private List<Issue> handleIssues(Resource resource, CheckMode mode, CancelIndicator monitor) {
@@ -99,6 +180,10 @@ public class ProtobufResourceValidator extends ResourceValidatorImpl {
 
   private Status delegateValidationToDiagnostician(
       Resource resource, CheckMode mode, CancelIndicator monitor, IAcceptor<Issue> acceptor) {
+    if (shouldValidateIncrementally(resource) && resource instanceof ProtobufResource
+        && resource.getContents().size() == 1 && resource.getContents().get(0) instanceof Protobuf) {
+      return validateIncrementally((ProtobufResource) resource, mode, monitor, acceptor);
+    }
     Status hasNonProto2Import = Status.OK;
     for (EObject element : resource.getContents()) {
       if (monitor.isCanceled()) {
@@ -113,6 +198,134 @@ public class ProtobufResourceValidator extends ResourceValidatorImpl {
     return hasNonProto2Import;
   }
 
+  /**
+   * Indicates whether only the declarations affected by the edits made since the last validation
+   * of the given resource should be checked again.
+   * @param resource the resource to validate.
+   * @return {@code true} if incremental validation is enabled; {@code false} otherwise.
+   */
+  protected boolean shouldValidateIncrementally(Resource resource) {
+    return isIncrementalValidationEnabled();
+  }
+
+  private Status validateIncrementally(
+      ProtobufResource resource, CheckMode mode, CancelIndicator monitor, IAcceptor<Issue> acceptor) {
+    IncrementalValidationState state = resource.getIncrementalValidationState();
+    Protobuf root = (Protobuf) resource.getContents().get(0);
+    List<EObject> declarations = newArrayList();
+    for (EObject element : root.getElements()) {
+      if (isDeclaration(element)) {
+        declarations.add(element);
+      }
+    }
+    HashCode context = contextOf(resource, root);
+    Set<EObject> toValidate = state.canValidateIncrementally(mode, context)
+        ? declarationsToValidate(declarations, state) : newHashSet(declarations);
+    Map<Object, Object> options = validationOptions(resource, mode, monitor);
+    options.put(DECLARATIONS_TO_VALIDATE, toValidate);
+    Diagnostic diagnostic = getDiagnostician().validate(root, options);
+    if (monitor.isCanceled()) {
+      return Status.CANCELED;
+    }
+    Map<EObject, List<Diagnostic>> diagnosticsByDeclaration = newHashMap();
+    List<Diagnostic> diagnostics = newArrayList(diagnostic.getChildren());
+    for (EObject declaration : declarations) {
+      if (toValidate.contains(declaration)) {
+        diagnosticsByDeclaration.put(declaration, newArrayList());
+      } else {
+        List<Diagnostic> kept = state.diagnosticsOf(declaration);
+        diagnosticsByDeclaration.put(declaration, kept);
+        diagnostics.addAll(kept);
+      }
+    }
+    for (Diagnostic child : diagnostic.getChildren()) {
+      EObject declaration = topLevelDeclarationOf(causeOf(child));
+      List<Diagnostic> ofDeclaration = diagnosticsByDeclaration.get(declaration);
+      if (ofDeclaration != null) {
+        ofDeclaration.add(child);
+      }
+    }
+    state.update(mode, context, diagnosticsByDeclaration);
+    Status hasNonProto2Import = Status.OK;
+    for (Diagnostic child : diagnostics) {
+      if (importingUnsupportedSyntax.equals(child.getMessage())) {
+        hasNonProto2Import = Status.PROTO1_IMPORTS_FOUND;
+      }
+      issueFromEValidatorDiagnostic(child, acceptor);
+    }
+    return hasNonProto2Import;
+  }
+
+  // What the declarations depend on outside of the text of this resource's declarations: the
+  // syntax, the package, the file-level options, the imports and the text of the imported files.
+  private HashCode contextOf(ProtobufResource resource, Protobuf root) {
+    HashCode importsHash = resultCache.importClosureHashOf(resource);
+    if (importsHash == null) {
+      return null;
+    }
+    Hasher hasher = Hashing.murmur3_128().newHasher().putBytes(importsHash.asBytes());
+    hasher.putString(textOf(root.getSyntax()), UTF_8);
+    for (ProtobufElement element : root.getElements()) {
+      if (element instanceof Package) {
+        hasher.putString(String.valueOf(((Package) element).getImportedNamespace()), UTF_8);
+      } else if (element instanceof Option) {
+        hasher.putString(textOf(element), UTF_8);
+      }
+    }
+    return hasher.hash();
+  }
+
+  private String textOf(EObject element) {
+    INode node = element == null ? null : NodeModelUtils.getNode(element);
+    return node == null ? "" : NodeModelUtils.getTokenText(node);
+  }
+
+  private Set<EObject> declarationsToValidate(
+      List<EObject> declarations, IncrementalValidationState state) {
+    Set<EObject> changed = newHashSet();
+    for (EObject declaration : declarations) {
+      if (!state.isKnown(declaration) || state.isDamaged(NodeModelUtils.getNode(declaration))) {
+        changed.add(declaration);
+      }
+    }
+    Set<EObject> toValidate = newHashSet(changed);
+    if (changed.isEmpty()) {
+      return toValidate;
+    }
+    for (EObject declaration : declarations) {
+      if (!changed.contains(declaration) && refersToAny(declaration, changed)) {
+        toValidate.add(declaration);
+      }
+    }
+    return toValidate;
+  }
+
+  private boolean refersToAny(EObject declaration, Set<EObject> declarations) {
+    TreeIterator<EObject> contents = declaration.eAllContents();
+    while (contents.hasNext()) {
+      EObject source = contents.next();
+      for (EReference reference : source.eClass().getEAllReferences()) {
+        if (reference.isContainment() || reference.isContainer() || reference.isMany()) {
+          continue;
+        }
+        Object target = source.eGet(reference, false);
+        if (target instanceof EObject
+            && declarations.contains(topLevelDeclarationOf((EObject) target))) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static EObject causeOf(Diagnostic diagnostic) {
+    List<?> data = diagnostic.getData();
+    if (data.isEmpty() || !(data.get(0) instanceof EObject)) {
+      return null;
+    }
+    return (EObject) data.get(0);
+  }
+
   private Map<Object, Object> validationOptions(
       Resource resource, CheckMode mode, CancelIndicator monitor) {
     Map<Object, Object> options = newHashMap();
@@ -205,6 +418,11 @@ public class ProtobufResourceValidator extends ResourceValidatorImpl {
     }
   }
 
+  private static class LinkingExecutor {
+    static final ExecutorService INSTANCE = Executors.newFixedThreadPool(linkingThreadCount(),
+        new ThreadFactoryBuilder().setNameFormat("protobuf-linking-%d").setDaemon(true).build());
+  }
+
   public static TimingCollector getScopeProviderTimingCollector() {
     return scopeProviderTimingCollector.get();
   }
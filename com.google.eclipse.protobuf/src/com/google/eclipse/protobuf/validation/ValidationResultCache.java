@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2016 Google Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package com.google.eclipse.protobuf.validation;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Sets.newHashSet;
+import static com.google.eclipse.protobuf.util.EResources.getProjectOf;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.xtext.parser.IParseResult;
+import org.eclipse.xtext.resource.XtextResource;
+import org.eclipse.xtext.util.IResourceScopeCache;
+import org.eclipse.xtext.validation.CheckMode;
+import org.eclipse.xtext.validation.Issue;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.eclipse.protobuf.linking.ProtobufResource;
+import com.google.eclipse.protobuf.model.util.Imports;
+import com.google.eclipse.protobuf.model.util.Protobufs;
+import com.google.eclipse.protobuf.model.util.Resources;
+import com.google.eclipse.protobuf.protobuf.Import;
+import com.google.eclipse.protobuf.protobuf.Protobuf;
+import com.google.eclipse.protobuf.scoping.ProtoDescriptorProvider;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+
+/**
+ * Issues found by the last validation of a resource, keyed by the text of the resource and the
+ * text of all the resources it imports, directly or indirectly.
+ * <p>
+ * Preferences affect validation through the resolution of imports (e.g. import paths) and through
+ * the choice of the files defining the options (the path of {@code descriptor.proto}), so the
+ * resolved URIs of the imports and the locations of the project's descriptors are part of the key
+ * as well.
+ * </p>
+ */
+@Singleton public class ValidationResultCache {
+  private static final int MAXIMUM_SIZE = 256;
+  private static final String CONTENT_HASH_KEY = ValidationResultCache.class.getName();
+
+  @Inject private IResourceScopeCache cache;
+  @Inject private ProtoDescriptorProvider descriptorProvider;
+  @Inject private Imports imports;
+  @Inject private Protobufs protobufs;
+  @Inject private Resources resources;
+
+  private final Cache<URI, Entry> entries =
+      CacheBuilder.newBuilder().maximumSize(MAXIMUM_SIZE).softValues().build();
+
+  /**
+   * Computes the key of the issues of the given resource.
+   * @param resource the given resource.
+   * @param mode the checks to perform.
+   * @return the key of the issues of the given resource, or {@code null} if the given resource, or
+   * any of the resources it imports, has not been parsed.
+   */
+  public HashCode keyOf(Resource resource, CheckMode mode) {
+    HashCode contentHash = contentHashOf(resource);
+    if (contentHash == null) {
+      return null;
+    }
+    HashCode importsHash = importClosureHashOf(resource);
+    if (importsHash == null) {
+      return null;
+    }
+    Hasher hasher = Hashing.murmur3_128().newHasher()
+        .putString(mode.name(), UTF_8)
+        .putBytes(contentHash.asBytes())
+        .putBytes(importsHash.asBytes());
+    for (URI descriptorLocation : descriptorProvider.allDescriptorLocations(getProjectOf(resource))) {
+      hasher.putString(descriptorLocation.toString(), UTF_8);
+    }
+    return hasher.hash();
+  }
+
+  /**
+   * Computes the hash of the resolved URIs of the imports of the given resource, and of the text of
+   * the resources it imports, directly or indirectly.
+   * @param resource the given resource.
+   * @return the hash of the imports of the given resource, or {@code null} if any of the resources it
+   * imports has not been parsed.
+   */
+  public HashCode importClosureHashOf(Resource resource) {
+    Hasher hasher = Hashing.murmur3_128().newHasher();
+    Set<URI> visited = newHashSet();
+    visited.add(resource.getURI());
+    Deque<Protobuf> pending = new ArrayDeque<>();
+    pending.add(resources.rootOf(resource));
+    while (!pending.isEmpty()) {
+      for (Import anImport : protobufs.importsIn(pending.remove())) {
+        URI uri = imports.resolvedUriOf(anImport);
+        if (uri == null) {
+          hasher.putString(unresolvedImportKey(anImport), UTF_8);
+          continue;
+        }
+        hasher.putString(uri.toString(), UTF_8);
+        if (!visited.add(uri)) {
+          continue;
+        }
+        Resource imported = imports.importedResource(anImport);
+        HashCode importedHash = contentHashOf(imported);
+        if (importedHash == null) {
+          return null;
+        }
+        hasher.putBytes(importedHash.asBytes());
+        pending.add(resources.rootOf(imported));
+      }
+    }
+    return hasher.hash();
+  }
+
+  private String unresolvedImportKey(Import anImport) {
+    String path = imports.getPath(anImport);
+    if (imports.hasUnresolvedDescriptorUri(anImport)) {
+      IProject project = getProjectOf(anImport.eResource());
+      return String.valueOf(descriptorProvider.descriptorLocation(project, path));
+    }
+    return "unresolved:" + path;
+  }
+
+  private HashCode contentHashOf(Resource resource) {
+    if (!(resource instanceof XtextResource)) {
+      return null;
+    }
+    final XtextResource xtextResource = (XtextResource) resource;
+    return cache.get(CONTENT_HASH_KEY, xtextResource, new Provider<HashCode>() {
+      @Override public HashCode get() {
+        String text = textOf(xtextResource);
+        return (text == null) ? null : Hashing.murmur3_128().hashString(text, UTF_8);
+      }
+    });
+  }
+
+  // The text of a compact resource is read without rebuilding its node model.
+  private static String textOf(XtextResource resource) {
+    if (resource instanceof ProtobufResource) {
+      return ((ProtobufResource) resource).getText();
+    }
+    IParseResult parseResult = resource.getParseResult();
+    if (parseResult == null || parseResult.getRootASTElement() == null) {
+      return null;
+    }
+    return parseResult.getRootNode().getText();
+  }
+
+  /**
+   * Returns the issues stored for the given resource with the given key.
+   * @param resource the given resource.
+   * @param key the key computed by {@link #keyOf(Resource, CheckMode)}.
+   * @return the issues stored for the given resource, or {@code null} if no issues were stored, or
+   * if they were stored with a different key.
+   */
+  public List<Issue> get(Resource resource, HashCode key) {
+    Entry entry = entries.getIfPresent(resource.getURI());
+    if (entry == null || !entry.key.equals(key)) {
+      return null;
+    }
+    return newArrayList(entry.issues);
+  }
+
+  /**
+   * Stores the issues found in the given resource.
+   * @param resource the given resource.
+   * @param key the key computed by {@link #keyOf(Resource, CheckMode)} before validation.
+   * @param issues the issues found in the given resource.
+   */
+  public void put(Resource resource, HashCode key, List<Issue> issues) {
+    entries.put(resource.getURI(), new Entry(key, newArrayList(issues)));
+  }
+
+  private static class Entry {
+    final HashCode key;
+    final List<Issue> issues;
+
+    Entry(HashCode key, List<Issue> issues) {
+      this.key = key;
+      this.issues = issues;
+    }
+  }
+}